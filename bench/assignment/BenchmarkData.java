@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GenderTypes.FEMALE;
+import static assignment.GenderTypes.MALE;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Builds the objects used by the benchmarks. Every dataset is generated from
+ * a fixed seed so that runs against different revisions measure the same
+ * data. The application clock is fixed, so that flights created for a
+ * benchmark never depart while it is running.
+ *
+ * @author Graham Fairweather
+ */
+final class BenchmarkData {
+
+    /**
+     * The seed used for every generated dataset.
+     */
+    static final long SEED = 20160501L;
+
+    /**
+     * The date and time the application clock is fixed at.
+     */
+    static final LocalDateTime NOW = LocalDateTime.of(2016, 5, 1, 12, 0);
+
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Fixes the application clock and creates a seeded random generator.
+     *
+     * @return A {@link Random} using {@link #SEED}
+     */
+    static Random start() {
+        ApplicationClock.useFixed(NOW);
+        return new Random(SEED);
+    }
+
+    /**
+     * Creates a random word of the given length.
+     *
+     * @param random The random generator
+     * @param length The number of letters
+     * @return A word starting with a capital letter
+     */
+    static String word(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(Character.toUpperCase(LETTERS.charAt(random.nextInt(LETTERS.length()))));
+        for (int index = 1; index < length; index++) {
+            sb.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Creates an address.
+     *
+     * @param random The random generator
+     * @return An {@link Address}
+     */
+    static Address address(Random random) {
+        return new Address(word(random, 8) + " " + (1 + random.nextInt(99)), word(random, 6), String.valueOf(10000 + random.nextInt(89999)), "Sweden");
+    }
+
+    /**
+     * Creates a phone number.
+     *
+     * @param random The random generator
+     * @return A {@link Phone}
+     */
+    static Phone phone(Random random) {
+        return new Phone("0046", "070", String.valueOf(1000000 + random.nextInt(8999999)));
+    }
+
+    /**
+     * Creates a passenger.
+     *
+     * @param random The random generator
+     * @return A {@link Passenger}
+     */
+    static Passenger passenger(Random random) {
+        LocalDate birthDate = LocalDate.of(1940 + random.nextInt(60), 1 + random.nextInt(12), 1 + random.nextInt(28));
+        return new Passenger(word(random, 6), word(random, 9), random.nextBoolean() ? MALE : FEMALE, birthDate, address(random), phone(random));
+    }
+
+    /**
+     * Creates an airport.
+     *
+     * @param random The random generator
+     * @return An {@link Airport}
+     */
+    static Airport airport(Random random) {
+        return new Airport(word(random, 10) + " International Airport", address(random), phone(random));
+    }
+
+    /**
+     * Creates an airline with one economy and one first class meal.
+     *
+     * @param random The random generator
+     * @return An {@link Airline}
+     */
+    static Airline airline(Random random) {
+        Airline airline = new Airline(word(random, 8) + " Air", address(random), phone(random));
+        airline.getMeals().add(new Meal(ProductClassTypes.ECONOMY, "Cheese Roll plus Coke.", new Price("150.5")));
+        airline.getMeals().add(new Meal(ProductClassTypes.FIRST, "Roast Chicken plus Champagne.", new Price("2499.99")));
+        return airline;
+    }
+
+    /**
+     * Creates a flight departing a day after {@link #NOW}, using a new aircraft
+     * with the given number of seats, half of them first class.
+     *
+     * @param random The random generator
+     * @param airline The operating airline
+     * @param flightNumber The flight number
+     * @param seatCount The number of seats
+     * @return A {@link Flight}
+     */
+    static Flight flight(Random random, Airline airline, String flightNumber, int seatCount) {
+        int firstClassSeatCount = seatCount / 2;
+        Aircraft aircraft = new AircraftOfPassengerType(flightNumber, "Cessna", "441", firstClassSeatCount, seatCount - firstClassSeatCount);
+        LocalDateTime departure = NOW.plusDays(1).plusMinutes(random.nextInt(24 * 60));
+        return new Flight(flightNumber, airline, aircraft, departure, airport(random), airport(random), Duration.ofMinutes(60 + random.nextInt(600)), new Price("20000"), new Price("5000"));
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.ProductClassTypes.ECONOMY;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures creating a {@link Booking}, which prices the seat and meal with
+ * {@link java.math.BigDecimal} arithmetic, and summing the profit of an
+ * airline's {@link Bookings}.
+ *
+ * @author Graham Fairweather
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private Flight flight;
+    private Passenger passenger;
+    private Seat seat;
+    private Meal meal;
+    private Bookings bookings;
+
+    @Setup
+    public void setup() {
+        Random random = BenchmarkData.start();
+        Airline airline = BenchmarkData.airline(random);
+        flight = BenchmarkData.flight(random, airline, "QJ1", 2);
+        passenger = BenchmarkData.passenger(random);
+        seat = flight.getSeats().getFirstAvailable(ECONOMY);
+        meal = airline.getMeals().getEconomyClassMeals().get(0);
+        bookings = new Bookings(size);
+        Flight full = BenchmarkData.flight(random, airline, "QJ2", size);
+        for (Seat fullSeat : full.getSeats()) {
+            bookings.add(new Booking(full, passenger, fullSeat, meal));
+        }
+    }
+
+    /**
+     * Creates a booking and cancels it again, releasing its seat, class
+     * authorisation and meal portion, so that the next invocation can book
+     * them.
+     *
+     * @return The booking
+     */
+    @Benchmark
+    public Booking create() {
+        Booking booking = new Booking(flight, passenger, seat, meal);
+        booking.cancel();
+        return booking;
+    }
+
+    @Benchmark
+    public Price getProfit() {
+        return bookings.getProfit();
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link AbstractNoNullList} operations that every aggregate in
+ * the application is built on, using a {@link Passengers} list.
+ *
+ * @author Graham Fairweather
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private Passenger[] passengers;
+    private Passengers list;
+    private UUID lastId;
+
+    @Setup
+    public void setup() {
+        Random random = BenchmarkData.start();
+        passengers = new Passenger[size];
+        list = new Passengers(size);
+        for (int index = 0; index < size; index++) {
+            passengers[index] = BenchmarkData.passenger(random);
+            list.add(passengers[index]);
+        }
+        lastId = passengers[size - 1].getId();
+    }
+
+    /**
+     * Fills an empty list, which includes the duplicate check on every add.
+     *
+     * @return The filled list
+     */
+    @Benchmark
+    public Passengers add() {
+        Passengers filled = new Passengers(size);
+        for (Passenger passenger : passengers) {
+            filled.add(passenger);
+        }
+        return filled;
+    }
+
+    /**
+     * Finds the last element by its id, the worst case for a linear scan.
+     *
+     * @return The passenger found
+     */
+    @Benchmark
+    public Passenger find() {
+        return list.find(passenger -> passenger.getId().equals(lastId));
+    }
+
+    /**
+     * Filters the list by the first letter of the surname, about one in
+     * twenty-six matching.
+     *
+     * @return The matching passengers
+     */
+    @Benchmark
+    public Object filter() {
+        return list.filter(passenger -> passenger.getSurName().charAt(0) == 'S');
+    }
+
+}
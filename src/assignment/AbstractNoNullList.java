@@ -24,14 +24,20 @@
 package assignment;
 
 import static assignment.GeneralUtils.println;
+import static assignment.GeneralUtils.requireNotEmpty;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.UUID;
 import java.util.function.Predicate;
 import static java.util.stream.Collectors.toList;
 
@@ -49,6 +55,30 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
 
     private final List<T> syncBackingList;
 
+    /**
+     * The name index, guarded by the list mutex, {@code null} until first
+     * used.
+     */
+    private transient NameIndex<T> nameIndex;
+
+    /**
+     * The ids of the elements, used to refuse duplicates without scanning the
+     * list. Guarded by the list mutex, {@code null} until first used.
+     */
+    private transient Set<UUID> ids;
+
+    /**
+     * The lock statistics, guarded by the list mutex, {@code null} until the
+     * {@link LockProfiler} first sees the lock.
+     */
+    private transient LockStats lockStats;
+
+    /**
+     * The number of times elements were added or removed, guarded by the list
+     * mutex.
+     */
+    private long changeCount;
+
     /**
      * Constructs an empty list with the specified initial capacity.
      *
@@ -78,16 +108,238 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
         syncBackingList = Collections.synchronizedList(new ArrayList<>(c));
     }
 
+    /**
+     * Returns the object on which this list synchronizes, so that subclasses
+     * can keep their own state consistent with the elements of the list.
+     *
+     * @return The mutex of this list
+     */
+    protected final Object getMutex() {
+        return syncBackingList;
+    }
+
+    /**
+     * Gets the number of times elements were added to or removed from this
+     * list, clearing it counting once. Two copies of a list that have had the
+     * same changes made to them have the same count.
+     *
+     * @return The number of changes
+     */
+    public final long getChangeCount() {
+        synchronized (syncBackingList) {
+            return changeCount;
+        }
+    }
+
+    /**
+     * Called, while holding the list mutex, after an element has been added by
+     * {@link #add(AccountableObject)}. Does nothing unless overridden.
+     *
+     * @param element The element that was added
+     */
+    protected void added(T element) {
+    }
+
+    /**
+     * Called, while holding the list mutex, after an element has been removed
+     * by {@link #remove(int)}, {@link #remove(Object)} or {@link #removeIf}.
+     * Does nothing unless overridden.
+     *
+     * @param element The element that was removed
+     */
+    protected void removed(T element) {
+    }
+
+    /**
+     * Called, while holding the list mutex, after the list has been cleared by
+     * {@link #clear()}. Does nothing unless overridden.
+     */
+    protected void cleared() {
+    }
+
+    /**
+     * Gets the name of an element, as used by {@link #findByNameIgnoreCase}
+     * and {@link #complete}. Not supported unless overridden.
+     *
+     * @param element The element
+     * @return The name of the element
+     * @throws UnsupportedOperationException Not supported
+     */
+    protected String getIndexName(T element) {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    /**
+     * Get the name index, building it if this is the first use. Must be called
+     * while holding the list mutex.
+     *
+     * @return The name index
+     */
+    private NameIndex<T> getNameIndex() {
+        if (nameIndex == null) {
+            NameIndex<T> index = new NameIndex<>(this::getIndexName);
+            syncBackingList.forEach(index::add);
+            nameIndex = index;
+        }
+        return nameIndex;
+    }
+
+    /**
+     * The state of one acquisition of the list lock while it is being profiled
+     * or recorded.
+     */
+    private static final class LockProbe {
+
+        private final Object event;
+        private final long requested;
+        private long acquired;
+
+        LockProbe(Object event, long requested) {
+            this.event = event;
+            this.requested = requested;
+        }
+    }
+
+    /**
+     * Called before waiting for the list mutex. Pass the result to
+     * {@link #lockAcquired(Object, String)} as soon as the mutex is held, and
+     * to {@link #lockReleased(Object)} before it is released.
+     *
+     * @return A probe, or {@code null} if neither the {@link LockProfiler}
+     * nor a flight recording is interested
+     */
+    protected final Object lockRequested() {
+        boolean profiling = LockProfiler.isEnabled();
+        Object event = DomainEvents.beginListLock();
+        if (!profiling && event == null) {
+            return null;
+        }
+        return new LockProbe(event, profiling ? System.nanoTime() : 0);
+    }
+
+    /**
+     * Called once the list mutex is held.
+     *
+     * @param probe The probe returned by {@link #lockRequested()}
+     * @param operation The list operation, such as "add"
+     */
+    protected final void lockAcquired(Object probe, String operation) {
+        if (probe != null) {
+            LockProbe lockProbe = (LockProbe) probe;
+            DomainEvents.commitListLock(lockProbe.event, this, operation);
+            if (lockProbe.requested != 0) {
+                lockProbe.acquired = System.nanoTime();
+                getLockStats().recordWait(lockProbe.acquired - lockProbe.requested);
+            }
+        }
+    }
+
+    /**
+     * Called just before the list mutex is released.
+     *
+     * @param probe The probe returned by {@link #lockRequested()}
+     */
+    protected final void lockReleased(Object probe) {
+        if (probe != null) {
+            LockProbe lockProbe = (LockProbe) probe;
+            if (lockProbe.acquired != 0) {
+                getLockStats().recordHold(System.nanoTime() - lockProbe.acquired);
+            }
+        }
+    }
+
+    /**
+     * Get the lock statistics of this list for the current
+     * {@link LockProfiler} generation, registering them on first use. Must be
+     * called while holding the list mutex.
+     *
+     * @return The statistics
+     */
+    private LockStats getLockStats() {
+        LockStats stats = lockStats;
+        if (stats == null || stats.getGeneration() != LockProfiler.getGeneration()) {
+            stats = LockProfiler.register(this);
+            lockStats = stats;
+        }
+        return stats;
+    }
+
+    /**
+     * Get the ids of the elements, building the set if this is the first use.
+     * Must be called while holding the list mutex.
+     *
+     * @return The ids
+     */
+    private Set<UUID> getIds() {
+        if (ids == null) {
+            Set<UUID> set = new HashSet<>(Math.max(16, syncBackingList.size() * 2));
+            syncBackingList.forEach(element -> set.add(element.getId()));
+            ids = set;
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the first element whose name, as given by
+     * {@link #getIndexName}, starts with the pattern, ignoring case. The
+     * lookup uses a prefix index, built on first use, rather than scanning the
+     * list.
+     *
+     * @param pattern The start of the name
+     * @return The element or {@code null}
+     * @throws UnsupportedOperationException if the list is not indexed by name
+     */
+    protected final T findByNameIgnoreCase(String pattern) {
+        final String prefix = requireNotEmpty(pattern);
+        final Object probe = lockRequested();
+        synchronized (syncBackingList) {
+            lockAcquired(probe, "findByName");
+            try {
+                return getNameIndex().first(prefix);
+            } finally {
+                lockReleased(probe);
+            }
+        }
+    }
+
+    /**
+     * Returns the distinct names, as given by {@link #getIndexName}, that start
+     * with the pattern, ignoring case, in alphabetical order.
+     *
+     * @param pattern The start of the name
+     * @param limit The largest number of names to return
+     * @return The names
+     * @throws UnsupportedOperationException if the list is not indexed by name
+     */
+    public List<String> complete(String pattern, int limit) {
+        final String prefix = requireNonNull(pattern).trim();
+        final Object probe = lockRequested();
+        synchronized (syncBackingList) {
+            lockAcquired(probe, "complete");
+            try {
+                return getNameIndex().complete(prefix, limit);
+            } finally {
+                lockReleased(probe);
+            }
+        }
+    }
+
     /**
      * Prints each {@link AccountableObject} in the list.
      */
     @Override
     public void print() {
+        final Object probe = lockRequested();
         synchronized (syncBackingList) {
-            syncBackingList.stream().forEach(element -> {
-                element.print();
-                println();
-            });
+            lockAcquired(probe, "print");
+            try {
+                syncBackingList.stream().forEach(element -> {
+                    element.print();
+                    println();
+                });
+            } finally {
+                lockReleased(probe);
+            }
         }
     }
 
@@ -102,11 +354,17 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
      */
     public T find(Predicate<? super T> predicate) {
         requireNonNull(predicate);
+        final Object probe = lockRequested();
         synchronized (syncBackingList) {
-            for (final T element : syncBackingList) {
-                if (predicate.test(element)) {
-                    return element;
+            lockAcquired(probe, "find");
+            try {
+                for (final T element : syncBackingList) {
+                    if (predicate.test(element)) {
+                        return element;
+                    }
                 }
+            } finally {
+                lockReleased(probe);
             }
         }
         return null;
@@ -123,11 +381,17 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
      */
     public int findIndex(Predicate<? super T> predicate) {
         requireNonNull(predicate);
+        final Object probe = lockRequested();
         synchronized (syncBackingList) {
-            for (int index = 0; index < syncBackingList.size(); index++) {
-                if (predicate.test(syncBackingList.get(index))) {
-                    return index;
+            lockAcquired(probe, "findIndex");
+            try {
+                for (int index = 0; index < syncBackingList.size(); index++) {
+                    if (predicate.test(syncBackingList.get(index))) {
+                        return index;
+                    }
                 }
+            } finally {
+                lockReleased(probe);
             }
         }
         return -1;
@@ -142,8 +406,14 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
      * @return a view of the specified range within this list
      */
     public List<T> filter(Predicate<? super T> predicate) {
+        final Object probe = lockRequested();
         synchronized (syncBackingList) {
-            return syncBackingList.stream().filter(predicate).collect(toList());
+            lockAcquired(probe, "filter");
+            try {
+                return syncBackingList.stream().filter(predicate).collect(toList());
+            } finally {
+                lockReleased(probe);
+            }
         }
     }
 
@@ -192,12 +462,14 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
 
     /**
      * Returns an iterator over the elements in this list in proper sequence.
+     * The iterator can not remove elements, as that would bypass the indexes
+     * kept by this list; use {@link #remove(Object)} or {@link #removeIf}.
      *
      * @return an iterator over the elements in this list in proper sequence
      */
     @Override
     public Iterator<T> iterator() {
-        return syncBackingList.iterator();
+        return readOnly().iterator();
     }
 
     /**
@@ -258,8 +530,23 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
     @Override
     public boolean add(T e) {
         requireNonNull(e);
-        int index = findIndex(element -> element.getId().equals(e.getId()));
-        boolean changed = index == -1 && syncBackingList.add(e);
+        boolean changed;
+        final Object probe = lockRequested();
+        synchronized (syncBackingList) {
+            lockAcquired(probe, "add");
+            try {
+                changed = getIds().add(e.getId()) && syncBackingList.add(e);
+                if (changed) {
+                    if (nameIndex != null) {
+                        nameIndex.add(e);
+                    }
+                    changeCount += 1;
+                    added(e);
+                }
+            } finally {
+                lockReleased(probe);
+            }
+        }
         if (changed) {
             setModified();
         }
@@ -325,10 +612,23 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
      */
     @Override
     public void clear() {
-        if (syncBackingList.size() > 0) {
-            syncBackingList.clear();
-            setModified();
+        final Object probe = lockRequested();
+        synchronized (syncBackingList) {
+            lockAcquired(probe, "clear");
+            try {
+                if (syncBackingList.isEmpty()) {
+                    return;
+                }
+                syncBackingList.clear();
+                nameIndex = null;
+                ids = null;
+                changeCount += 1;
+                cleared();
+            } finally {
+                lockReleased(probe);
+            }
         }
+        setModified();
     }
 
     /**
@@ -378,7 +678,24 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
      */
     @Override
     public T remove(int index) {
-        final T removedElement = syncBackingList.remove(index);
+        final T removedElement;
+        final Object probe = lockRequested();
+        synchronized (syncBackingList) {
+            lockAcquired(probe, "remove");
+            try {
+                removedElement = syncBackingList.remove(index);
+                if (ids != null) {
+                    ids.remove(removedElement.getId());
+                }
+                if (nameIndex != null) {
+                    nameIndex.remove(removedElement);
+                }
+                changeCount += 1;
+                removed(removedElement);
+            } finally {
+                lockReleased(probe);
+            }
+        }
         setModified();
         return removedElement;
     }
@@ -405,9 +722,70 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
      * not supported by this list
      */
     @Override
+    @SuppressWarnings("unchecked")
     public boolean remove(Object o) {
         requireNonNull(o);
-        boolean changed = syncBackingList.remove(o);
+        boolean changed;
+        final Object probe = lockRequested();
+        synchronized (syncBackingList) {
+            lockAcquired(probe, "remove");
+            try {
+                changed = syncBackingList.remove(o);
+                if (changed) {
+                    if (ids != null) {
+                        ids.remove(((T) o).getId());
+                    }
+                    if (nameIndex != null) {
+                        nameIndex.remove((T) o);
+                    }
+                    changeCount += 1;
+                    removed((T) o);
+                }
+            } finally {
+                lockReleased(probe);
+            }
+        }
+        if (changed) {
+            setModified();
+        }
+        return changed;
+    }
+
+    /**
+     * Removes all of the elements of this list that satisfy the given
+     * predicate, keeping the indexes of this list up to date.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be
+     * removed
+     * @return {@code true} if any elements were removed
+     */
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        requireNonNull(filter);
+        boolean changed = false;
+        final Object probe = lockRequested();
+        synchronized (syncBackingList) {
+            lockAcquired(probe, "removeIf");
+            try {
+                for (Iterator<T> elements = syncBackingList.iterator(); elements.hasNext();) {
+                    T element = elements.next();
+                    if (filter.test(element)) {
+                        elements.remove();
+                        if (ids != null) {
+                            ids.remove(element.getId());
+                        }
+                        if (nameIndex != null) {
+                            nameIndex.remove(element);
+                        }
+                        changeCount += 1;
+                        removed(element);
+                        changed = true;
+                    }
+                }
+            } finally {
+                lockReleased(probe);
+            }
+        }
         if (changed) {
             setModified();
         }
@@ -462,14 +840,14 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
 
     /**
      * Returns a list iterator over the elements in this list (in proper
-     * sequence).
+     * sequence). The iterator can not change the list.
      *
      * @return a list iterator over the elements in this list (in proper
      * sequence)
      */
     @Override
     public ListIterator<T> listIterator() {
-        return syncBackingList.listIterator();
+        return readOnly().listIterator();
     }
 
     /**
@@ -478,7 +856,7 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
      * index indicates the first element that would be returned by an initial
      * call to {@link ListIterator#next next}. An initial call to
      * {@link ListIterator#previous previous} would return the element with the
-     * specified index minus one.
+     * specified index minus one. The iterator can not change the list.
      *
      * @param index index of the first element to be returned from the list
      * iterator (by a call to {@link ListIterator#next next})
@@ -489,28 +867,16 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
      */
     @Override
     public ListIterator<T> listIterator(int index) {
-        return syncBackingList.listIterator(index);
+        return readOnly().listIterator(index);
     }
 
     /**
      * Returns a view of the portion of this list between the specified
      * <tt>fromIndex</tt>, inclusive, and <tt>toIndex</tt>, exclusive. (If
      * <tt>fromIndex</tt> and <tt>toIndex</tt> are equal, the returned list is
-     * empty.) The returned list is backed by this list, so non-structural
-     * changes in the returned list are reflected in this list, and vice-versa.
-     * The returned list supports all of the optional list operations supported
-     * by this list.<p>
-     *
-     * This method eliminates the need for explicit range operations (of the
-     * sort that commonly exist for arrays). Any operation that expects a list
-     * can be used as a range operation by passing a subList view instead of a
-     * whole list. For example, the following idiom removes a range of elements
-     * from a list:
-     * <pre>{@code
-     *      list.subList(from, to).clear();
-     * }</pre> Similar idioms may be constructed for <tt>indexOf</tt> and
-     * <tt>lastIndexOf</tt>, and all of the algorithms in the
-     * <tt>Collections</tt> class can be applied to a subList.<p>
+     * empty.) The returned list is backed by this list, so changes in this
+     * list are reflected in the returned list, but the returned list can not
+     * be changed, as that would bypass the indexes kept by this list.<p>
      *
      * The semantics of the list returned by this method become undefined if the
      * backing list (i.e., this list) is <i>structurally modified</i> in any way
@@ -527,7 +893,29 @@ public abstract class AbstractNoNullList<T extends AccountableObject> extends Ac
      */
     @Override
     public List<T> subList(int fromIndex, int toIndex) {
-        return syncBackingList.subList(fromIndex, toIndex);
+        return readOnly().subList(fromIndex, toIndex);
+    }
+
+    /**
+     * An unmodifiable view of the backing list, for the iterators and sub
+     * lists.
+     */
+    private List<T> readOnly() {
+        return Collections.unmodifiableList(syncBackingList);
+    }
+
+    /**
+     * Serializes the list while holding the list mutex. The synchronized
+     * backing list replaces itself with a copy, locked by its own mutex, when
+     * it is serialized, so it would not otherwise be locked.
+     *
+     * @param out The stream to write to
+     * @throws IOException if the stream can not be written to
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        synchronized (syncBackingList) {
+            out.defaultWriteObject();
+        }
     }
 
     @Override
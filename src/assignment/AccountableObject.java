@@ -26,8 +26,10 @@ package assignment;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import static java.util.Objects.requireNonNull;
+import java.util.Random;
 import java.util.UUID;
 import static java.util.UUID.randomUUID;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -42,6 +44,56 @@ public abstract class AccountableObject implements Serializable {
 
     private static final UUID NOBODY = randomUUID();
 
+    /**
+     * The generator of the ids of the objects created by this thread, set by
+     * {@link #withIds}, or {@code null} to use the thread's
+     * {@link ThreadLocalRandom}.
+     */
+    private static final ThreadLocal<Random> IDS = new ThreadLocal<>();
+
+    /**
+     * Creates a random (version 4) UUID for a new object. The bits come from
+     * the thread's {@link ThreadLocalRandom} rather than the shared secure
+     * generator used by {@link UUID#randomUUID()}, which is far slower and
+     * serialises threads creating many objects. The ids only need to be
+     * unique, not unpredictable. While the thread runs {@link #withIds}, the
+     * bits come from the supplied generator instead.
+     *
+     * @return A new UUID
+     */
+    static UUID newId() {
+        Random seeded = IDS.get();
+        Random random = seeded != null ? seeded : ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & ~0xC000000000000000L) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Runs an action with the ids of the objects it creates on this thread
+     * drawn from the supplied generator, so that a seeded generator creates
+     * the same ids every time. The generator must not be shared with other
+     * threads.
+     *
+     * @param ids The generator of the ids
+     * @param action The action to run
+     */
+    static void withIds(Random ids, Runnable action) {
+        requireNonNull(ids);
+        requireNonNull(action);
+        final Random previous = IDS.get();
+        IDS.set(ids);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                IDS.remove();
+            } else {
+                IDS.set(previous);
+            }
+        }
+    }
+
     /**
      * Tests if the supplied UUID is the {@code ROOT} UUID.
      *
@@ -83,11 +135,22 @@ public abstract class AccountableObject implements Serializable {
      * @param userId The unique id of the user
      */
     public AccountableObject(UUID userId) {
-        this.created = LocalDateTime.now();
+        this(userId, newId());
+    }
+
+    /**
+     * Allocates an <code>AccountableObject</code> object with a given id, for
+     * a copy of an object of another process.
+     *
+     * @param userId The unique id of the user
+     * @param id The id of the object
+     */
+    AccountableObject(UUID userId, UUID id) {
+        this.created = ApplicationClock.coarseNow();
         this.createdUserId = requireNonNull(userId);
         this.modified = new AtomicReference<>(null);
         this.modifiedUserId = new AtomicReference<>(requireNonNull(userId));
-        this.id = randomUUID();
+        this.id = requireNonNull(id);
     }
 
     /**
@@ -123,7 +186,7 @@ public abstract class AccountableObject implements Serializable {
      * Sets the date that this object was modified to now.
      */
     public final void setModified() {
-        this.modified.set(LocalDateTime.now());
+        this.modified.set(ApplicationClock.coarseNow());
     }
 
     /**
@@ -28,6 +28,7 @@ import static assignment.GeneralUtils.requireGreaterOrEqual;
 import static assignment.GeneralUtils.requireNotEmpty;
 import java.io.Serializable;
 import static java.util.Objects.requireNonNull;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Extended {@link  AccountableObject} to hold aircraft information.
@@ -42,6 +43,7 @@ public abstract class Aircraft extends AccountableObject implements Serializable
     private final String model;
     private final int firstClassSeatCount;
     private final int economyClassSeatCount;
+    private final AtomicReference<AircraftStatusTypes> status;
 
     /**
      * Allocates an <code>Aircraft</code> object and initialises it.
@@ -60,6 +62,7 @@ public abstract class Aircraft extends AccountableObject implements Serializable
         this.model = requireNotEmpty(model);
         this.firstClassSeatCount = requireGreaterOrEqual(firstClassSeatCount, 0);
         this.economyClassSeatCount = requireGreaterOrEqual(economyClassSeatCount, 0);
+        this.status = new AtomicReference<>(AircraftStatusTypes.WAITING);
     }
 
     /**
@@ -110,6 +113,25 @@ public abstract class Aircraft extends AccountableObject implements Serializable
         return economyClassSeatCount;
     }
 
+    /**
+     * Get the current operating phase of the aircraft.
+     *
+     * @return The {@link AircraftStatusTypes}
+     */
+    public final AircraftStatusTypes getStatus() {
+        return status.get();
+    }
+
+    /**
+     * Set the current operating phase of the aircraft.
+     *
+     * @param status The {@link AircraftStatusTypes}
+     */
+    public final void setStatus(AircraftStatusTypes status) {
+        this.status.set(requireNonNull(status));
+        setModified();
+    }
+
     /**
      * Prints this object.
      */
@@ -121,11 +143,12 @@ public abstract class Aircraft extends AccountableObject implements Serializable
         println("Aircraft Model: " + model);
         println("Aircraft First class seats: " + firstClassSeatCount);
         println("Aircraft Economy class seats: " + economyClassSeatCount);
+        println("Aircraft Status: " + status);
     }
 
     @Override
     public String toString() {
-        return "Aircraft{" + "name=" + name + ", type=" + type + ", make=" + make + ", model=" + model + "} " + super.toString();
+        return "Aircraft{" + "name=" + name + ", type=" + type + ", make=" + make + ", model=" + model + ", status=" + status + "} " + super.toString();
     }
 
 }
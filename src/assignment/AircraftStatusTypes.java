@@ -0,0 +1,56 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+/**
+ * For marking the current operating phase of an {@link Aircraft}. Used by the
+ * {@link Simulation} to move an aircraft through a flight and the turnaround
+ * that follows it.
+ *
+ * @author Graham Fairweather
+ */
+public enum AircraftStatusTypes {
+
+    /**
+     * Waiting at an airport, available for its next flight.
+     */
+    WAITING,
+    /**
+     * Taking off from the departure airport.
+     */
+    TAKEOFF,
+    /**
+     * In flight between the departure and arrival airports.
+     */
+    CRUISE,
+    /**
+     * Landing at the arrival airport.
+     */
+    LANDING,
+    /**
+     * Refuelling at the arrival airport, not yet available for another flight.
+     */
+    REFUEL;
+
+}
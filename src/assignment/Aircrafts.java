@@ -71,6 +71,11 @@ public class Aircrafts extends AbstractNoNullList<Aircraft> implements Serializa
         super(c);
     }
 
+    @Override
+    protected String getIndexName(Aircraft aircraft) {
+        return aircraft.getName();
+    }
+
     /**
      * Get an {@code Aircraft} object by matching the start of its name,
      * ignoring case.
@@ -79,8 +84,7 @@ public class Aircrafts extends AbstractNoNullList<Aircraft> implements Serializa
      * @return An {@code Aircraft} object or {@code null}
      */
     public final Aircraft getByNameIgnoreCase(String pattern) {
-        final String p = requireNotEmpty(pattern).trim().toLowerCase();
-        return find(aircraft -> aircraft.getName().toLowerCase().startsWith(p));
+        return findByNameIgnoreCase(pattern);
     }
 
     /**
@@ -25,8 +25,14 @@ package assignment;
 
 import static assignment.CompanyTypes.AIRLINE;
 import static assignment.GeneralUtils.println;
+import static assignment.GeneralUtils.requireElementFound;
 import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import static java.util.Objects.requireNonNull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * An object for holding an airline's details.
@@ -37,10 +43,18 @@ public class Airline extends Company implements Serializable {
 
     private final Employees employees;
     private final Passengers passengers;
-    private final Bookings bookings;
     private final Meals meals;
     private final Aircrafts aircrafts;
     private final Flights flights;
+    private final BookingArchive bookingArchive;
+    private final FlightArchive flightArchive;
+    private final Queue<ArchivedBooking> bumped;
+
+    /**
+     * Loads the flights, bookings and passengers on first access, or
+     * {@code null} once they are loaded. Guarded by this airline.
+     */
+    private transient volatile AirlineLoader loader;
 
     /**
      * Allocates an <code>Airline</code> object and initialises it.
@@ -53,10 +67,65 @@ public class Airline extends Company implements Serializable {
         super(name, address, phone, AIRLINE);
         employees = requireNonNull(new Employees());
         passengers = requireNonNull(new Passengers());
-        bookings = requireNonNull(new Bookings());
         meals = requireNonNull(new Meals());
         aircrafts = requireNonNull(new Aircrafts());
         flights = requireNonNull(new Flights());
+        bookingArchive = new BookingArchive();
+        flightArchive = new FlightArchive();
+        bumped = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Sets the loader of the airline's flights, bookings and passengers, which
+     * is then called the first time any of them is accessed.
+     *
+     * @param loader The loader
+     */
+    public final void setLoader(AirlineLoader loader) {
+        synchronized (this) {
+            this.loader = requireNonNull(loader);
+        }
+    }
+
+    /**
+     * Tests if the airline's flights, bookings and passengers are loaded.
+     *
+     * @return <code>true</code> if there is nothing left to load, otherwise
+     * <code>false</code>
+     */
+    public final boolean isLoaded() {
+        return loader == null;
+    }
+
+    /**
+     * Loads the airline's flights, bookings and passengers if they are not
+     * already loaded. Other threads accessing them wait until loading has
+     * finished, while the loading thread itself sees the lists as they fill.
+     * If loading fails, the lists are cleared and the next access tries again.
+     */
+    public final void load() {
+        if (loader == null || Thread.holdsLock(this)) {
+            return;
+        }
+        synchronized (this) {
+            AirlineLoader pending = loader;
+            if (pending == null) {
+                return;
+            }
+            try {
+                pending.load(this);
+            } catch (RuntimeException | Error e) {
+                // the flights already built must not depart into this airline
+                Flight.cancelTasks(flights);
+                flights.clear();
+                bookingArchive.clear();
+                flightArchive.clear();
+                bumped.clear();
+                passengers.clear();
+                throw e;
+            }
+            loader = null;
+        }
     }
 
     /**
@@ -65,9 +134,139 @@ public class Airline extends Company implements Serializable {
      * @return The flights
      */
     public final Flights getFlights() {
+        load();
         return flights;
     }
 
+    /**
+     * Cancels a confirmed booking, releasing its seat, and archives it.
+     *
+     * @param booking The {@link Booking}
+     * @return {@code true} if the booking was cancelled, {@code false} if it
+     * was not confirmed
+     * @throws IllegalArgumentException if the flight is operated by another
+     * airline
+     */
+    public final boolean cancelBooking(Booking booking) {
+        final Flight flight = requireNonNull(booking).getFlight();
+        if (flight.getAirline() != this) {
+            throw new IllegalArgumentException("flight is operated by another airline");
+        }
+        return flight.cancelBooking(booking);
+    }
+
+    /**
+     * Gets the airline's archive of bookings that are no longer confirmed.
+     *
+     * @return The {@link BookingArchive}
+     */
+    public final BookingArchive getBookingArchive() {
+        load();
+        return bookingArchive;
+    }
+
+    /**
+     * Gets the bookings bumped at check-in, oldest first, still to be
+     * rebooked or compensated. Taking a booking from the queue leaves it in
+     * the {@link BookingArchive}.
+     *
+     * @return The queue of bumped {@link ArchivedBooking}s
+     */
+    public final Queue<ArchivedBooking> getBumped() {
+        load();
+        return bumped;
+    }
+
+    /**
+     * Adds a bumped passenger to the {@link Waitlist} of the next open flight
+     * on the same route, ahead of the passengers who joined it themselves.
+     *
+     * @param booking The bumped {@link ArchivedBooking}
+     * @return The {@link WaitlistEntry}, or {@code null} if the flight or
+     * passenger is gone or no later flight on the route is open
+     * @throws ElementNotFoundException if the airline has no "None" meal
+     */
+    public final WaitlistEntry waitlistBumped(ArchivedBooking booking) {
+        final Flight bumpedFrom = getFlights().find(flight -> flight.getId().equals(booking.getFlightId()));
+        final Passenger passenger = getPassengers().find(candidate -> candidate.getId().equals(booking.getPassengerId()));
+        if (bumpedFrom == null || passenger == null) {
+            return null;
+        }
+        final Meal meal = requireElementFound(getMeals().getNoMeal(booking.getSeatType()));
+        for (Flight flight : getFlights().getByRoute(bumpedFrom.getFrom(), bumpedFrom.getTo(), bumpedFrom.getDepartureDateTime(), LocalDateTime.MAX)) {
+            if (flight != bumpedFrom && flight.getStatus() == FlightStatusTypes.OPEN) {
+                try {
+                    return flight.getWaitlist().add(passenger, booking.getSeatType(), meal, WaitlistEntry.BUMPED_PRIORITY);
+                } catch (IllegalStateException ex) {
+                    // Departed meanwhile, try the next flight
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the airline's archive of flights that have been closed for longer
+     * than {@link FlightArchive#RETENTION}.
+     *
+     * @return The {@link FlightArchive}
+     */
+    public final FlightArchive getFlightArchive() {
+        load();
+        return flightArchive;
+    }
+
+    /**
+     * Moves a closed flight from the airline's flights to its
+     * {@link FlightArchive}, archiving any of its bookings not yet archived.
+     *
+     * @param flight The {@link Flight}
+     * @return {@code true} if the flight was archived, {@code false} if it was
+     * not one of the airline's flights
+     * @throws IllegalArgumentException if the flight is operated by another
+     * airline
+     * @throws IllegalStateException if the flight is not closed, or is
+     * already archived
+     */
+    public final boolean archiveFlight(Flight flight) {
+        if (requireNonNull(flight).getAirline() != this) {
+            throw new IllegalArgumentException("flight is operated by another airline");
+        }
+        if (flight.getStatus() != FlightStatusTypes.CLOSED) {
+            throw new IllegalStateException("flight is not closed: " + flight.getFlightNumber());
+        }
+        flight.archiveBookings(booking -> booking.getStatus() != BookingStatusTypes.CONFIRMED);
+        final Flights all = getFlights();
+        synchronized (all.getMutex()) {
+            if (!all.contains(flight)) {
+                return false;
+            }
+            ArchivedFlight archived = new ArchivedFlight(flight);
+            if (!flightArchive.add(archived)) {
+                throw new IllegalStateException("flight is already archived: " + flight.getFlightNumber());
+            }
+            all.remove(flight);
+            QuoteCache.invalidate(flight);
+            ReplicationPublisher.flightArchived(flight, archived);
+        }
+        return true;
+    }
+
+    /**
+     * Adds a flight to the airline's flights.
+     *
+     * @param flight The {@link Flight}
+     * @throws IllegalArgumentException if the flight is operated by another
+     * airline
+     */
+    public final void addFlight(Flight flight) {
+        if (requireNonNull(flight).getAirline() != this) {
+            throw new IllegalArgumentException("flight is operated by another airline");
+        }
+        getFlights().add(flight);
+        ReplicationPublisher.flightAdded(flight);
+    }
+
     /**
      * Gets the airline's {@link Employees}.
      *
@@ -83,16 +282,38 @@ public class Airline extends Company implements Serializable {
      * @return the passenger's
      */
     public final Passengers getPassengers() {
+        load();
         return passengers;
     }
 
     /**
-     * Gets the airline's {@link Bookings}.
+     * Gets the airline's {@link Bookings}. The bookings are held by each
+     * flight, so this is a copy assembled from every flight's bookings, and
+     * new bookings are added with {@link #addBooking(Booking)}.
      *
      * @return The booking's
      */
     public final Bookings getBookings() {
-        return bookings;
+        final List<Booking> all = new ArrayList<>();
+        getFlights().filter(flight -> true).forEach(flight -> all.addAll(flight.getBookings().filter(booking -> true)));
+        return new Bookings(all);
+    }
+
+    /**
+     * Adds a booking to the bookings of its flight. Only that flight's
+     * bookings are locked, so bookings on different flights can be added at
+     * the same time.
+     *
+     * @param booking The {@link Booking}
+     * @throws IllegalArgumentException if the flight is operated by another
+     * airline
+     */
+    public final void addBooking(Booking booking) {
+        final Flight flight = requireNonNull(booking).getFlight();
+        if (flight.getAirline() != this) {
+            throw new IllegalArgumentException("flight is operated by another airline");
+        }
+        flight.addBooking(booking);
     }
 
     /**
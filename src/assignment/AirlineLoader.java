@@ -0,0 +1,47 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+/**
+ * Loads the flights, bookings and passengers of an {@link Airline}, for
+ * example from the seed data, a generator or persistent storage, when they
+ * are first accessed.
+ *
+ * @author Graham Fairweather
+ * @see Airline#setLoader(AirlineLoader)
+ */
+@FunctionalInterface
+public interface AirlineLoader {
+
+    /**
+     * Adds the airline's flights, bookings and passengers to the airline's
+     * lists, which are empty when this is called. Accessing the lists from
+     * within this method does not load them again. If the method throws, the
+     * lists are cleared and loading is tried again on the next access.
+     *
+     * @param airline The airline to load
+     */
+    void load(Airline airline);
+
+}
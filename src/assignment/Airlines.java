@@ -68,6 +68,11 @@ public class Airlines extends AbstractNoNullList<Airline> implements Serializabl
         super(c);
     }
 
+    @Override
+    protected String getIndexName(Airline airline) {
+        return airline.getName();
+    }
+
     /**
      * Get an {@code Airline} object by matching the start of its name, ignoring
      * case.
@@ -76,8 +81,7 @@ public class Airlines extends AbstractNoNullList<Airline> implements Serializabl
      * @return An {@code Airline} object or {@code null}
      */
     public final Airline getByNameIgnoreCase(String pattern) {
-        final String p = requireNotEmpty(pattern).trim().toLowerCase();
-        return find(airline -> airline.getName().toLowerCase().startsWith(p));
+        return findByNameIgnoreCase(pattern);
     }
 
     /**
@@ -68,6 +68,11 @@ public class Airports extends AbstractNoNullList<Airport> implements Serializabl
         super(c);
     }
 
+    @Override
+    protected String getIndexName(Airport airport) {
+        return airport.getName();
+    }
+
     /**
      * Get an {@code Airport} object by matching the start of its name, ignoring
      * case.
@@ -76,8 +81,7 @@ public class Airports extends AbstractNoNullList<Airport> implements Serializabl
      * @return An {@code Airport} object or {@code null}
      */
     public final Airport getByNameIgnoreCase(String pattern) {
-        final String p = requireNotEmpty(pattern).trim().toLowerCase();
-        return find(airport -> airport.getName().toLowerCase().startsWith(p));
+        return findByNameIgnoreCase(pattern);
     }
 
     /**
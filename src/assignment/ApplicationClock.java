@@ -0,0 +1,356 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.ClockModeTypes.ACCELERATED;
+import static assignment.ClockModeTypes.FIXED;
+import static assignment.ClockModeTypes.REAL;
+import static assignment.GeneralUtils.println;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import static java.util.Objects.requireNonNull;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * The clock used by all time dependent code, in place of calling
+ * {@link LocalDateTime#now()} directly. The clock can follow the system clock,
+ * stand still and be advanced by hand, or run faster than the system clock.
+ *
+ * <p>
+ * Tasks are scheduled against the application clock rather than the system
+ * clock. A single daemon thread runs them when their time comes, and
+ * advancing a fixed clock runs every task that falls due on the calling
+ * thread, in time order, so days of departures can be fast forwarded
+ * instantly.
+ *
+ * @author Graham Fairweather
+ */
+public final class ApplicationClock {
+
+    /**
+     * The longest time that {@link #coarseNow()} may lag the clock.
+     */
+    private static final long COARSE_RESOLUTION_NANOS = 10_000_000L;
+
+    private static final Object LOCK = new Object();
+    private static final PriorityQueue<ScheduledTask> TASKS = new PriorityQueue<>();
+    private static volatile Clock clock = Clock.systemDefaultZone();
+    private static volatile ClockModeTypes mode = REAL;
+    private static volatile double factor = 1;
+    private static volatile CoarseTime coarseTime;
+    private static long sequence;
+    private static Thread scheduler;
+
+    /**
+     * A {@link Clock} that runs {@code factor} times faster than the system
+     * clock, starting from an origin instant.
+     */
+    private static final class AcceleratedClock extends Clock {
+
+        private final Instant origin;
+        private final long realOriginNanos;
+        private final double factor;
+        private final ZoneId zone;
+
+        AcceleratedClock(Instant origin, double factor, ZoneId zone) {
+            this.origin = origin;
+            this.realOriginNanos = System.nanoTime();
+            this.factor = factor;
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new AcceleratedClock(instant(), factor, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return origin.plusNanos((long) ((System.nanoTime() - realOriginNanos) * factor));
+        }
+
+    }
+
+    /**
+     * A task waiting to run at a time on the application clock.
+     */
+    private static final class ScheduledTask implements Comparable<ScheduledTask> {
+
+        private final LocalDateTime time;
+        private final long sequence;
+        private final Runnable task;
+
+        ScheduledTask(LocalDateTime time, long sequence, Runnable task) {
+            this.time = time;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            int compare = time.compareTo(other.time);
+            return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+        }
+
+    }
+
+    /**
+     * A cached reading of the clock, with the system nano time it was taken.
+     */
+    private static final class CoarseTime {
+
+        private final LocalDateTime dateTime;
+        private final long nanos;
+
+        CoarseTime(LocalDateTime dateTime, long nanos) {
+            this.dateTime = dateTime;
+            this.nanos = nanos;
+        }
+
+    }
+
+    /**
+     * Gets the {@link Clock} currently in use.
+     *
+     * @return The clock
+     */
+    public static Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Gets the mode of the clock currently in use.
+     *
+     * @return The {@link ClockModeTypes}
+     */
+    public static ClockModeTypes getMode() {
+        return mode;
+    }
+
+    /**
+     * Gets the date and time of the application clock.
+     *
+     * @return The current date and time
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    /**
+     * Gets the date and time of the application clock, cached for up to ten
+     * milliseconds of system time. For hot paths, such as record keeping, that
+     * do not need a precise time.
+     *
+     * @return The current date and time, to within ten milliseconds
+     */
+    public static LocalDateTime coarseNow() {
+        final long nanos = System.nanoTime();
+        CoarseTime cached = coarseTime;
+        if (cached == null || nanos - cached.nanos > COARSE_RESOLUTION_NANOS) {
+            cached = new CoarseTime(now(), nanos);
+            coarseTime = cached;
+        }
+        return cached.dateTime;
+    }
+
+    /**
+     * Follow the system clock.
+     */
+    public static void useReal() {
+        use(Clock.systemDefaultZone(), REAL, 1);
+    }
+
+    /**
+     * Stand the clock still at the supplied date and time.
+     *
+     * @param dateTime The date and time
+     */
+    public static void useFixed(LocalDateTime dateTime) {
+        ZoneId zone = ZoneId.systemDefault();
+        use(Clock.fixed(requireNonNull(dateTime).atZone(zone).toInstant(), zone), FIXED, 0);
+    }
+
+    /**
+     * Run the clock faster than the system clock, starting from now.
+     *
+     * @param factor How many times faster than the system clock
+     * @throws IllegalArgumentException if the factor is not positive
+     */
+    public static void useAccelerated(double factor) {
+        if (!(factor > 0)) {
+            throw new IllegalArgumentException("factor must be positive");
+        }
+        Clock current = clock;
+        use(new AcceleratedClock(current.instant(), factor, current.getZone()), ACCELERATED, factor);
+    }
+
+    private static void use(Clock newClock, ClockModeTypes newMode, double newFactor) {
+        synchronized (LOCK) {
+            clock = newClock;
+            mode = newMode;
+            factor = newFactor;
+            coarseTime = null;
+            LOCK.notifyAll();
+        }
+    }
+
+    /**
+     * Advances a fixed clock, running each scheduled task that falls due on the
+     * calling thread, in time order. While a task runs the clock reads the
+     * time the task was scheduled for.
+     *
+     * @param duration The amount of time to advance the clock
+     * @throws IllegalStateException if the clock is not fixed
+     * @throws IllegalArgumentException if the duration is negative
+     */
+    public static void advance(Duration duration) {
+        if (requireNonNull(duration).isNegative()) {
+            throw new IllegalArgumentException("duration can not be negative");
+        }
+        if (mode != FIXED) {
+            throw new IllegalStateException("clock is not fixed");
+        }
+        final LocalDateTime target = now().plus(duration);
+        while (true) {
+            ScheduledTask next;
+            synchronized (LOCK) {
+                next = TASKS.peek();
+                if (next == null || next.time.isAfter(target)) {
+                    break;
+                }
+                TASKS.poll();
+                if (next.time.isAfter(now())) {
+                    useFixed(next.time);
+                }
+            }
+            run(next);
+        }
+        useFixed(target);
+    }
+
+    /**
+     * Schedules a task to run when the application clock reaches the supplied
+     * date and time. A task scheduled in the past runs as soon as possible.
+     *
+     * @param dateTime The date and time to run the task
+     * @param task The task
+     */
+    public static void schedule(LocalDateTime dateTime, Runnable task) {
+        requireNonNull(dateTime);
+        requireNonNull(task);
+        synchronized (LOCK) {
+            TASKS.add(new ScheduledTask(dateTime, sequence++, task));
+            if (scheduler == null) {
+                scheduler = new Thread(ApplicationClock::runScheduler, "Application clock");
+                scheduler.setDaemon(true);
+                scheduler.start();
+            }
+            LOCK.notifyAll();
+        }
+    }
+
+    /**
+     * Cancels the tasks waiting to run that match the predicate. A task
+     * already running is not stopped.
+     *
+     * @param predicate The predicate
+     * @return The number of tasks cancelled
+     */
+    public static int cancel(Predicate<? super Runnable> predicate) {
+        requireNonNull(predicate);
+        synchronized (LOCK) {
+            int before = TASKS.size();
+            TASKS.removeIf(scheduled -> predicate.test(scheduled.task));
+            LOCK.notifyAll();
+            return before - TASKS.size();
+        }
+    }
+
+    /**
+     * Gets the number of tasks waiting to run.
+     *
+     * @return The number of tasks
+     */
+    public static int getScheduledCount() {
+        synchronized (LOCK) {
+            return TASKS.size();
+        }
+    }
+
+    private static void runScheduler() {
+        while (true) {
+            ScheduledTask next;
+            synchronized (LOCK) {
+                next = TASKS.peek();
+                try {
+                    if (next == null || mode == FIXED) {
+                        LOCK.wait();
+                        continue;
+                    }
+                    long virtualNanos = Duration.between(now(), next.time).toNanos();
+                    long realMillis = (long) Math.ceil(virtualNanos / factor / 1_000_000d);
+                    if (realMillis > 0) {
+                        LOCK.wait(realMillis);
+                        continue;
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ArithmeticException ex) {
+                    // Too far in the future to measure in nanoseconds
+                    try {
+                        LOCK.wait(Long.MAX_VALUE / 1_000_000L);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    continue;
+                }
+                TASKS.poll();
+            }
+            run(next);
+        }
+    }
+
+    private static void run(ScheduledTask next) {
+        try {
+            next.task.run();
+        } catch (RuntimeException ex) {
+            println("Scheduled task failed: " + ex);
+        }
+    }
+
+    private ApplicationClock() {
+    }
+
+}
@@ -0,0 +1,212 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * What is kept of a closed or cancelled {@link Booking} once it is archived.
+ * It refers to nothing else, so the flight, seats and passengers it was made
+ * with can be let go, and amounts are held as cents.
+ *
+ * @author Graham Fairweather
+ * @see BookingArchive
+ */
+public final class ArchivedBooking implements Serializable {
+
+    private final UUID id;
+    private final UUID flightId;
+    private final String flightNumber;
+    private final LocalDateTime departureDateTime;
+    private final UUID passengerId;
+    private final String passengerName;
+    private final int seatNumber;
+    private final ProductClassTypes seatType;
+    private final String mealDescription;
+    private final BookingStatusTypes status;
+    private final long priceCents;
+    private final long costsCents;
+    private final long profitCents;
+
+    /**
+     * Allocates an <code>ArchivedBooking</code> object from a booking.
+     *
+     * @param booking The {@link Booking}
+     */
+    public ArchivedBooking(Booking booking) {
+        this.id = booking.getId();
+        this.flightId = booking.getFlight().getId();
+        this.flightNumber = booking.getFlight().getFlightNumber();
+        this.departureDateTime = booking.getFlight().getDepartureDateTime();
+        this.passengerId = booking.getPassenger().getId();
+        this.passengerName = booking.getPassenger().getName();
+        this.seatNumber = booking.isSeated() ? booking.getSeat().getSeatNumber() : 0;
+        this.seatType = booking.getType();
+        this.mealDescription = booking.getMeal().getDescription();
+        this.status = booking.getStatus();
+        this.priceCents = booking.getPriceCents();
+        this.costsCents = booking.getCostsCents();
+        this.profitCents = booking.getProfitCents();
+    }
+
+    /**
+     * Gets the id the booking had.
+     *
+     * @return The id
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Gets the id of the flight.
+     *
+     * @return The flight id
+     */
+    public UUID getFlightId() {
+        return flightId;
+    }
+
+    /**
+     * Gets the flight number.
+     *
+     * @return The flight number
+     */
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    /**
+     * Gets the departure date and time of the flight.
+     *
+     * @return The departure date and time
+     */
+    public LocalDateTime getDepartureDateTime() {
+        return departureDateTime;
+    }
+
+    /**
+     * Gets the id of the passenger.
+     *
+     * @return The passenger id
+     */
+    public UUID getPassengerId() {
+        return passengerId;
+    }
+
+    /**
+     * Gets the name of the passenger.
+     *
+     * @return The passenger name
+     */
+    public String getPassengerName() {
+        return passengerName;
+    }
+
+    /**
+     * Gets the seat number.
+     *
+     * @return The seat number, or 0 if the booking was never given a seat
+     */
+    public int getSeatNumber() {
+        return seatNumber;
+    }
+
+    /**
+     * Gets the class of the seat booked.
+     *
+     * @return The {@link ProductClassTypes}
+     */
+    public ProductClassTypes getSeatType() {
+        return seatType;
+    }
+
+    /**
+     * Gets the description of the meal.
+     *
+     * @return The meal description
+     */
+    public String getMealDescription() {
+        return mealDescription;
+    }
+
+    /**
+     * Gets the status the booking was archived with.
+     *
+     * @return The {@link BookingStatusTypes}
+     */
+    public BookingStatusTypes getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the total price of the booking, in cents.
+     *
+     * @return The price in cents
+     */
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    /**
+     * Gets the operating cost portion of the price, in cents.
+     *
+     * @return The costs in cents
+     */
+    public long getCostsCents() {
+        return costsCents;
+    }
+
+    /**
+     * Gets the operating profit portion of the price, in cents.
+     *
+     * @return The profit in cents
+     */
+    public long getProfitCents() {
+        return profitCents;
+    }
+
+    /**
+     * Prints this object.
+     */
+    public void print() {
+        println("Booking UUID: " + id);
+        println("Booking flight: " + flightNumber + " " + departureDateTime);
+        println("Booking passenger: " + passengerName);
+        println("Booking seat: " + seatNumber + " " + seatType);
+        println("Booking meal: " + mealDescription);
+        println("Booking price: " + BigDecimal.valueOf(priceCents, 2));
+        println("Booking status: " + status);
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedBooking{" + "id=" + id + ", flightNumber=" + flightNumber + ", seatNumber=" + seatNumber + ", status=" + status + '}';
+    }
+
+}
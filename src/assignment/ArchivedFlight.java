@@ -0,0 +1,229 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * What is kept of a closed {@link Flight} once it is archived: its schedule,
+ * its seat count and the totals of its closed bookings. It refers to nothing
+ * else, so the flight, its seats and its aircraft can be let go, and amounts
+ * are held as cents.
+ *
+ * @author Graham Fairweather
+ * @see FlightArchive
+ */
+public final class ArchivedFlight implements Serializable {
+
+    private final UUID id;
+    private final String flightNumber;
+    private final String aircraftName;
+    private final String fromName;
+    private final String toName;
+    private final LocalDateTime departureDateTime;
+    private final Duration duration;
+    private final int seatCount;
+    private final int bookingCount;
+    private final long priceCents;
+    private final long costsCents;
+    private final long profitCents;
+
+    /**
+     * Allocates an <code>ArchivedFlight</code> object from a closed flight.
+     *
+     * @param flight The {@link Flight}
+     * @throws IllegalArgumentException if the flight is not closed
+     */
+    public ArchivedFlight(Flight flight) {
+        if (flight.getStatus() != FlightStatusTypes.CLOSED) {
+            throw new IllegalArgumentException("flight is not closed");
+        }
+        this.id = flight.getId();
+        this.flightNumber = flight.getFlightNumber();
+        this.aircraftName = flight.getAircraft().getName();
+        this.fromName = flight.getFrom().getName();
+        this.toName = flight.getTo().getName();
+        this.departureDateTime = flight.getDepartureDateTime();
+        this.duration = flight.getDuration();
+        this.seatCount = flight.getSeats().size();
+        this.bookingCount = flight.getClosedBookingCount();
+        this.priceCents = flight.getClosedPriceCents();
+        this.costsCents = flight.getClosedCostsCents();
+        this.profitCents = flight.getClosedProfitCents();
+    }
+
+    /**
+     * Allocates an <code>ArchivedFlight</code> object from a row of a
+     * {@link FlightArchive}.
+     */
+    ArchivedFlight(UUID id, String flightNumber, String aircraftName, String fromName, String toName, LocalDateTime departureDateTime, Duration duration, int seatCount, int bookingCount, long priceCents, long costsCents, long profitCents) {
+        this.id = id;
+        this.flightNumber = flightNumber;
+        this.aircraftName = aircraftName;
+        this.fromName = fromName;
+        this.toName = toName;
+        this.departureDateTime = departureDateTime;
+        this.duration = duration;
+        this.seatCount = seatCount;
+        this.bookingCount = bookingCount;
+        this.priceCents = priceCents;
+        this.costsCents = costsCents;
+        this.profitCents = profitCents;
+    }
+
+    /**
+     * Gets the id the flight had.
+     *
+     * @return The id
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Gets the flight number.
+     *
+     * @return The flight number
+     */
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    /**
+     * Gets the name of the aircraft.
+     *
+     * @return The aircraft name
+     */
+    public String getAircraftName() {
+        return aircraftName;
+    }
+
+    /**
+     * Gets the name of the departure airport.
+     *
+     * @return The airport name
+     */
+    public String getFromName() {
+        return fromName;
+    }
+
+    /**
+     * Gets the name of the arrival airport.
+     *
+     * @return The airport name
+     */
+    public String getToName() {
+        return toName;
+    }
+
+    /**
+     * Gets the departure date and time.
+     *
+     * @return The departure date and time
+     */
+    public LocalDateTime getDepartureDateTime() {
+        return departureDateTime;
+    }
+
+    /**
+     * Gets the duration of the flight.
+     *
+     * @return The duration
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Gets the number of seats the flight had.
+     *
+     * @return The number of seats
+     */
+    public int getSeatCount() {
+        return seatCount;
+    }
+
+    /**
+     * Gets the number of closed bookings the flight had.
+     *
+     * @return The number of bookings
+     */
+    public int getBookingCount() {
+        return bookingCount;
+    }
+
+    /**
+     * Gets the total price of the closed bookings, in cents.
+     *
+     * @return The price in cents
+     */
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    /**
+     * Gets the operating costs of the closed bookings, in cents.
+     *
+     * @return The costs in cents
+     */
+    public long getCostsCents() {
+        return costsCents;
+    }
+
+    /**
+     * Gets the operating profit of the closed bookings, in cents.
+     *
+     * @return The profit in cents
+     */
+    public long getProfitCents() {
+        return profitCents;
+    }
+
+    /**
+     * Prints this object.
+     */
+    public void print() {
+        println("Flight UUID: " + id);
+        println("Flight number: " + flightNumber);
+        println("Flight Aircraft: " + aircraftName);
+        println("Flight From: " + fromName);
+        println("Flight To: " + toName);
+        println("Flight Departs: " + departureDateTime);
+        println("Flight Arrives: " + departureDateTime.plus(duration));
+        println("Flight Bookings: " + bookingCount + " of " + seatCount + " seats");
+        println("Flight Price: " + BigDecimal.valueOf(priceCents, 2));
+        println("Flight Profit: " + BigDecimal.valueOf(profitCents, 2));
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedFlight{" + "id=" + id + ", flightNumber=" + flightNumber + ", departureDateTime=" + departureDateTime + ", bookingCount=" + bookingCount + '}';
+    }
+
+}
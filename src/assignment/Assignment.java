@@ -24,6 +24,8 @@
 package assignment;
 
 import static assignment.UserInterface.startMenu;
+import static assignment.UserInterface.startReplica;
+import java.io.IOException;
 
 /**
  * The airline assignment entry point.
@@ -35,9 +37,14 @@ public class Assignment {
     /**
      * The project main.
      *
-     * @param args Parameters to pass to the assignment, none used.
+     * @param args Parameters to pass to the assignment, either none, or
+     * <code>--replica</code> and the port of the replication to follow
+     * @throws IOException if the replication can not be followed
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2 && args[0].equals("--replica")) {
+            startReplica(Integer.parseInt(args[1]));
+        }
         startMenu();
     }
 
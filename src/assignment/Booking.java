@@ -25,7 +25,6 @@ package assignment;
 
 import static assignment.BookingStatusTypes.CONFIRMED;
 import static assignment.GeneralUtils.println;
-import static assignment.SeatsStatusTypes.RESERVED;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -35,21 +34,32 @@ import java.util.concurrent.atomic.AtomicReference;
 /**
  * Extended {@link  AccountableObject} to hold booking information.
  *
+ * <p>
+ * A booking is authorised against the limit of its class, see
+ * {@link Flight#authorise(ProductClassTypes)}. It is given a seat when made, or
+ * while {@link Overbooking} is on, at check-in.
+ *
  * @author Graham Fairweather
  */
 public class Booking extends AccountableObject implements Serializable {
 
     private final Flight flight;
     private final Passenger passenger;
-    private final Seat seat;
+    private final ProductClassTypes type;
+    private final AtomicReference<Seat> seat;
     private final Meal meal;
+    private final Price fare;
     private final Price price;
     private final Price costs;
     private final Price profit;
+    private final long priceCents;
+    private final long costsCents;
+    private final long profitCents;
     private final AtomicReference<BookingStatusTypes> status;
 
     /**
-     * Allocates a <code>Booking</code> object and initialises it.
+     * Allocates a <code>Booking</code> object and initialises it, at the
+     * current fare of the seat's class.
      *
      * @param flight The {@link Flight}
      * @param passenger The {@link Passenger}
@@ -57,22 +67,60 @@ public class Booking extends AccountableObject implements Serializable {
      * @param meal The {@link Meal}
      */
     public Booking(Flight flight, Passenger passenger, Seat seat, Meal meal) {
+        this(flight, passenger, seat, meal, flight.getPrice(seat.getType()));
+    }
+
+    /**
+     * Allocates a <code>Booking</code> object and initialises it at the
+     * supplied fare, such as one quoted earlier or by another process.
+     *
+     * @param flight The {@link Flight}
+     * @param passenger The {@link Passenger}
+     * @param seat The {@link Seat}
+     * @param meal The {@link Meal}
+     * @param fare The fare of the seat
+     */
+    Booking(Flight flight, Passenger passenger, Seat seat, Meal meal, Price fare) {
+        this(flight, passenger, seat.getType(), seat, meal, fare);
+    }
+
+    /**
+     * Allocates a <code>Booking</code> object without a seat and initialises
+     * it, at the current fare of the class. The seat is given at check-in, see
+     * {@link Flight#checkIn(Booking)}.
+     *
+     * @param flight The {@link Flight}
+     * @param passenger The {@link Passenger}
+     * @param type The {@link ProductClassTypes}
+     * @param meal The {@link Meal}
+     */
+    public Booking(Flight flight, Passenger passenger, ProductClassTypes type, Meal meal) {
+        this(flight, passenger, type, null, meal, flight.getPrice(type));
+    }
+
+    /**
+     * Allocates a <code>Booking</code> object without a seat and initialises
+     * it at the supplied fare.
+     *
+     * @param flight The {@link Flight}
+     * @param passenger The {@link Passenger}
+     * @param type The {@link ProductClassTypes}
+     * @param meal The {@link Meal}
+     * @param fare The fare of the seat
+     */
+    Booking(Flight flight, Passenger passenger, ProductClassTypes type, Meal meal, Price fare) {
+        this(flight, passenger, type, null, meal, fare);
+    }
+
+    private Booking(Flight flight, Passenger passenger, ProductClassTypes type, Seat seat, Meal meal, Price fare) {
+        Object event = DomainEvents.beginBooking();
         this.flight = requireNonNull(flight);
         this.passenger = requireNonNull(passenger);
         this.meal = requireNonNull(meal);
-        this.seat = requireNonNull(seat);
-        Price flightPrice;
-        switch (seat.getType()) {
-            case FIRST:
-                flightPrice = flight.getFirstClassPrice();
-                break;
-            case ECONOMY:
-                flightPrice = flight.getEconomyClassPrice();
-                break;
-            default:
-                throw new RuntimeException("missing BookingStatusTypes");
-        }
-        BigDecimal bdFlightPrice = new BigDecimal(flightPrice.getValue());
+        this.type = requireNonNull(type);
+        this.seat = new AtomicReference<>(seat);
+        this.fare = requireNonNull(fare);
+        BigDecimal bdFlightPrice = new BigDecimal(fare.getValue());
         BigDecimal bdMealPrice = new BigDecimal(meal.getPrice().getValue());
         BigDecimal bdTotal = bdFlightPrice.add(bdMealPrice);
         BigDecimal bdCost = bdTotal.multiply(new BigDecimal("0.7")).setScale(2, RoundingMode.UP);
@@ -83,20 +131,66 @@ public class Booking extends AccountableObject implements Serializable {
         this.price = new Price(bdTotal);
         this.costs = new Price(bdCost);
         this.profit = new Price(bdProfit);
-        if (seat.getStatus() == RESERVED) {
+        this.priceCents = price.getCents();
+        this.costsCents = costs.getCents();
+        this.profitCents = profit.getCents();
+        if (seat != null && seat.getType() != type) {
+            throw new IllegalArgumentException("seat is not of class " + type);
+        }
+        if (!flight.authorise(type)) {
+            throw new IllegalStateException("class is fully booked: " + type);
+        }
+        if (seat != null && !flight.reserveSeat(seat)) {
+            flight.deauthorise(type);
             throw new IllegalArgumentException("seat is already reserved");
         }
-        seat.setStatus(RESERVED);
+        if (!flight.getMealInventory().reserve(meal)) {
+            if (seat != null) {
+                flight.releaseSeat(seat);
+            }
+            flight.deauthorise(type);
+            throw new IllegalStateException("meal is sold out: " + meal.getDescription());
+        }
         this.status = new AtomicReference<>(CONFIRMED);
+        DomainEvents.commitBooking(event, flight, type, seat, price);
     }
 
     /**
      * Gets the seat that was reserved for this booking.
      *
-     * @return The seat
+     * @return The seat, or {@code null} if it is not given until check-in
      */
     public Seat getSeat() {
-        return seat;
+        return seat.get();
+    }
+
+    /**
+     * Gets the class booked.
+     *
+     * @return The {@link ProductClassTypes}
+     */
+    public final ProductClassTypes getType() {
+        return type;
+    }
+
+    /**
+     * Tests if this booking has been given a seat.
+     *
+     * @return {@code true} if it has a seat, otherwise {@code false}
+     */
+    public final boolean isSeated() {
+        return seat.get() != null;
+    }
+
+    /**
+     * Gives this booking a seat reserved for it at check-in.
+     *
+     * @param seat The {@link Seat}, already reserved
+     * @return {@code true} if the booking had no seat and now has this one,
+     * otherwise {@code false}
+     */
+    final boolean assignSeat(Seat seat) {
+        return this.seat.compareAndSet(null, requireNonNull(seat));
     }
 
     /**
@@ -117,6 +211,15 @@ public class Booking extends AccountableObject implements Serializable {
         return passenger;
     }
 
+    /**
+     * Get the fare of the seat when the booking was made, without the meal.
+     *
+     * @return The fare
+     */
+    public final Price getFare() {
+        return fare;
+    }
+
     /**
      * Get the total price of the booking.
      *
@@ -126,6 +229,15 @@ public class Booking extends AccountableObject implements Serializable {
         return price;
     }
 
+    /**
+     * Get the total price of the booking, in cents.
+     *
+     * @return The total price in cents
+     */
+    public final long getPriceCents() {
+        return priceCents;
+    }
+
     /**
      * Gets the meal chosen.
      *
@@ -150,8 +262,99 @@ public class Booking extends AccountableObject implements Serializable {
      * @param status A {@link BookingStatusTypes}
      */
     public final void setStatus(BookingStatusTypes status) {
-        this.status.set(status);
+        if (this.status.getAndSet(requireNonNull(status)) != status) {
+            ReplicationPublisher.bookingStatus(this, status);
+        }
+        setModified();
+    }
+
+    /**
+     * Atomically cancels this booking if it is confirmed, releasing its seat
+     * and authorisation and putting its meal portion back. Use
+     * {@link Airline#cancelBooking(Booking)} to also archive it.
+     *
+     * @return {@code true} if the booking was confirmed and is now cancelled,
+     * otherwise {@code false}
+     */
+    public final boolean cancel() {
+        return end(BookingStatusTypes.CANCELLED);
+    }
+
+    /**
+     * Atomically bumps this booking if it is confirmed, because no seat was
+     * left for it at check-in, releasing its authorisation and putting its
+     * meal portion back.
+     *
+     * @return {@code true} if the booking was confirmed and is now bumped,
+     * otherwise {@code false}
+     */
+    final boolean bump() {
+        return end(BookingStatusTypes.BUMPED);
+    }
+
+    /**
+     * Atomically settles this booking when its flight departs, if it is still
+     * confirmed. Its seat and meal portion are kept, as they were flown or
+     * paid for.
+     *
+     * @param status The {@link BookingStatusTypes} settled as
+     * @return {@code true} if the booking was confirmed and is now settled,
+     * otherwise {@code false}
+     */
+    final boolean settle(BookingStatusTypes status) {
+        if (!this.status.compareAndSet(CONFIRMED, requireNonNull(status))) {
+            return false;
+        }
+        ReplicationPublisher.bookingStatus(this, status);
+        setModified();
+        return true;
+    }
+
+    private boolean end(BookingStatusTypes status) {
+        if (!this.status.compareAndSet(CONFIRMED, status)) {
+            return false;
+        }
+        release();
+        ReplicationPublisher.bookingStatus(this, status);
         setModified();
+        return true;
+    }
+
+    /**
+     * Atomically cancels this booking if it is confirmed, when it was never
+     * added to its airline, as when a later leg of an {@link Itinerary} could
+     * not be booked. Its seat, authorisation and meal portion are freed
+     * without telling the flight's waitlist or the replicas, as the booking
+     * was never offered to either.
+     *
+     * @return {@code true} if the booking was confirmed and is now cancelled,
+     * otherwise {@code false}
+     */
+    final boolean rollback() {
+        if (!this.status.compareAndSet(CONFIRMED, BookingStatusTypes.CANCELLED)) {
+            return false;
+        }
+        free();
+        setModified();
+        return true;
+    }
+
+    /**
+     * Releases the seat, if any, the authorisation and the meal portion held
+     * by this booking, and tells the flight's waitlist.
+     */
+    final void release() {
+        free();
+        flight.getWaitlist().released();
+    }
+
+    private void free() {
+        final Seat reserved = seat.get();
+        if (reserved != null) {
+            flight.releaseSeat(reserved);
+        }
+        flight.deauthorise(type);
+        flight.getMealInventory().release(meal);
     }
 
     /**
@@ -172,6 +375,24 @@ public class Booking extends AccountableObject implements Serializable {
         return profit;
     }
 
+    /**
+     * Get the operating cost portion of the total price, in cents.
+     *
+     * @return The cost in cents
+     */
+    public final long getCostsCents() {
+        return costsCents;
+    }
+
+    /**
+     * Get the operating profit portion of the total price, in cents.
+     *
+     * @return The profit in cents
+     */
+    public final long getProfitCents() {
+        return profitCents;
+    }
+
     /**
      * Prints this object.
      */
@@ -180,7 +401,12 @@ public class Booking extends AccountableObject implements Serializable {
         println("Booking UUID: " + getId());
         flight.print();
         passenger.print();
-        seat.print();
+        final Seat reserved = seat.get();
+        if (reserved != null) {
+            reserved.print();
+        } else {
+            println("Booking class: " + type + ", seat given at check-in");
+        }
         meal.print();
         println("Booking status: " + status);
         println("Booking total price: " + price.getValue());
@@ -190,7 +416,7 @@ public class Booking extends AccountableObject implements Serializable {
 
     @Override
     public String toString() {
-        return "Booking{" + "flight=" + flight + ", passenger=" + passenger + ", seat=" + seat + ", meal=" + meal + ", price=" + price + ", costs=" + costs + ", profit=" + profit + ", status=" + status + "} " + super.toString();
+        return "Booking{" + "flight=" + flight + ", passenger=" + passenger + ", type=" + type + ", seat=" + seat.get() + ", meal=" + meal + ", price=" + price + ", costs=" + costs + ", profit=" + profit + ", status=" + status + "} " + super.toString();
     }
 
 }
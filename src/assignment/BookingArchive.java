@@ -0,0 +1,237 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import static assignment.GeneralUtils.printlnLineSpaced;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import static java.util.Objects.requireNonNull;
+import java.util.function.Predicate;
+
+/**
+ * The closed, no show, cancelled and bumped bookings of an airline, moved out
+ * of the flights' {@link Bookings} so that those only hold the bookings still
+ * to be flown. The totals of the bookings that count towards revenue, see
+ * {@link BookingStatusTypes#isRevenue()}, are kept as they are archived, so
+ * they are read without a scan.
+ *
+ * @author Graham Fairweather
+ */
+public class BookingArchive implements Serializable {
+
+    private final List<ArchivedBooking> bookings = new ArrayList<>();
+    private final Set<UUID> ids = new HashSet<>();
+    private long priceCents;
+    private long costsCents;
+    private long profitCents;
+    private int closedCount;
+    private int noShowCount;
+    private int cancelledCount;
+    private int bumpedCount;
+
+    /**
+     * Archives a booking that is no longer confirmed, unless a booking with the same
+     * id is already archived.
+     *
+     * @param archived The {@link ArchivedBooking}
+     * @return {@code true} if the booking was archived, otherwise
+     * {@code false}
+     * @throws IllegalArgumentException if the booking is still confirmed
+     */
+    public synchronized boolean add(ArchivedBooking archived) {
+        if (requireNonNull(archived).getStatus() == BookingStatusTypes.CONFIRMED) {
+            throw new IllegalArgumentException("booking is still confirmed");
+        }
+        if (!ids.add(archived.getId())) {
+            return false;
+        }
+        bookings.add(archived);
+        switch (archived.getStatus()) {
+            case ClOSED:
+                closedCount += 1;
+                break;
+            case NO_SHOW:
+                noShowCount += 1;
+                break;
+            case CANCELLED:
+                cancelledCount += 1;
+                break;
+            case BUMPED:
+                bumpedCount += 1;
+                break;
+            default:
+                throw new RuntimeException("missing BookingStatusTypes");
+        }
+        if (archived.getStatus().isRevenue()) {
+            priceCents += archived.getPriceCents();
+            costsCents += archived.getCostsCents();
+            profitCents += archived.getProfitCents();
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of archived bookings.
+     *
+     * @return The number of bookings
+     */
+    public synchronized int size() {
+        return bookings.size();
+    }
+
+    /**
+     * Gets the number of closed bookings.
+     *
+     * @return The number of closed bookings
+     */
+    public synchronized int getClosedCount() {
+        return closedCount;
+    }
+
+    /**
+     * Gets the number of no show bookings.
+     *
+     * @return The number of no show bookings
+     */
+    public synchronized int getNoShowCount() {
+        return noShowCount;
+    }
+
+    /**
+     * Gets the number of bookings that count towards revenue, closed and no
+     * show.
+     *
+     * @return The number of bookings
+     */
+    public synchronized int getRevenueCount() {
+        return closedCount + noShowCount;
+    }
+
+    /**
+     * Gets the number of cancelled bookings.
+     *
+     * @return The number of cancelled bookings
+     */
+    public synchronized int getCancelledCount() {
+        return cancelledCount;
+    }
+
+    /**
+     * Gets the number of bumped bookings.
+     *
+     * @return The number of bumped bookings
+     */
+    public synchronized int getBumpedCount() {
+        return bumpedCount;
+    }
+
+    /**
+     * Gets the total price of the closed and no show bookings.
+     *
+     * @return The total price
+     */
+    public synchronized Price getPrice() {
+        return new Price(BigDecimal.valueOf(priceCents, 2));
+    }
+
+    /**
+     * Gets the operating costs of the closed and no show bookings.
+     *
+     * @return The costs
+     */
+    public synchronized Price getCosts() {
+        return new Price(BigDecimal.valueOf(costsCents, 2));
+    }
+
+    /**
+     * Gets the operating profit of the closed and no show bookings.
+     *
+     * @return The profit
+     */
+    public synchronized Price getProfit() {
+        return new Price(BigDecimal.valueOf(profitCents, 2));
+    }
+
+    /**
+     * Gets the archived bookings that match the predicate.
+     *
+     * @param predicate The predicate
+     * @return A list of the matching bookings
+     */
+    public synchronized List<ArchivedBooking> filter(Predicate<? super ArchivedBooking> predicate) {
+        List<ArchivedBooking> found = new ArrayList<>();
+        for (ArchivedBooking booking : bookings) {
+            if (predicate.test(booking)) {
+                found.add(booking);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Removes every archived booking.
+     */
+    public synchronized void clear() {
+        bookings.clear();
+        ids.clear();
+        priceCents = 0;
+        costsCents = 0;
+        profitCents = 0;
+        closedCount = 0;
+        noShowCount = 0;
+        cancelledCount = 0;
+        bumpedCount = 0;
+    }
+
+    /**
+     * Writes the archive while holding its lock, so that it is not changed
+     * while a snapshot is being taken.
+     *
+     * @param out The stream to write to
+     * @throws IOException if the stream can not be written to
+     */
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+    }
+
+    /**
+     * Prints each archived booking.
+     */
+    public void print() {
+        printlnLineSpaced("List of archived Bookings:");
+        filter(booking -> true).forEach(booking -> {
+            booking.print();
+            println();
+        });
+    }
+
+}
@@ -31,12 +31,39 @@ package assignment;
 public enum BookingStatusTypes {
 
     /**
-     * When a booking is confirmed and the flight has not departed.
+     * When a booking is confirmed and the flight has not departed. A booking
+     * made while overbooking is on is only given a seat at check-in.
      */
     CONFIRMED,
     /**
      * When a booking is confirmed and the flight has departed.
      */
-    ClOSED;
+    ClOSED,
+    /**
+     * When a booking was cancelled before the flight departed, and its seat
+     * released.
+     */
+    CANCELLED,
+    /**
+     * When a booking could not be given a seat at check-in, as its class was
+     * overbooked, and the passenger was bumped.
+     */
+    BUMPED,
+    /**
+     * When a booking without a seat was not checked in before the flight
+     * departed. The fare is kept.
+     */
+    NO_SHOW;
+
+    /**
+     * Tests if a booking with this status counts towards revenue once the
+     * flight has departed.
+     *
+     * @return {@code true} for closed and no show bookings, otherwise
+     * {@code false}
+     */
+    public boolean isRevenue() {
+        return this == ClOSED || this == NO_SHOW;
+    }
 
 }
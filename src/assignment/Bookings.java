@@ -29,7 +29,9 @@ import static assignment.GeneralUtils.printlnLineSpaced;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.Collection;
-import java.util.function.Function;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToLongFunction;
 
 /**
  * Resizable-array implementation of the <tt>List</tt> interface for {@link
@@ -37,11 +39,57 @@ import java.util.function.Function;
  * elements, excluding
  * <tt>null</tt>.
  *
+ * <p>
+ * Totals are summed over a copy of the list, taken under its lock, so adding
+ * bookings does not wait for a total. Each booking's amounts are held as
+ * whole cents, so large lists are summed as {@code long}s, in chunks on the
+ * common {@link ForkJoinPool}.
+ *
  * @author Graham Fairweather
  * @see AbstractNoNullList
  */
 public class Bookings extends AbstractNoNullList<Booking> implements Serializable {
 
+    private static final LatencyHistogram PROFIT_LATENCY = Metrics.histogram("bookings.profit");
+
+    /**
+     * The number of bookings at or below which a total is summed on the
+     * calling thread rather than split into tasks.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    /**
+     * Sums the cents of a range of bookings, splitting the range in two until
+     * it is small enough to sum on one thread.
+     */
+    private static final class SumTask extends RecursiveTask<Long> {
+
+        private final Object[] bookings;
+        private final int from;
+        private final int to;
+        private final ToLongFunction<Booking> centsMapper;
+
+        SumTask(Object[] bookings, int from, int to, ToLongFunction<Booking> centsMapper) {
+            this.bookings = bookings;
+            this.from = from;
+            this.to = to;
+            this.centsMapper = centsMapper;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                return sumRange(bookings, from, to, centsMapper);
+            }
+            int middle = (from + to) >>> 1;
+            SumTask left = new SumTask(bookings, from, middle, centsMapper);
+            left.fork();
+            long right = new SumTask(bookings, middle, to, centsMapper).compute();
+            return Math.addExact(left.join(), right);
+        }
+
+    }
+
     /**
      * Constructs an empty list with an initial capacity of ten.
      */
@@ -102,17 +150,38 @@ public class Bookings extends AbstractNoNullList<Booking> implements Serializabl
     }
 
     /**
-     * Takes a functional interface to map a {@link Booking} to a
-     * {@link BigDecimal} and then sums the values and returns a
-     * {@link BigDecimal}
+     * Takes a functional interface to map a {@link Booking} to an amount in
+     * cents and then sums the amounts of a copy of the list, in parallel if
+     * the list is large, and returns a {@link BigDecimal}. The lock is held
+     * only while the copy is taken.
      *
-     * @param bdMapper Functional interface
+     * @param centsMapper Functional interface
      * @return A {@link BigDecimal}
+     * @throws ArithmeticException if the total overflows a {@code long}
      */
-    private BigDecimal sum(Function<Booking, BigDecimal> bdMapper) {
-        synchronized (this) {
-            return this.stream().map(bdMapper).reduce(BigDecimal.ZERO, BigDecimal::add);
+    private BigDecimal sum(ToLongFunction<Booking> centsMapper) {
+        final Object[] bookings;
+        final Object probe = lockRequested();
+        synchronized (getMutex()) {
+            lockAcquired(probe, "sum");
+            try {
+                bookings = toArray();
+            } finally {
+                lockReleased(probe);
+            }
+        }
+        final long cents = bookings.length <= SEQUENTIAL_THRESHOLD
+                ? sumRange(bookings, 0, bookings.length, centsMapper)
+                : ForkJoinPool.commonPool().invoke(new SumTask(bookings, 0, bookings.length, centsMapper));
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static long sumRange(Object[] bookings, int from, int to, ToLongFunction<Booking> centsMapper) {
+        long cents = 0;
+        for (int index = from; index < to; index++) {
+            cents = Math.addExact(cents, centsMapper.applyAsLong((Booking) bookings[index]));
         }
+        return cents;
     }
 
     /**
@@ -121,7 +190,7 @@ public class Bookings extends AbstractNoNullList<Booking> implements Serializabl
      * @return The total of all the booking prices
      */
     public final Price getPrice() {
-        return new Price(sum((Booking booking) -> booking.getPrice().getBigDecimal()));
+        return new Price(sum(Booking::getPriceCents));
     }
 
     /**
@@ -130,7 +199,7 @@ public class Bookings extends AbstractNoNullList<Booking> implements Serializabl
      * @return The total of all the booking prices
      */
     public final Price getCosts() {
-        return new Price(sum((Booking booking) -> booking.getCosts().getBigDecimal()));
+        return new Price(sum(Booking::getCostsCents));
     }
 
     /**
@@ -139,7 +208,10 @@ public class Bookings extends AbstractNoNullList<Booking> implements Serializabl
      * @return The total of all the booking profits
      */
     public final Price getProfit() {
-        return new Price(sum((Booking booking) -> booking.getProfit().getBigDecimal()));
+        final long start = System.nanoTime();
+        final Price profit = new Price(sum(Booking::getProfitCents));
+        PROFIT_LATENCY.recordSince(start);
+        return profit;
     }
 
     /**
@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The portions of each meal to load onto a flight, as booked when the
+ * manifest was made.
+ *
+ * @author Graham Fairweather
+ * @see MealInventory
+ */
+public final class CateringManifest implements Serializable {
+
+    private final String flightNumber;
+    private final LocalDateTime departureDateTime;
+    private final LocalDateTime created;
+    private final Map<Meal, Integer> portions;
+
+    /**
+     * Allocates a <code>CateringManifest</code> object and initialises it.
+     *
+     * @param flight The {@link Flight}
+     * @param portions The booked portions of each meal
+     */
+    public CateringManifest(Flight flight, Map<Meal, Integer> portions) {
+        this.flightNumber = flight.getFlightNumber();
+        this.departureDateTime = flight.getDepartureDateTime();
+        this.created = ApplicationClock.now();
+        this.portions = Collections.unmodifiableMap(new LinkedHashMap<>(portions));
+    }
+
+    /**
+     * Gets the booked portions of each meal.
+     *
+     * @return An unmodifiable map of meal to portions
+     */
+    public Map<Meal, Integer> getPortions() {
+        return portions;
+    }
+
+    /**
+     * Gets the total number of portions.
+     *
+     * @return The number of portions
+     */
+    public int getTotal() {
+        int total = 0;
+        for (int count : portions.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Prints this object.
+     */
+    public void print() {
+        println("Catering manifest for " + flightNumber + " departing " + departureDateTime + ", made " + created + ":");
+        portions.forEach((meal, count) -> println(meal.getType() + " " + meal.getDescription() + ": " + count));
+        println("Catering portions: " + getTotal());
+    }
+
+}
@@ -38,17 +38,66 @@ import static java.time.Month.MAY;
 
 /**
  * This would be where we access the database. But, we have hard coded objects
- * and information.
+ * and information. Setting the system property
+ * <code>assignment.generator.seed</code> adds a generated world as well, see
+ * {@link DataGenerator#fromSystemProperties()}.
  *
  * @author Graham Fairweather
  */
 public class Data implements Serializable {
 
-    final static Airlines AIRLINES;
-    final static Airports AIRPORTS;
+    private static Airports airports;
+    private static Airlines airlines;
+
+    /**
+     * Gets the airports, creating them and the airlines on first use.
+     *
+     * @return The airports
+     */
+    static synchronized Airports getAirports() {
+        load();
+        return airports;
+    }
+
+    /**
+     * Gets the airlines, creating them and the airports on first use. Each
+     * airline's flights, bookings and passengers are only loaded when they are
+     * first accessed, see {@link Airline#setLoader(AirlineLoader)}.
+     *
+     * @return The airlines
+     */
+    static synchronized Airlines getAirlines() {
+        load();
+        return airlines;
+    }
+
+    /**
+     * Creates the airports and airlines unless that has already been done. If
+     * creation fails then nothing is kept, and the next call tries again.
+     */
+    private static void load() {
+        if (airlines != null) {
+            return;
+        }
+        Airports newAirports = createAirports();
+        Airlines newAirlines = new Airlines();
+        newAirlines.add(createAirline(newAirports));
+        // Add a generated world when a seed is given, see DataGenerator
+        DataGenerator generator = DataGenerator.fromSystemProperties();
+        if (generator != null) {
+            generator.register(newAirlines, newAirports);
+        }
+        airports = newAirports;
+        airlines = newAirlines;
+    }
 
-    static {
-        AIRPORTS = new Airports();
+    /**
+     * Creates the airports.
+     *
+     * @return The airports
+     */
+    private static Airports createAirports() {
+        Airports airports = new Airports();
 
         // Airport 1
         String airportName = "Stockholm International Airport";
@@ -66,7 +115,7 @@ public class Data implements Serializable {
 
         Airport airport = new Airport(airportName, address, phone);
 
-        AIRPORTS.add(airport);
+        airports.add(airport);
 
         // Airport 2
         airportName = "London International Airport";
@@ -84,12 +133,19 @@ public class Data implements Serializable {
 
         airport = new Airport(airportName, address, phone);
 
-        AIRPORTS.add(airport);
-    }
+        airports.add(airport);
 
-    static {
-        AIRLINES = new Airlines();
+        return airports;
+    }
 
+    /**
+     * Creates the airline with its aircraft, meals and employees. The rest is
+     * left to {@link #loadAirline(Airline, Airports)} on first access.
+     *
+     * @param airports The airports
+     * @return The airline
+     */
+    private static Airline createAirline(Airports airports) {
         // Airline
         String airlineName = "Queezy Jet";
 
@@ -163,8 +219,7 @@ public class Data implements Serializable {
         meal = new Meal(productType, description, price);
         airline1.getMeals().add(meal);
 
-        /* Passengers */
-        // Passenger 1
+        // Employee
         String forName = "Graham";
         String surName = "Fairweather";
         GenderTypes gender = MALE;
@@ -181,6 +236,41 @@ public class Data implements Serializable {
         subscriberNumber = "9876 543";
         phone = new Phone(countryCode, areaCode, subscriberNumber);
 
+        LocalDate startDate = of(1971, MAY, 7);
+
+        Employee employee = new Employee(forName, surName, gender, birthDate, address, phone, startDate);
+        airline1.getEmployees().add(employee);
+
+        airline1.setLoader(airline -> loadAirline(airline, airports));
+
+        return airline1;
+    }
+
+    /**
+     * Loads the airline's passengers, flights and bookings.
+     *
+     * @param airline1 The airline
+     * @param airports The airports
+     */
+    private static void loadAirline(Airline airline1, Airports airports) {
+        /* Passengers */
+        // Passenger 1
+        String forName = "Graham";
+        String surName = "Fairweather";
+        GenderTypes gender = MALE;
+        LocalDate birthDate = of(1971, MAY, 7);
+
+        String address1 = "Blahvägan 15";
+        String address2 = "Stockholm";
+        String postcode = "17156";
+        String country = "Sweden";
+        Address address = new Address(address1, address2, postcode, country);
+
+        String countryCode = "0046";
+        String areaCode = "070";
+        String subscriberNumber = "9876 543";
+        Phone phone = new Phone(countryCode, areaCode, subscriberNumber);
+
         Passenger passenger = new Passenger(forName, surName, gender, birthDate, address, phone);
         airline1.getPassengers().add(passenger);
 
@@ -224,60 +314,38 @@ public class Data implements Serializable {
         passenger = new Passenger(forName, surName, gender, birthDate, address, phone);
         airline1.getPassengers().add(passenger);
 
-        // Employee
-        forName = "Graham";
-        surName = "Fairweather";
-        gender = MALE;
-        birthDate = of(1971, MAY, 7);
-
-        address1 = "Blahvägan 15";
-        address2 = "Stockholm";
-        postcode = "17156";
-        country = "Sweden";
-        address = new Address(address1, address2, postcode, country);
-
-        countryCode = "0046";
-        areaCode = "070";
-        subscriberNumber = "9876 543";
-        phone = new Phone(countryCode, areaCode, subscriberNumber);
-
-        LocalDate startDate = of(1971, MAY, 7);
-
-        Employee employee = new Employee(forName, surName, gender, birthDate, address, phone, startDate);
-        airline1.getEmployees().add(employee);
-
         /* Flights */
         // Flight1
         String flightNumber = "SL1";
-        aircraft = airline1.getAircrafts().getByName("QJ1");
-        LocalDateTime departureDate = LocalDateTime.now().plusMinutes(1);
-        Airport from = AIRPORTS.getByName("Stockholm");
-        Airport to = AIRPORTS.getByName("London");
+        Aircraft aircraft = airline1.getAircrafts().getByName("QJ1");
+        LocalDateTime departureDate = ApplicationClock.now().plusMinutes(1);
+        Airport from = airports.getByName("Stockholm");
+        Airport to = airports.getByName("London");
         Duration duration = Duration.ofMinutes(1);
         Price firstClassPrice = new Price("20000");
         Price economyClassPrice = new Price("5000");
         Flight flight = new Flight(flightNumber, airline1, aircraft, departureDate, from, to, duration, firstClassPrice, economyClassPrice);
-        airline1.getFlights().add(flight);
+        airline1.addFlight(flight);
 
         // Flight2
         flightNumber = "LS1";
         aircraft = airline1.getAircrafts().getByName("QJ2");
-        departureDate = LocalDateTime.now().plusHours(60);
-        from = AIRPORTS.getByName("London");
-        to = AIRPORTS.getByName("Stockholm");
+        departureDate = ApplicationClock.now().plusHours(60);
+        from = airports.getByName("London");
+        to = airports.getByName("Stockholm");
         duration = Duration.ofMinutes(120);
         firstClassPrice = new Price("20000");
         economyClassPrice = new Price("5000");
         flight = new Flight(flightNumber, airline1, aircraft, departureDate, from, to, duration, firstClassPrice, economyClassPrice);
-        airline1.getFlights().add(flight);
+        airline1.addFlight(flight);
 
         /* Bookings */
         // Booking 1 all first and economy class seats
         flight = airline1.getFlights().getByFlightNumber("SL1");
         passenger = airline1.getPassengers().getByName("Graham");
-        meal = airline1.getMeals().getFirstClassMeals().getByDescription("Mandarin");
+        Meal meal = airline1.getMeals().getFirstClassMeals().getByDescription("Mandarin");
         for (Seat firstClassSeat : flight.getSeats()) {
-            airline1.getBookings().add(new Booking(flight, passenger, firstClassSeat, meal));
+            airline1.addBooking(new Booking(flight, passenger, firstClassSeat, meal));
         }
 
         // Booking 2 all first class seats
@@ -285,7 +353,7 @@ public class Data implements Serializable {
         passenger = airline1.getPassengers().getByName("Graham");
         meal = airline1.getMeals().getFirstClassMeals().getByDescription("Mandarin");
         for (Seat firstClassSeat : flight.getSeats().getFirstClassSeatsAvailable()) {
-            airline1.getBookings().add(new Booking(flight, passenger, firstClassSeat, meal));
+            airline1.addBooking(new Booking(flight, passenger, firstClassSeat, meal));
         }
 
         // Booking 3
@@ -294,7 +362,7 @@ public class Data implements Serializable {
         Seat seat = flight.getSeats().getEconomyClassSeatsAvailable().get(0);
         meal = airline1.getMeals().getEconomyClassMeals().getByDescription("Ham");
         Booking booking = new Booking(flight, passenger, seat, meal);
-        airline1.getBookings().add(booking);
+        airline1.addBooking(booking);
 
         // Booking 4
         flight = airline1.getFlights().getByFlightNumber("LS1");
@@ -302,10 +370,7 @@ public class Data implements Serializable {
         seat = flight.getSeats().getEconomyClassSeatsAvailable().get(0);
         meal = airline1.getMeals().getEconomyClassMeals().getByDescription("Cheese");
         booking = new Booking(flight, passenger, seat, meal);
-        airline1.getBookings().add(booking);
-
-        // Add the airline
-        AIRLINES.add(airline1);
+        airline1.addBooking(booking);
     }
 
     private Data() {
@@ -0,0 +1,556 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GenderTypes.FEMALE;
+import static assignment.GenderTypes.MALE;
+import static assignment.GeneralUtils.requireGreaterOrEqual;
+import static assignment.ProductClassTypes.ECONOMY;
+import static assignment.ProductClassTypes.FIRST;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Generates a synthetic world of airports, airlines, fleets, flights,
+ * passengers and bookings, at volumes configured by its setters.
+ *
+ * <p>
+ * The same seed and settings always produce the same world. Airports,
+ * airlines, fleets and meals are generated first. Each airline's passengers,
+ * flights and bookings are then generated, in parallel by
+ * {@link #generate(Airlines, Airports)} or on first access after
+ * {@link #register(Airlines, Airports)}, with a random generator of its own
+ * derived from the seed, so the result does not depend on the order in which
+ * the airlines are loaded. The ids of the objects are drawn from generators
+ * derived from the seed too, so they are the same on every run. Every aircraft
+ * flies a rotation of legs each day from the first day, starting from wherever
+ * its previous leg landed, and each flight is booked to a load factor drawn
+ * around {@link #getLoadFactor()}.
+ *
+ * @author Graham Fairweather
+ */
+public class DataGenerator {
+
+    private static final String[] FORE_NAMES = {
+        "Anna", "Eva", "Maria", "Karin", "Sara", "Emma", "Elin", "Linnea",
+        "Ingrid", "Astrid", "Sophie", "Olivia", "Charlotte", "Amelia", "Chloé",
+        "Lars", "Erik", "Anders", "Johan", "Karl", "Per", "Nils", "Björn",
+        "Sten", "Oskar", "James", "Oliver", "Harry", "George", "Graham", "Noël"
+    };
+
+    private static final String[] SUR_NAMES = {
+        "Andersson", "Johansson", "Karlsson", "Nilsson", "Eriksson", "Larsson",
+        "Olsson", "Persson", "Svensson", "Gustafsson", "Sjökvist", "Lövbiff",
+        "Åberg", "Öberg", "Ström", "Smith", "Jones", "Taylor", "Brown",
+        "Williams", "Wilson", "Davies", "Evans", "Thomas", "Fairweather",
+        "Müller", "Schäfer", "Dubois", "García", "Núñez"
+    };
+
+    private static final String[] CITIES = {
+        "Stockholm", "London", "Göteborg", "Malmö", "Oslo", "Copenhagen",
+        "Helsinki", "Reykjavik", "Dublin", "Edinburgh", "Manchester", "Paris",
+        "Amsterdam", "Brussels", "Frankfurt", "Munich", "Berlin", "Zürich",
+        "Vienna", "Prague", "Warsaw", "Budapest", "Rome", "Milan", "Madrid",
+        "Barcelona", "Lisbon", "Athens", "Istanbul", "Riga", "Tallinn",
+        "Vilnius", "Geneva", "Nice", "Lyon", "Hamburg", "Krakow", "Porto",
+        "Seville", "Valencia"
+    };
+
+    private static final String[] STREETS = {
+        "Storgatan", "Kungsgatan", "Drottninggatan", "High Street",
+        "Church Road", "Station Road", "Hauptstraße", "Rue de la Paix"
+    };
+
+    private static final String[] MAKES = {"Airbus", "Boeing", "Embraer", "Bombardier"};
+
+    private static final String[] MODELS = {"A320", "737-800", "E195", "CRJ900"};
+
+    private static final LocalTime FIRST_DEPARTURE_OF_DAY = LocalTime.of(6, 0);
+
+    private final long seed;
+    private int airportCount;
+    private int airlineCount;
+    private int aircraftCount;
+    private int passengerCount;
+    private int dayCount;
+    private int legsPerDay;
+    private double loadFactor;
+    private Duration turnaround;
+    private LocalDate startDate;
+
+    /**
+     * Allocates a <code>DataGenerator</code> object and initialises it with the
+     * seed and the default volumes: 40 airports, 4 airlines, each with 10
+     * aircraft and 50000 passengers, flying up to 4 legs a day for a year from
+     * tomorrow, with a load factor of 0.8 and a 45 minute turnaround.
+     *
+     * @param seed The seed of every random choice
+     */
+    public DataGenerator(long seed) {
+        this.seed = seed;
+        this.airportCount = 40;
+        this.airlineCount = 4;
+        this.aircraftCount = 10;
+        this.passengerCount = 50000;
+        this.dayCount = 365;
+        this.legsPerDay = 4;
+        this.loadFactor = 0.8;
+        this.turnaround = Duration.ofMinutes(45);
+        this.startDate = ApplicationClock.now().toLocalDate().plusDays(1);
+    }
+
+    /**
+     * Allocates a <code>DataGenerator</code> object configured from the system
+     * properties <code>assignment.generator.seed</code>,
+     * <code>.airports</code>, <code>.airlines</code>, <code>.aircraft</code>,
+     * <code>.passengers</code>, <code>.days</code>, <code>.legs</code> and
+     * <code>.loadFactor</code>. Any that are not set keep their default.
+     *
+     * @return The generator, or {@code null} if no seed is set
+     * @throws NumberFormatException if a property is not a number
+     */
+    public static DataGenerator fromSystemProperties() {
+        String prefix = "assignment.generator.";
+        String seedProperty = System.getProperty(prefix + "seed");
+        if (seedProperty == null) {
+            return null;
+        }
+        DataGenerator generator = new DataGenerator(Long.parseLong(seedProperty.trim()));
+        generator.setAirportCount(Integer.getInteger(prefix + "airports", generator.getAirportCount()));
+        generator.setAirlineCount(Integer.getInteger(prefix + "airlines", generator.getAirlineCount()));
+        generator.setAircraftCount(Integer.getInteger(prefix + "aircraft", generator.getAircraftCount()));
+        generator.setPassengerCount(Integer.getInteger(prefix + "passengers", generator.getPassengerCount()));
+        generator.setDayCount(Integer.getInteger(prefix + "days", generator.getDayCount()));
+        generator.setLegsPerDay(Integer.getInteger(prefix + "legs", generator.getLegsPerDay()));
+        String loadFactorProperty = System.getProperty(prefix + "loadFactor");
+        if (loadFactorProperty != null) {
+            generator.setLoadFactor(Double.parseDouble(loadFactorProperty.trim()));
+        }
+        return generator;
+    }
+
+    /**
+     * Gets the seed.
+     *
+     * @return The seed
+     */
+    public final long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the number of airports.
+     *
+     * @return The number of airports
+     */
+    public final int getAirportCount() {
+        return airportCount;
+    }
+
+    /**
+     * Sets the number of airports, at least 2.
+     *
+     * @param airportCount The number of airports
+     */
+    public final void setAirportCount(int airportCount) {
+        this.airportCount = requireGreaterOrEqual(airportCount, 2);
+    }
+
+    /**
+     * Gets the number of airlines.
+     *
+     * @return The number of airlines
+     */
+    public final int getAirlineCount() {
+        return airlineCount;
+    }
+
+    /**
+     * Sets the number of airlines.
+     *
+     * @param airlineCount The number of airlines
+     */
+    public final void setAirlineCount(int airlineCount) {
+        this.airlineCount = requireGreaterOrEqual(airlineCount, 0);
+    }
+
+    /**
+     * Gets the number of aircraft in each airline's fleet.
+     *
+     * @return The number of aircraft
+     */
+    public final int getAircraftCount() {
+        return aircraftCount;
+    }
+
+    /**
+     * Sets the number of aircraft in each airline's fleet.
+     *
+     * @param aircraftCount The number of aircraft
+     */
+    public final void setAircraftCount(int aircraftCount) {
+        this.aircraftCount = requireGreaterOrEqual(aircraftCount, 0);
+    }
+
+    /**
+     * Gets the number of passengers of each airline.
+     *
+     * @return The number of passengers
+     */
+    public final int getPassengerCount() {
+        return passengerCount;
+    }
+
+    /**
+     * Sets the number of passengers of each airline. Flights are only booked
+     * if there is at least one.
+     *
+     * @param passengerCount The number of passengers
+     */
+    public final void setPassengerCount(int passengerCount) {
+        this.passengerCount = requireGreaterOrEqual(passengerCount, 0);
+    }
+
+    /**
+     * Gets the number of days of flights.
+     *
+     * @return The number of days
+     */
+    public final int getDayCount() {
+        return dayCount;
+    }
+
+    /**
+     * Sets the number of days of flights.
+     *
+     * @param dayCount The number of days
+     */
+    public final void setDayCount(int dayCount) {
+        this.dayCount = requireGreaterOrEqual(dayCount, 0);
+    }
+
+    /**
+     * Gets the largest number of legs each aircraft flies a day.
+     *
+     * @return The number of legs
+     */
+    public final int getLegsPerDay() {
+        return legsPerDay;
+    }
+
+    /**
+     * Sets the largest number of legs each aircraft flies a day. Fewer are
+     * flown if the legs would not be finished before midnight.
+     *
+     * @param legsPerDay The number of legs
+     */
+    public final void setLegsPerDay(int legsPerDay) {
+        this.legsPerDay = requireGreaterOrEqual(legsPerDay, 0);
+    }
+
+    /**
+     * Gets the average share of seats booked on a flight.
+     *
+     * @return The load factor
+     */
+    public final double getLoadFactor() {
+        return loadFactor;
+    }
+
+    /**
+     * Sets the average share of seats booked on a flight, between 0 and 1.
+     *
+     * @param loadFactor The load factor
+     */
+    public final void setLoadFactor(double loadFactor) {
+        if (requireGreaterOrEqual(loadFactor, 0) > 1) {
+            throw new IllegalArgumentException("load factor must be at most 1");
+        }
+        this.loadFactor = loadFactor;
+    }
+
+    /**
+     * Gets the time an aircraft spends on the ground between legs.
+     *
+     * @return The turnaround time
+     */
+    public final Duration getTurnaround() {
+        return turnaround;
+    }
+
+    /**
+     * Sets the time an aircraft spends on the ground between legs.
+     *
+     * @param turnaround The turnaround time
+     */
+    public final void setTurnaround(Duration turnaround) {
+        this.turnaround = requireNonNull(turnaround);
+    }
+
+    /**
+     * Gets the date of the first day of flights.
+     *
+     * @return The date
+     */
+    public final LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Sets the date of the first day of flights.
+     *
+     * @param startDate The date
+     */
+    public final void setStartDate(LocalDate startDate) {
+        this.startDate = requireNonNull(startDate);
+    }
+
+    /**
+     * Generates the world, adding the airports to {@code airports} and the
+     * airlines, fully loaded, to {@code airlines}.
+     *
+     * @param airlines The airlines to add to
+     * @param airports The airports to add to
+     */
+    public void generate(Airlines airlines, Airports airports) {
+        List<Airline> generatedAirlines = createAirlines(airports);
+        generatedAirlines.parallelStream().forEach(Airline::load);
+        generatedAirlines.forEach(airlines::add);
+    }
+
+    /**
+     * Generates the airports and the airlines with their fleets and meals,
+     * adding them to {@code airports} and {@code airlines}. Each airline's
+     * passengers, flights and bookings are generated when they are first
+     * accessed, and are the same as those made by
+     * {@link #generate(Airlines, Airports)}.
+     *
+     * @param airlines The airlines to add to
+     * @param airports The airports to add to
+     */
+    public void register(Airlines airlines, Airports airports) {
+        requireNonNull(airlines);
+        createAirlines(airports).forEach(airlines::add);
+    }
+
+    /**
+     * Generates the airports, adding them to {@code airports}, and the
+     * airlines, each with a loader of the rest of its data.
+     *
+     * @param airports The airports to add to
+     * @return The airlines
+     */
+    private List<Airline> createAirlines(Airports airports) {
+        requireNonNull(airports);
+        Random random = new Random(seed);
+        List<Airline> airlines = new ArrayList<>(airlineCount);
+        AccountableObject.withIds(new Random(~seed), () -> {
+            Airport[] generatedAirports = new Airport[airportCount];
+            for (int index = 0; index < airportCount; index++) {
+                generatedAirports[index] = generateAirport(random, index);
+                airports.add(generatedAirports[index]);
+            }
+            int[][] minutes = generateFlightTimes(random, airportCount);
+            IntStream.range(0, airlineCount)
+                    .mapToObj(index -> generateAirline(index, generatedAirports, minutes))
+                    .forEach(airlines::add);
+        });
+        return airlines;
+    }
+
+    /**
+     * Creates the random generator of an airline, independent of the other
+     * airlines.
+     *
+     * @param index The index of the airline
+     * @return A {@link Random}
+     */
+    private Random airlineRandom(int index) {
+        return new Random(seed ^ (0x9E3779B97F4A7C15L * (index + 1)));
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static Address generateAddress(Random random, String city) {
+        String address1 = pick(random, STREETS) + " " + (1 + random.nextInt(120));
+        String postcode = String.valueOf(10000 + random.nextInt(90000));
+        return new Address(address1, city, postcode, "Europe");
+    }
+
+    private static Phone generatePhone(Random random) {
+        String countryCode = "00" + (30 + random.nextInt(20));
+        String areaCode = "0" + (10 + random.nextInt(90));
+        String subscriberNumber = (1000 + random.nextInt(9000)) + " " + (100 + random.nextInt(900));
+        return new Phone(countryCode, areaCode, subscriberNumber);
+    }
+
+    private static Airport generateAirport(Random random, int index) {
+        String city = CITIES[index % CITIES.length];
+        String name = city + (index < CITIES.length ? "" : " " + (index / CITIES.length + 1)) + " International Airport";
+        return new Airport(name, generateAddress(random, city), generatePhone(random));
+    }
+
+    /**
+     * Generates the flight time in minutes between each pair of airports, the
+     * same in both directions.
+     *
+     * @param random The random generator
+     * @param count The number of airports
+     * @return The flight times
+     */
+    private static int[][] generateFlightTimes(Random random, int count) {
+        int[][] minutes = new int[count][count];
+        for (int from = 0; from < count; from++) {
+            for (int to = from + 1; to < count; to++) {
+                minutes[from][to] = 45 + random.nextInt(24) * 15;
+                minutes[to][from] = minutes[from][to];
+            }
+        }
+        return minutes;
+    }
+
+    private Passenger generatePassenger(Random random) {
+        GenderTypes gender = random.nextBoolean() ? MALE : FEMALE;
+        LocalDate birthDate = LocalDate.of(1930 + random.nextInt(85), 1 + random.nextInt(12), 1 + random.nextInt(28));
+        Address address = generateAddress(random, pick(random, CITIES));
+        return new Passenger(pick(random, FORE_NAMES), pick(random, SUR_NAMES), gender, birthDate, address, generatePhone(random));
+    }
+
+    private Airline generateAirline(int index, Airport[] airports, int[][] minutes) {
+        Random random = airlineRandom(index);
+        String code = String.valueOf((char) ('A' + index / 26 % 26)) + (char) ('A' + index % 26);
+        Airline airline = new Airline(code + " Airways", generateAddress(random, airports[index % airports.length].getAddress().getAddress2()), generatePhone(random));
+
+        Meals meals = airline.getMeals();
+        meals.add(new Meal(ECONOMY, "Cheese Roll plus Coke.", new Price("150.5")));
+        meals.add(new Meal(ECONOMY, "Ham Roll plus Coke.", new Price("170.5")));
+        meals.add(new Meal(FIRST, "Roast Chicken plus Champagne.", new Price("1999.99")));
+        meals.add(new Meal(FIRST, "Lobster plus Champagne.", new Price("2499.99")));
+
+        Aircraft[] fleet = new Aircraft[aircraftCount];
+        for (int number = 0; number < aircraftCount; number++) {
+            int firstClassSeatCount = 4 + random.nextInt(5) * 2;
+            int economyClassSeatCount = 40 + random.nextInt(15) * 10;
+            int make = random.nextInt(MAKES.length);
+            fleet[number] = new AircraftOfPassengerType(code + (number + 1), MAKES[make], MODELS[make], firstClassSeatCount, economyClassSeatCount);
+            airline.getAircrafts().add(fleet[number]);
+        }
+
+        long loadSeed = random.nextLong();
+        long idSeed = random.nextLong();
+        airline.setLoader(loaded -> AccountableObject.withIds(new Random(idSeed),
+                () -> loadAirline(loaded, new Random(loadSeed), code, fleet, airports, minutes)));
+        return airline;
+    }
+
+    /**
+     * Generates an airline's passengers, and flights for its fleet with their
+     * bookings.
+     *
+     * @param airline The airline
+     * @param random The random generator of the airline's data
+     * @param code The code at the start of the airline's flight numbers
+     * @param fleet The airline's aircraft
+     * @param airports The airports
+     * @param minutes The flight time in minutes between each pair of airports
+     */
+    private void loadAirline(Airline airline, Random random, String code, Aircraft[] fleet, Airport[] airports, int[][] minutes) {
+        Meals meals = airline.getMeals();
+        Meal[] economyMeals = meals.filter(meal -> meal.getType() == ECONOMY).toArray(new Meal[0]);
+        Meal[] firstClassMeals = meals.filter(meal -> meal.getType() == FIRST).toArray(new Meal[0]);
+
+        Passenger[] passengers = new Passenger[passengerCount];
+        for (int number = 0; number < passengerCount; number++) {
+            passengers[number] = generatePassenger(random);
+            airline.getPassengers().add(passengers[number]);
+        }
+
+        int[] location = new int[fleet.length];
+        for (int number = 0; number < fleet.length; number++) {
+            location[number] = random.nextInt(airports.length);
+        }
+
+        int flightNumber = 0;
+        LocalDateTime firstDay = startDate.atTime(FIRST_DEPARTURE_OF_DAY);
+        for (int day = 0; day < dayCount; day++) {
+            LocalDateTime endOfDay = startDate.plusDays(day + 1).atStartOfDay();
+            for (int number = 0; number < fleet.length; number++) {
+                LocalDateTime departure = firstDay.plusDays(day).plusMinutes(random.nextInt(12) * 5);
+                for (int leg = 0; leg < legsPerDay; leg++) {
+                    int from = location[number];
+                    int to = random.nextInt(airports.length - 1);
+                    if (to >= from) {
+                        to++;
+                    }
+                    Duration duration = Duration.ofMinutes(minutes[from][to]);
+                    if (departure.plus(duration).isAfter(endOfDay)) {
+                        break;
+                    }
+                    BigDecimal economyFare = BigDecimal.valueOf(500 + minutes[from][to] * 10L + random.nextInt(20) * 50L);
+                    Flight flight = new Flight(code + (++flightNumber), airline, fleet[number], departure, airports[from], airports[to], duration, new Price(economyFare.multiply(BigDecimal.valueOf(4))), new Price(economyFare));
+                    airline.addFlight(flight);
+                    bookFlight(random, airline, flight, passengers, economyMeals, firstClassMeals);
+                    location[number] = to;
+                    departure = departure.plus(duration).plus(turnaround).truncatedTo(ChronoUnit.MINUTES);
+                }
+            }
+        }
+    }
+
+    /**
+     * Books a flight to a load factor drawn around {@link #getLoadFactor()},
+     * each seat for a random passenger with a random meal of its class.
+     *
+     * @param random The random generator
+     * @param airline The airline
+     * @param flight The flight to book
+     * @param passengers The passengers to choose from
+     * @param economyMeals The economy class meals to choose from
+     * @param firstClassMeals The first class meals to choose from
+     */
+    private void bookFlight(Random random, Airline airline, Flight flight, Passenger[] passengers, Meal[] economyMeals, Meal[] firstClassMeals) {
+        if (passengers.length == 0) {
+            return;
+        }
+        double flightLoadFactor = Math.min(1, Math.max(0, loadFactor + random.nextGaussian() * 0.12));
+        for (Seat seat : flight.getSeats()) {
+            if (random.nextDouble() < flightLoadFactor) {
+                Meal meal = pick(random, seat.getType() == FIRST ? firstClassMeals : economyMeals);
+                airline.addBooking(new Booking(flight, pick(random, passengers), seat, meal));
+            }
+        }
+    }
+
+}
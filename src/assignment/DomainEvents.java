@@ -0,0 +1,165 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+/**
+ * Emits Java Flight Recorder events for bookings, seat reservations, flight
+ * status changes, departure and arrival tasks, and waits for the lock of an
+ * {@link AbstractNoNullList}, so that a recording can attribute CPU, garbage
+ * collection and lock contention to the booking workload. Start a recording
+ * with, for example, <code>-XX:StartFlightRecording=filename=airline.jfr</code>
+ * and look for the events under the "Airline" category.
+ *
+ * <p>
+ * The events are only created when the running Java has a flight recorder
+ * (Java 8u262 or later), and are committed only while a recording has them
+ * enabled, so they cost next to nothing otherwise. Duration events are begun
+ * with one of the <code>begin</code> methods, which returns an opaque event,
+ * or {@code null}, to pass to the matching <code>commit</code> method.
+ *
+ * @author Graham Fairweather
+ */
+public final class DomainEvents {
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, DomainEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Tests if the running Java has a flight recorder to emit the events to.
+     *
+     * @return <code>true</code> if events can be recorded, otherwise
+     * <code>false</code>
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Begins a booking event.
+     *
+     * @return The event, or {@code null} if events are not being recorded
+     */
+    public static Object beginBooking() {
+        return AVAILABLE ? FlightRecorderEvents.beginBooking() : null;
+    }
+
+    /**
+     * Commits a booking event.
+     *
+     * @param event The event returned by {@link #beginBooking()}
+     * @param flight The flight booked
+     * @param type The class booked
+     * @param seat The seat reserved, or {@code null} if it is given at
+     * check-in
+     * @param price The total price
+     */
+    public static void commitBooking(Object event, Flight flight, ProductClassTypes type, Seat seat, Price price) {
+        if (event != null) {
+            FlightRecorderEvents.commitBooking(event, flight, type, seat, price);
+        }
+    }
+
+    /**
+     * Records a change of a seat's status.
+     *
+     * @param seat The seat
+     * @param from The previous status
+     * @param to The new status
+     */
+    public static void seatStatus(Seat seat, SeatsStatusTypes from, SeatsStatusTypes to) {
+        if (AVAILABLE) {
+            FlightRecorderEvents.seatStatus(seat, from, to);
+        }
+    }
+
+    /**
+     * Records a change of a flight's status.
+     *
+     * @param flight The flight
+     * @param from The previous status
+     * @param to The new status
+     */
+    public static void flightStatus(Flight flight, FlightStatusTypes from, FlightStatusTypes to) {
+        if (AVAILABLE) {
+            FlightRecorderEvents.flightStatus(flight, from, to);
+        }
+    }
+
+    /**
+     * Begins a flight task event, for a departure or an arrival.
+     *
+     * @return The event, or {@code null} if events are not being recorded
+     */
+    public static Object beginFlightTask() {
+        return AVAILABLE ? FlightRecorderEvents.beginFlightTask() : null;
+    }
+
+    /**
+     * Commits a flight task event.
+     *
+     * @param event The event returned by {@link #beginFlightTask()}
+     * @param flight The flight
+     * @param task The task, "DEPARTURE" or "ARRIVAL"
+     * @param bookings The number of bookings the task changed
+     */
+    public static void commitFlightTask(Object event, Flight flight, String task, int bookings) {
+        if (event != null) {
+            FlightRecorderEvents.commitFlightTask(event, flight, task, bookings);
+        }
+    }
+
+    /**
+     * Begins waiting for the lock of a list.
+     *
+     * @return The event, or {@code null} if events are not being recorded
+     */
+    public static Object beginListLock() {
+        return AVAILABLE ? FlightRecorderEvents.beginListLock() : null;
+    }
+
+    /**
+     * Commits a list lock event once the lock is held.
+     *
+     * @param event The event returned by {@link #beginListLock()}
+     * @param list The list whose lock was acquired
+     * @param operation The list operation, such as "add"
+     */
+    public static void commitListLock(Object event, AbstractNoNullList<?> list, String operation) {
+        if (event != null) {
+            FlightRecorderEvents.commitListLock(event, list, operation);
+        }
+    }
+
+    private DomainEvents() {
+    }
+
+}
@@ -0,0 +1,498 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import static assignment.GeneralUtils.printlnLineSpaced;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Reports on the economy of an airline, answered from a columnar copy of its
+ * bookings.
+ *
+ * <p>
+ * Each booking that is confirmed or closed, live or archived, is one row of a
+ * set of primitive arrays: its flight, class, meal and price, costs and profit
+ * in cents. The flights are a second, smaller set of arrays giving the route,
+ * aircraft, seat count and month of each. Names are stored once and referred
+ * to by number. A report groups the rows by one of these numbers, summing
+ * chunks of rows in parallel and then merging the chunks' totals.
+ *
+ * <p>
+ * The copy is taken when the analytics are built, so reports do not lock the
+ * bookings and do not see later changes.
+ *
+ * @author Graham Fairweather
+ */
+public final class EconomyAnalytics {
+
+    private static final LatencyHistogram BUILD = Metrics.histogram("economy.build");
+    private static final LatencyHistogram REPORT = Metrics.histogram("economy.report");
+
+    /**
+     * The number of rows summed by one task.
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private static final int COUNT = 0;
+    private static final int PRICE = 1;
+    private static final int COSTS = 2;
+    private static final int PROFIT = 3;
+
+    private final String[] routeNames;
+    private final String[] aircraftNames;
+    private final YearMonth[] months;
+    private final String[] mealDescriptions;
+    private final boolean[] noMeals;
+
+    private final int[] flightRoutes;
+    private final int[] flightAircraft;
+    private final int[] flightMonths;
+    private final int[] flightSeats;
+
+    private final int size;
+    private final int[] flights;
+    private final int[] classes;
+    private final int[] meals;
+    private final long[] priceCents;
+    private final long[] costsCents;
+    private final long[] profitCents;
+
+    /**
+     * Gives each distinct name a number, in the order first seen.
+     */
+    private static final class Dictionary<T> {
+
+        private final Map<T, Integer> codes = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        int code(T value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        Integer find(T value) {
+            return codes.get(value);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        List<T> values() {
+            return values;
+        }
+
+    }
+
+    /**
+     * Allocates an <code>EconomyAnalytics</code> object from columns already
+     * built. The arrays are used, not copied.
+     */
+    EconomyAnalytics(String[] routeNames, String[] aircraftNames, YearMonth[] months, String[] mealDescriptions, boolean[] noMeals,
+            int[] flightRoutes, int[] flightAircraft, int[] flightMonths, int[] flightSeats,
+            int size, int[] flights, int[] classes, int[] meals, long[] priceCents, long[] costsCents, long[] profitCents) {
+        this.routeNames = routeNames;
+        this.aircraftNames = aircraftNames;
+        this.months = months;
+        this.mealDescriptions = mealDescriptions;
+        this.noMeals = noMeals;
+        this.flightRoutes = flightRoutes;
+        this.flightAircraft = flightAircraft;
+        this.flightMonths = flightMonths;
+        this.flightSeats = flightSeats;
+        this.size = size;
+        this.flights = flights;
+        this.classes = classes;
+        this.meals = meals;
+        this.priceCents = priceCents;
+        this.costsCents = costsCents;
+        this.profitCents = profitCents;
+    }
+
+    /**
+     * Builds the analytics from the flights and bookings of an airline,
+     * including its archives. Cancelled bookings are left out.
+     *
+     * @param airline The {@link Airline}
+     * @return The analytics
+     */
+    public static EconomyAnalytics build(Airline airline) {
+        final long start = System.nanoTime();
+        final Dictionary<UUID> flightIds = new Dictionary<>();
+        final Dictionary<String> routes = new Dictionary<>();
+        final Dictionary<String> aircraft = new Dictionary<>();
+        final Dictionary<YearMonth> months = new Dictionary<>();
+        final Dictionary<String> mealDictionary = new Dictionary<>();
+        final List<int[]> flightRows = new ArrayList<>();
+
+        final List<Flight> liveFlights = airline.getFlights().filter(flight -> true);
+        for (Flight flight : liveFlights) {
+            flightIds.code(flight.getId());
+            flightRows.add(new int[]{
+                routes.code(flight.getFrom().getName() + " - " + flight.getTo().getName()),
+                aircraft.code(flight.getAircraft().getName()),
+                months.code(YearMonth.from(flight.getDepartureDateTime())),
+                flight.getSeats().size()});
+        }
+        final FlightArchive flightArchive = airline.getFlightArchive();
+        final int archivedFlightCount = flightArchive.size();
+        for (int row = 0; row < archivedFlightCount; row++) {
+            ArchivedFlight flight = flightArchive.get(row);
+            if (flightIds.find(flight.getId()) != null) {
+                // archived since the live flights were copied
+                continue;
+            }
+            flightIds.code(flight.getId());
+            flightRows.add(new int[]{
+                routes.code(flight.getFromName() + " - " + flight.getToName()),
+                aircraft.code(flight.getAircraftName()),
+                months.code(YearMonth.from(flight.getDepartureDateTime())),
+                flight.getSeatCount()});
+        }
+
+        final List<Booking> live = new ArrayList<>();
+        liveFlights.forEach(flight -> live.addAll(flight.getBookings().filter(booking -> booking.getStatus() == BookingStatusTypes.CONFIRMED)));
+        final List<ArchivedBooking> archived = airline.getBookingArchive().filter(booking -> booking.getStatus().isRevenue());
+
+        final int capacity = live.size() + archived.size();
+        final int[] flights = new int[capacity];
+        final int[] classes = new int[capacity];
+        final int[] meals = new int[capacity];
+        final long[] priceCents = new long[capacity];
+        final long[] costsCents = new long[capacity];
+        final long[] profitCents = new long[capacity];
+        int size = 0;
+        for (Booking booking : live) {
+            flights[size] = flightIds.find(booking.getFlight().getId());
+            classes[size] = booking.getType().ordinal();
+            meals[size] = mealDictionary.code(booking.getMeal().getDescription());
+            priceCents[size] = booking.getPriceCents();
+            costsCents[size] = booking.getCostsCents();
+            profitCents[size] = booking.getProfitCents();
+            size += 1;
+        }
+        for (ArchivedBooking booking : archived) {
+            Integer flight = flightIds.find(booking.getFlightId());
+            if (flight == null) {
+                // the flight was removed without being archived
+                continue;
+            }
+            flights[size] = flight;
+            classes[size] = booking.getSeatType().ordinal();
+            meals[size] = mealDictionary.code(booking.getMealDescription());
+            priceCents[size] = booking.getPriceCents();
+            costsCents[size] = booking.getCostsCents();
+            profitCents[size] = booking.getProfitCents();
+            size += 1;
+        }
+
+        final int flightCount = flightRows.size();
+        final int[] flightRoutes = new int[flightCount];
+        final int[] flightAircraft = new int[flightCount];
+        final int[] flightMonths = new int[flightCount];
+        final int[] flightSeats = new int[flightCount];
+        for (int flight = 0; flight < flightCount; flight++) {
+            int[] row = flightRows.get(flight);
+            flightRoutes[flight] = row[0];
+            flightAircraft[flight] = row[1];
+            flightMonths[flight] = row[2];
+            flightSeats[flight] = row[3];
+        }
+        final String[] mealDescriptions = mealDictionary.values().toArray(new String[mealDictionary.size()]);
+        final boolean[] noMeals = new boolean[mealDescriptions.length];
+        for (int meal = 0; meal < mealDescriptions.length; meal++) {
+            noMeals[meal] = mealDescriptions[meal].startsWith("None");
+        }
+
+        EconomyAnalytics analytics = new EconomyAnalytics(
+                routes.values().toArray(new String[routes.size()]),
+                aircraft.values().toArray(new String[aircraft.size()]),
+                months.values().toArray(new YearMonth[months.size()]),
+                mealDescriptions, noMeals,
+                flightRoutes, flightAircraft, flightMonths, flightSeats,
+                size, flights, classes, meals, priceCents, costsCents, profitCents);
+        BUILD.recordSince(start);
+        return analytics;
+    }
+
+    /**
+     * Gets the number of bookings the analytics were built from.
+     *
+     * @return The number of bookings
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sums the count, price, costs and profit of the rows in each group, one
+     * chunk of rows per task.
+     *
+     * @param groupOfRow Gives the group of a row
+     * @param groups The number of groups
+     * @return The totals, indexed by {@link #COUNT}, {@link #PRICE},
+     * {@link #COSTS} or {@link #PROFIT} and then by group
+     */
+    private long[][] aggregate(IntUnaryOperator groupOfRow, int groups) {
+        final long start = System.nanoTime();
+        final int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        long[][] totals = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    long[][] partial = new long[4][groups];
+                    long[] count = partial[COUNT];
+                    long[] price = partial[PRICE];
+                    long[] costs = partial[COSTS];
+                    long[] profit = partial[PROFIT];
+                    int end = Math.min(size, (chunk + 1) * CHUNK_SIZE);
+                    for (int row = chunk * CHUNK_SIZE; row < end; row++) {
+                        int group = groupOfRow.applyAsInt(row);
+                        count[group] += 1;
+                        price[group] += priceCents[row];
+                        costs[group] += costsCents[row];
+                        profit[group] += profitCents[row];
+                    }
+                    return partial;
+                })
+                .reduce(EconomyAnalytics::merge)
+                .orElseGet(() -> new long[4][groups]);
+        REPORT.recordSince(start);
+        return totals;
+    }
+
+    private static long[][] merge(long[][] left, long[][] right) {
+        for (int total = 0; total < left.length; total++) {
+            for (int group = 0; group < left[total].length; group++) {
+                left[total][group] += right[total][group];
+            }
+        }
+        return left;
+    }
+
+    /**
+     * Gets the count, price, costs and profit of the bookings on each route.
+     *
+     * @return The totals by route, see {@link #getRouteNames()}
+     */
+    public long[][] getRevenueByRoute() {
+        return aggregate(row -> flightRoutes[flights[row]], routeNames.length);
+    }
+
+    /**
+     * Gets the count, price, costs and profit of the bookings on the flights
+     * departing in each month.
+     *
+     * @return The totals by month, see {@link #getMonths()}
+     */
+    public long[][] getRevenueByMonth() {
+        return aggregate(row -> flightMonths[flights[row]], months.length);
+    }
+
+    /**
+     * Gets the count, price, costs and profit of the bookings of each class.
+     *
+     * @return The totals by {@link ProductClassTypes} ordinal
+     */
+    public long[][] getRevenueByClass() {
+        return aggregate(row -> classes[row], ProductClassTypes.values().length);
+    }
+
+    /**
+     * Gets the names of the routes, in the order of their totals.
+     *
+     * @return The route names
+     */
+    public String[] getRouteNames() {
+        return routeNames.clone();
+    }
+
+    /**
+     * Gets the months, in the order of their totals.
+     *
+     * @return The months
+     */
+    public YearMonth[] getMonths() {
+        return months.clone();
+    }
+
+    /**
+     * Gets the names of the aircraft, in the order of their load factors.
+     *
+     * @return The aircraft names
+     */
+    public String[] getAircraftNames() {
+        return aircraftNames.clone();
+    }
+
+    /**
+     * Gets the share of the seats that are booked on the flights of each
+     * aircraft.
+     *
+     * @return The load factors by aircraft, see {@link #getAircraftNames()}
+     */
+    public double[] getLoadFactorByAircraft() {
+        final long[] booked = aggregate(row -> flightAircraft[flights[row]], aircraftNames.length)[COUNT];
+        final long[] seats = new long[aircraftNames.length];
+        for (int flight = 0; flight < flightSeats.length; flight++) {
+            seats[flightAircraft[flight]] += flightSeats[flight];
+        }
+        final double[] loadFactors = new double[aircraftNames.length];
+        for (int plane = 0; plane < loadFactors.length; plane++) {
+            loadFactors[plane] = seats[plane] == 0 ? 0 : (double) booked[plane] / seats[plane];
+        }
+        return loadFactors;
+    }
+
+    /**
+     * Gets the share of the bookings of each class that include a meal.
+     *
+     * @return The attach rates by {@link ProductClassTypes} ordinal
+     */
+    public double[] getMealAttachRateByClass() {
+        final int classCount = ProductClassTypes.values().length;
+        // even groups are bookings without a meal, odd groups with one
+        final long[] counts = aggregate(row -> classes[row] * 2 + (noMeals[meals[row]] ? 0 : 1), classCount * 2)[COUNT];
+        final double[] rates = new double[classCount];
+        for (int type = 0; type < classCount; type++) {
+            long total = counts[type * 2] + counts[type * 2 + 1];
+            rates[type] = total == 0 ? 0 : (double) counts[type * 2 + 1] / total;
+        }
+        return rates;
+    }
+
+    /**
+     * Gets the number of bookings of each meal.
+     *
+     * @return The counts by meal, in the order of
+     * {@link #getMealDescriptions()}
+     */
+    public long[] getMealCounts() {
+        return aggregate(row -> meals[row], mealDescriptions.length)[COUNT];
+    }
+
+    /**
+     * Gets the descriptions of the meals, in the order of their counts.
+     *
+     * @return The meal descriptions
+     */
+    public String[] getMealDescriptions() {
+        return mealDescriptions.clone();
+    }
+
+    /**
+     * Prints the revenue of each route, by route name.
+     */
+    public void printRevenueByRoute() {
+        printRevenue("Revenue by route:", routeNames, getRevenueByRoute());
+    }
+
+    /**
+     * Prints the revenue of each month, in date order.
+     */
+    public void printRevenueByMonth() {
+        String[] names = new String[months.length];
+        for (int month = 0; month < months.length; month++) {
+            names[month] = months[month].toString();
+        }
+        printRevenue("Revenue by month:", names, getRevenueByMonth());
+    }
+
+    /**
+     * Prints the revenue of each class.
+     */
+    public void printRevenueByClass() {
+        ProductClassTypes[] types = ProductClassTypes.values();
+        String[] names = new String[types.length];
+        for (int type = 0; type < types.length; type++) {
+            names[type] = types[type].toString();
+        }
+        printRevenue("Revenue by class:", names, getRevenueByClass());
+    }
+
+    private void printRevenue(String title, String[] names, long[][] totals) {
+        printlnLineSpaced(title);
+        for (int group : sortedBy(names)) {
+            println(names[group] + ": " + totals[COUNT][group] + " bookings"
+                    + ", price " + BigDecimal.valueOf(totals[PRICE][group], 2)
+                    + ", costs " + BigDecimal.valueOf(totals[COSTS][group], 2)
+                    + ", profit " + BigDecimal.valueOf(totals[PROFIT][group], 2));
+        }
+        println();
+    }
+
+    /**
+     * Prints the load factor of each aircraft, by aircraft name.
+     */
+    public void printLoadFactorByAircraft() {
+        double[] loadFactors = getLoadFactorByAircraft();
+        printlnLineSpaced("Load factor by aircraft:");
+        for (int plane : sortedBy(aircraftNames)) {
+            println(aircraftNames[plane] + ": " + String.format("%.1f%%", loadFactors[plane] * 100));
+        }
+        println();
+    }
+
+    /**
+     * Prints the meal attach rate of each class, and the bookings of each
+     * meal.
+     */
+    public void printMealAttachRate() {
+        double[] rates = getMealAttachRateByClass();
+        ProductClassTypes[] types = ProductClassTypes.values();
+        printlnLineSpaced("Meal attach rate by class:");
+        for (int type = 0; type < types.length; type++) {
+            println(types[type] + ": " + String.format("%.1f%%", rates[type] * 100));
+        }
+        long[] counts = getMealCounts();
+        printlnLineSpaced("Bookings by meal:");
+        for (int meal : sortedBy(mealDescriptions)) {
+            println(mealDescriptions[meal] + ": " + counts[meal]);
+        }
+        println();
+    }
+
+    /**
+     * Gets the positions of the names in name order.
+     */
+    private static int[] sortedBy(String[] names) {
+        return IntStream.range(0, names.length).boxed()
+                .sorted((left, right) -> names[left].compareTo(names[right]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+}
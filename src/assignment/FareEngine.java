@@ -0,0 +1,260 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Prices the seats of one {@link Flight}, class by class, from its base fares.
+ *
+ * <p>
+ * The fare of a class rises above its base fare with:
+ * <ul>
+ * <li>the share of its seats reserved, squared, so the last seats cost up to
+ * twice the base fare;</li>
+ * <li>how fast its seats have been reserved lately, as reservations decayed
+ * over {@link #VELOCITY_HALF_LIFE} for each seat, up to 30% more;</li>
+ * <li>how soon the flight departs, in steps from three weeks out, up to 60%
+ * more on the last day.</li>
+ * </ul>
+ * Together they could take a fare to over four times its base fare, so a fare
+ * is capped at {@link #MAXIMUM_FACTOR} times its base fare.
+ *
+ * <p>
+ * The fill part of each fare and the velocity are worked out again only when a
+ * seat of the class is reserved or released, from counters kept here. A quote
+ * reads them as one value, decays the velocity to the time of the quote and
+ * multiplies by the departure step, so the velocity premium wears off without
+ * further reservations. A fare is
+ * fixed into a {@link Booking} when it is made, so a change of fare only
+ * applies to bookings made after it.
+ *
+ * @author Graham Fairweather
+ */
+public final class FareEngine implements Serializable {
+
+    /**
+     * How long it takes for a reservation to count for half as much towards
+     * the booking velocity.
+     */
+    public static final Duration VELOCITY_HALF_LIFE = Duration.ofHours(6);
+
+    /**
+     * The most a fare can be, as a multiple of its base fare.
+     */
+    public static final double MAXIMUM_FACTOR = 2.5;
+
+    private static final double FILL_WEIGHT = 1.0;
+    private static final double VELOCITY_CAP = 0.3;
+
+    /**
+     * The hours before departure at which the departure steps start, from the
+     * furthest, and the multiplier of each step. A fare is multiplied by the
+     * first factor until the first step.
+     */
+    private static final long[] DEPARTURE_STEP_HOURS = {21 * 24, 14 * 24, 7 * 24, 3 * 24, 24};
+    private static final double[] DEPARTURE_FACTORS = {1.0, 1.05, 1.15, 1.3, 1.45, 1.6};
+
+    private final LocalDateTime departureDateTime;
+    private final long[] baseCents;
+    private final int[] capacity;
+
+    /**
+     * The seats reserved, by class ordinal. Guarded by this engine.
+     */
+    private final int[] reserved;
+
+    /**
+     * The fill part of the fare of each class and its velocity, by class
+     * ordinal. Replaced while holding the lock of this engine.
+     */
+    private final AtomicReferenceArray<Fare> fares;
+
+    /**
+     * The fare of a class with the fill part applied, in cents, the decayed
+     * count of recent reservations and the application clock time it was
+     * decayed to.
+     */
+    private static final class Fare implements Serializable {
+
+        private final long fillCents;
+        private final double velocity;
+        private final LocalDateTime velocityUpdated;
+
+        Fare(long fillCents, double velocity, LocalDateTime velocityUpdated) {
+            this.fillCents = fillCents;
+            this.velocity = velocity;
+            this.velocityUpdated = velocityUpdated;
+        }
+
+        /**
+         * The velocity decayed to a time.
+         */
+        double decayedVelocity(LocalDateTime now) {
+            if (velocityUpdated == null || !now.isAfter(velocityUpdated)) {
+                return velocity;
+            }
+            double halfLives = (double) Duration.between(velocityUpdated, now).getSeconds() / VELOCITY_HALF_LIFE.getSeconds();
+            return velocity * Math.pow(0.5, halfLives);
+        }
+
+        @Override
+        public String toString() {
+            return "Fare{" + "fillCents=" + fillCents + ", velocity=" + velocity + ", velocityUpdated=" + velocityUpdated + '}';
+        }
+
+    }
+
+    /**
+     * Allocates a <code>FareEngine</code> object for a flight with no seats
+     * reserved.
+     *
+     * @param departureDateTime The departure date and time
+     * @param firstClassPrice The base fare of a first class seat
+     * @param firstClassSeatCount The number of first class seats
+     * @param economyClassPrice The base fare of an economy class seat
+     * @param economyClassSeatCount The number of economy class seats
+     */
+    public FareEngine(LocalDateTime departureDateTime, Price firstClassPrice, int firstClassSeatCount, Price economyClassPrice, int economyClassSeatCount) {
+        this.departureDateTime = requireNonNull(departureDateTime);
+        final int classes = ProductClassTypes.values().length;
+        baseCents = new long[classes];
+        capacity = new int[classes];
+        reserved = new int[classes];
+        fares = new AtomicReferenceArray<>(classes);
+        baseCents[ProductClassTypes.FIRST.ordinal()] = firstClassPrice.getCents();
+        capacity[ProductClassTypes.FIRST.ordinal()] = firstClassSeatCount;
+        baseCents[ProductClassTypes.ECONOMY.ordinal()] = economyClassPrice.getCents();
+        capacity[ProductClassTypes.ECONOMY.ordinal()] = economyClassSeatCount;
+        for (int type = 0; type < classes; type++) {
+            fares.set(type, new Fare(baseCents[type], 0, null));
+        }
+    }
+
+    /**
+     * Gets the base fare of a class.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return The base fare
+     */
+    public Price getBaseFare(ProductClassTypes type) {
+        return new Price(BigDecimal.valueOf(baseCents[type.ordinal()], 2));
+    }
+
+    /**
+     * Gets the current fare of a class.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return The fare
+     */
+    public Price quote(ProductClassTypes type) {
+        return new Price(BigDecimal.valueOf(quoteCents(type), 2));
+    }
+
+    /**
+     * Gets the current fare of a class, in cents.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return The fare in cents
+     */
+    public long quoteCents(ProductClassTypes type) {
+        final int index = type.ordinal();
+        final Fare fare = fares.get(index);
+        if (capacity[index] == 0) {
+            return fare.fillCents;
+        }
+        final LocalDateTime now = ApplicationClock.coarseNow();
+        final double pace = Math.min(VELOCITY_CAP, fare.decayedVelocity(now) / capacity[index]);
+        final long cents = Math.round(fare.fillCents * (1 + pace) * departureFactor(now));
+        return Math.min(cents, Math.round(baseCents[index] * MAXIMUM_FACTOR));
+    }
+
+    private double departureFactor(LocalDateTime now) {
+        final long hours = Duration.between(now, departureDateTime).toHours();
+        int step = 0;
+        while (step < DEPARTURE_STEP_HOURS.length && hours < DEPARTURE_STEP_HOURS[step]) {
+            step += 1;
+        }
+        return DEPARTURE_FACTORS[step];
+    }
+
+    /**
+     * Gets the number of seats of a class reserved.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return The number of seats
+     */
+    public synchronized int getReserved(ProductClassTypes type) {
+        return reserved[type.ordinal()];
+    }
+
+    /**
+     * Records that a seat of a class was reserved, and reprices the class.
+     *
+     * @param type The {@link ProductClassTypes}
+     */
+    synchronized void reserved(ProductClassTypes type) {
+        final int index = type.ordinal();
+        final LocalDateTime now = ApplicationClock.coarseNow();
+        reserved[index] += 1;
+        reprice(index, fares.get(index).decayedVelocity(now) + 1, now);
+    }
+
+    /**
+     * Records that a seat of a class was released, and reprices the class.
+     *
+     * @param type The {@link ProductClassTypes}
+     */
+    synchronized void released(ProductClassTypes type) {
+        final int index = type.ordinal();
+        final Fare fare = fares.get(index);
+        reserved[index] = Math.max(0, reserved[index] - 1);
+        reprice(index, fare.velocity, fare.velocityUpdated);
+    }
+
+    /**
+     * Works out the fill part of a fare and keeps it with the velocity. Must
+     * be called while holding the lock of this engine.
+     */
+    private void reprice(int index, double velocity, LocalDateTime velocityUpdated) {
+        long fillCents = baseCents[index];
+        if (capacity[index] != 0) {
+            final double fill = Math.min(1, (double) reserved[index] / capacity[index]);
+            fillCents = Math.round(baseCents[index] * (1 + FILL_WEIGHT * fill * fill));
+        }
+        fares.set(index, new Fare(fillCents, velocity, velocityUpdated));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "FareEngine{" + "departureDateTime=" + departureDateTime + ", reserved=" + Arrays.toString(reserved) + ", fares=" + fares + '}';
+    }
+
+}
@@ -23,17 +23,24 @@
  */
 package assignment;
 
-import static assignment.GeneralUtils.dateFromLocalDateTime;
 import static assignment.GeneralUtils.println;
 import static assignment.GeneralUtils.requireNotEmpty;
 import static assignment.ProductClassTypes.ECONOMY;
 import static assignment.ProductClassTypes.FIRST;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
 import static java.util.Objects.requireNonNull;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -43,6 +50,8 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class Flight extends AccountableObject implements Serializable {
 
+    private static final LatencyHistogram DEPARTURE_LATENCY = Metrics.histogram("flight.departure");
+
     private final String flightNumber;
     private final Airline airline;
     private final Aircraft aircraft;
@@ -50,50 +59,134 @@ public class Flight extends AccountableObject implements Serializable {
     private final LocalDateTime arrivalDateTime;
     private final Airport from;
     private final Airport to;
+    private final Route route;
     private final Duration duration;
     private final Price firstClassPrice;
     private final Price economyClassPrice;
     private final AtomicReference<FlightStatusTypes> status;
     private final Seats seats;
+    private final Bookings bookings;
+    private final MealInventory mealInventory;
+    private final FareEngine fares;
+    private final AtomicIntegerArray authorised;
+    private final Waitlist waitlist;
+    private volatile CateringManifest cateringManifest;
     private int nextSeatNumber;
 
-    private class DepartureTask extends TimerTask {
+    /**
+     * The totals of the closed and no show bookings moved to the booking
+     * archive, guarded by the lock of the bookings, kept for the
+     * {@link FlightArchive}.
+     */
+    private int closedBookingCount;
+    private long closedPriceCents;
+    private long closedCostsCents;
+    private long closedProfitCents;
+
+    /**
+     * A task scheduled for this flight, so that the tasks of a discarded
+     * flight can be cancelled.
+     */
+    private abstract class FlightTask implements Runnable {
+
+        final Flight getFlight() {
+            return Flight.this;
+        }
+
+    }
+
+    private class DepartureTask extends FlightTask {
 
         @Override
         public void run() {
+            final long start = System.nanoTime();
+            final Object event = DomainEvents.beginFlightTask();
             println("DEPARTURE: " + flightNumber);
-            airline.getBookings().confirmed().filter(b -> b.getFlight().getFlightNumber().equals(flightNumber)).stream().forEach(b -> b.setStatus(BookingStatusTypes.ClOSED));
-            status.set(FlightStatusTypes.DEPARTED);
+            List<Booking> closing = bookings.confirmed();
+            cateringManifest = mealInventory.getManifest(Flight.this);
+            int closed = 0;
+            for (Booking booking : closing) {
+                // a booking never given a seat was not checked in, and one
+                // cancelled meanwhile is left cancelled
+                if (booking.settle(booking.isSeated() ? BookingStatusTypes.ClOSED : BookingStatusTypes.NO_SHOW)) {
+                    closed += 1;
+                }
+            }
+            archiveBookings(b -> b.getStatus() != BookingStatusTypes.CONFIRMED);
+            changeStatus(FlightStatusTypes.DEPARTED);
+            waitlist.close();
+            DomainEvents.commitFlightTask(event, Flight.this, "DEPARTURE", closed);
+            DEPARTURE_LATENCY.recordSince(start);
         }
 
     }
 
-    private class ArrivalTask extends TimerTask {
+    private class ArrivalTask extends FlightTask {
 
         @Override
         public void run() {
+            final Object event = DomainEvents.beginFlightTask();
             println("ARRIVAL: " + flightNumber);
-            status.set(FlightStatusTypes.CLOSED);
+            changeStatus(FlightStatusTypes.CLOSED);
+            DomainEvents.commitFlightTask(event, Flight.this, "ARRIVAL", 0);
+            archiveTask(arrivalDateTime);
+        }
+
+    }
+
+    private class ArchiveTask extends FlightTask {
+
+        @Override
+        public void run() {
+            println("ARCHIVE: " + flightNumber);
+            airline.archiveFlight(Flight.this);
         }
 
     }
 
     private void departureTask(LocalDateTime departureDateTime) {
-        // creating timer task, timer
-        TimerTask tasknew = new DepartureTask();
-        // daemonized timer
-        Timer timer = new Timer(true);
-        // scheduling the task
-        timer.schedule(tasknew, dateFromLocalDateTime(departureDateTime));
+        // scheduling the task against the application clock
+        ApplicationClock.schedule(departureDateTime, new DepartureTask());
     }
 
     private void arrivalTask(LocalDateTime arrivalDateTime) {
-        // creating timer task, timer
-        TimerTask tasknew = new ArrivalTask();
-        // daemonized timer
-        Timer timer = new Timer(true);
-        // scheduling the task
-        timer.schedule(tasknew, dateFromLocalDateTime(arrivalDateTime));
+        // scheduling the task against the application clock
+        ApplicationClock.schedule(arrivalDateTime, new ArrivalTask());
+    }
+
+    private void archiveTask(LocalDateTime arrivalDateTime) {
+        // scheduling the task against the application clock
+        ApplicationClock.schedule(arrivalDateTime.plus(FlightArchive.RETENTION), new ArchiveTask());
+    }
+
+    /**
+     * Cancels the departure, arrival and archive tasks still scheduled for
+     * flights that are being discarded.
+     *
+     * @param flights The discarded flights
+     * @return The number of tasks cancelled
+     */
+    static int cancelTasks(Collection<? extends Flight> flights) {
+        final Set<Flight> discarded = Collections.newSetFromMap(new IdentityHashMap<>());
+        discarded.addAll(flights);
+        return ApplicationClock.cancel(task -> task instanceof FlightTask && discarded.contains(((FlightTask) task).getFlight()));
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (ReplicaFollower.isReplica()) {
+            // a replica follows the status changes of the publisher instead
+            return;
+        }
+        // scheduled tasks stay behind when a flight moves to another process
+        if (status.get() == FlightStatusTypes.OPEN) {
+            departureTask(departureDateTime);
+        }
+        if (status.get() != FlightStatusTypes.CLOSED) {
+            arrivalTask(arrivalDateTime);
+        } else {
+            archiveTask(arrivalDateTime);
+        }
     }
 
     /**
@@ -110,21 +203,51 @@ public class Flight extends AccountableObject implements Serializable {
      * @param economyClassPrice The price of an economy class seat
      */
     public Flight(String flightNumber, Airline airline, Aircraft aircraft, LocalDateTime departureDateTime, Airport from, Airport to, Duration duration, Price firstClassPrice, Price economyClassPrice) {
+        this(newId(), flightNumber, airline, aircraft, departureDateTime, from, to, duration, firstClassPrice, economyClassPrice);
+    }
+
+    /**
+     * Allocates a <code>Flight</code> object with a given id, for the copy of
+     * a flight of another process.
+     *
+     * @param id The id of the flight
+     * @param flightNumber The flight number
+     * @param airline The airline
+     * @param aircraft The aircraft
+     * @param departureDateTime The departure date and time
+     * @param from The departure airport
+     * @param to the arrival airport
+     * @param duration The duration of the flight
+     * @param firstClassPrice The price of a first class seat
+     * @param economyClassPrice The price of an economy class seat
+     */
+    Flight(UUID id, String flightNumber, Airline airline, Aircraft aircraft, LocalDateTime departureDateTime, Airport from, Airport to, Duration duration, Price firstClassPrice, Price economyClassPrice) {
+        super(getNobodyId(), id);
         this.flightNumber = requireNotEmpty(flightNumber);
         this.airline = requireNonNull(airline);
         this.aircraft = requireNonNull(aircraft);
         this.departureDateTime = requireNonNull(departureDateTime);
         this.from = requireNonNull(from);
         this.to = requireNonNull(to);
+        this.route = new Route(from, to);
         this.duration = requireNonNull(duration);
         this.arrivalDateTime = departureDateTime.plus(duration);
         this.firstClassPrice = requireNonNull(firstClassPrice);
         this.economyClassPrice = requireNonNull(economyClassPrice);
         this.seats = new Seats();
+        this.bookings = new Bookings();
+        this.mealInventory = new MealInventory(aircraft.getFirstClassSeatCount() + aircraft.getEconomyClassSeatCount());
+        this.fares = new FareEngine(departureDateTime, firstClassPrice, aircraft.getFirstClassSeatCount(), economyClassPrice, aircraft.getEconomyClassSeatCount());
+        this.authorised = new AtomicIntegerArray(ProductClassTypes.values().length);
+        this.waitlist = new Waitlist(this);
         nextSeatNumber = 1;
         addSeats(FIRST, aircraft.getFirstClassSeatCount());
         addSeats(ECONOMY, aircraft.getEconomyClassSeatCount());
         this.status = new AtomicReference<>(FlightStatusTypes.OPEN);
+        if (ReplicaFollower.isReplica()) {
+            // a replica follows the status changes of the publisher instead
+            return;
+        }
         departureTask(departureDateTime);
         arrivalTask(arrivalDateTime);
     }
@@ -197,6 +320,15 @@ public class Flight extends AccountableObject implements Serializable {
         return to;
     }
 
+    /**
+     * Get the route flown, from the departure airport to the arrival airport.
+     *
+     * @return The {@link Route}
+     */
+    public Route getRoute() {
+        return route;
+    }
+
     /**
      * Get the duration of the flight.
      *
@@ -207,7 +339,8 @@ public class Flight extends AccountableObject implements Serializable {
     }
 
     /**
-     * Get the price of a first class seat.
+     * Get the base fare of a first class seat, which the fare is worked out
+     * from.
      *
      * @return The price
      */
@@ -216,7 +349,8 @@ public class Flight extends AccountableObject implements Serializable {
     }
 
     /**
-     * Get the price of an economy class seat.
+     * Get the base fare of an economy class seat, which the fare is worked out
+     * from.
      *
      * @return The price
      */
@@ -224,6 +358,23 @@ public class Flight extends AccountableObject implements Serializable {
         return economyClassPrice;
     }
 
+    /**
+     * Get the current fare of a seat of the supplied class, from the
+     * {@link FareEngine}.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return The price
+     */
+    public Price getPrice(ProductClassTypes type) {
+        switch (requireNonNull(type)) {
+            case FIRST:
+            case ECONOMY:
+                return fares.quote(type);
+            default:
+                throw new RuntimeException("missing ProductClassTypes");
+        }
+    }
+
     /**
      * Get the current status of the flight.
      *
@@ -242,16 +393,420 @@ public class Flight extends AccountableObject implements Serializable {
         return seats;
     }
 
+    /**
+     * Gets the airline operating the flight.
+     *
+     * @return The airline
+     */
+    public final Airline getAirline() {
+        return airline;
+    }
+
+    /**
+     * Gets the bookings made on this flight. Each flight holds its own
+     * bookings, so booking different flights does not contend for one lock.
+     *
+     * @return The bookings
+     */
+    public final Bookings getBookings() {
+        return bookings;
+    }
+
+    /**
+     * Gets the meals the flight is catered with.
+     *
+     * @return The {@link MealInventory}
+     */
+    public final MealInventory getMealInventory() {
+        return mealInventory;
+    }
+
+    /**
+     * Get the quote of the fare and seats available of the supplied class,
+     * from the {@link QuoteCache}. For searches and listings; bookings are made
+     * at {@link #getPrice(ProductClassTypes)}.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return The {@link Quote}
+     */
+    public Quote getQuote(ProductClassTypes type) {
+        return QuoteCache.get(this, type);
+    }
+
+    /**
+     * Gets the passengers waiting for a seat on this flight.
+     *
+     * @return The {@link Waitlist}
+     */
+    public final Waitlist getWaitlist() {
+        return waitlist;
+    }
+
+    /**
+     * Gets the engine that prices the flight's seats.
+     *
+     * @return The {@link FareEngine}
+     */
+    public final FareEngine getFareEngine() {
+        return fares;
+    }
+
+    /**
+     * Gets the number of bookings of a class that may be authorised, the
+     * number of seats of the class raised by {@link Overbooking}.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return The authorisation limit
+     */
+    public final int getAuthorisationLimit(ProductClassTypes type) {
+        return Overbooking.getLimit(getSeatCount(type));
+    }
+
+    /**
+     * Gets the number of bookings of a class authorised and not cancelled or
+     * bumped.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return The number of bookings
+     */
+    public final int getAuthorised(ProductClassTypes type) {
+        return authorised.get(type.ordinal());
+    }
+
+    /**
+     * Gets the number of bookings of a class that may still be authorised.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return The number of bookings
+     */
+    public final int getAvailable(ProductClassTypes type) {
+        return Math.max(0, getAuthorisationLimit(type) - getAuthorised(type));
+    }
+
+    private int getSeatCount(ProductClassTypes type) {
+        switch (requireNonNull(type)) {
+            case FIRST:
+                return aircraft.getFirstClassSeatCount();
+            case ECONOMY:
+                return aircraft.getEconomyClassSeatCount();
+            default:
+                throw new RuntimeException("missing ProductClassTypes");
+        }
+    }
+
+    /**
+     * Atomically authorises a booking of a class if the class is below its
+     * authorisation limit, and reprices the class. The limit is checked with
+     * a single increment, so concurrent bookings never take the class over it.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return {@code true} if the booking is authorised, otherwise
+     * {@code false}
+     */
+    final boolean authorise(ProductClassTypes type) {
+        final int index = type.ordinal();
+        // a replica follows the bookings the publisher authorised
+        if (authorised.incrementAndGet(index) > getAuthorisationLimit(type) && !ReplicaFollower.isReplica()) {
+            authorised.decrementAndGet(index);
+            return false;
+        }
+        fares.reserved(type);
+        QuoteCache.invalidate(this, type);
+        return true;
+    }
+
+    /**
+     * Releases the authorisation of a booking of a class, and reprices the
+     * class. The waitlist is not told, as a booking that is rolled back never
+     * freed a place; see {@link Booking#release()}.
+     *
+     * @param type The {@link ProductClassTypes}
+     */
+    final void deauthorise(ProductClassTypes type) {
+        authorised.decrementAndGet(type.ordinal());
+        fares.released(type);
+        QuoteCache.invalidate(this, type);
+    }
+
+    /**
+     * Makes a booking of a class on the first available seat, or while
+     * {@link Overbooking} is on, without a seat until check-in. The booking is
+     * not added to the flight's bookings.
+     *
+     * @param passenger The {@link Passenger}
+     * @param type The {@link ProductClassTypes}
+     * @param meal The {@link Meal}
+     * @return The {@link Booking}
+     * @throws IllegalStateException if the class is fully booked or the meal
+     * is sold out
+     */
+    final Booking book(Passenger passenger, ProductClassTypes type, Meal meal) {
+        while (true) {
+            // seated at check-in while overbooking, so no shows free seats
+            Seat seat = Overbooking.isEnabled() ? null : seats.getFirstAvailable(type);
+            if (seat == null) {
+                return new Booking(this, passenger, type, meal);
+            }
+            try {
+                return new Booking(this, passenger, seat, meal);
+            } catch (IllegalArgumentException ex) {
+                // Reserved by another booking desk, try the next seat
+            }
+        }
+    }
+
+    /**
+     * Atomically reserves a seat of this flight if it is available.
+     *
+     * @param seat The {@link Seat}
+     * @return {@code true} if the seat was available and is now reserved,
+     * otherwise {@code false}
+     */
+    public final boolean reserveSeat(Seat seat) {
+        return seat.reserve();
+    }
+
+    /**
+     * Atomically releases a seat of this flight if it is reserved.
+     *
+     * @param seat The {@link Seat}
+     * @return {@code true} if the seat was reserved and is now available,
+     * otherwise {@code false}
+     */
+    public final boolean releaseSeat(Seat seat) {
+        return seat.release();
+    }
+
+    /**
+     * Checks in a confirmed booking made on this flight, giving it the first
+     * available seat of its class if it has none. If no seat is left, the
+     * booking is bumped, moved to the airline's {@link BookingArchive} and
+     * added to the airline's bumped passengers.
+     *
+     * @param booking The {@link Booking}
+     * @return {@code true} if the booking has a seat, {@code false} if it was
+     * bumped
+     * @throws IllegalArgumentException if the booking is for another flight
+     * @throws IllegalStateException if the flight is not open or the booking
+     * is not confirmed
+     */
+    public final boolean checkIn(Booking booking) {
+        if (requireNonNull(booking).getFlight() != this) {
+            throw new IllegalArgumentException("booking is for another flight");
+        }
+        if (status.get() != FlightStatusTypes.OPEN) {
+            throw new IllegalStateException("flight is not open: " + flightNumber);
+        }
+        if (booking.getStatus() != BookingStatusTypes.CONFIRMED) {
+            throw new IllegalStateException("booking is not confirmed: " + booking.getStatus());
+        }
+        while (!booking.isSeated()) {
+            Seat seat = seats.getFirstAvailable(booking.getType());
+            if (seat == null) {
+                bumpBooking(booking);
+                return false;
+            }
+            if (seat.reserve()) {
+                if (booking.assignSeat(seat)) {
+                    seatAssigned(booking);
+                } else {
+                    // checked in at another desk meanwhile
+                    seat.release();
+                }
+            }
+        }
+        return true;
+    }
+
+    private void seatAssigned(Booking booking) {
+        synchronized (bookings.getMutex()) {
+            int index = bookings.indexOf(booking);
+            if (index >= 0) {
+                ReplicationPublisher.bookingSeated(booking, index, bookings.getChangeCount());
+            }
+        }
+        booking.setModified();
+    }
+
+    /**
+     * Bumps a confirmed booking made on this flight, moves it to the airline's
+     * {@link BookingArchive} and adds it to the airline's bumped passengers.
+     *
+     * @param booking The {@link Booking}
+     * @return {@code true} if the booking was bumped, {@code false} if it was
+     * not confirmed
+     */
+    final boolean bumpBooking(Booking booking) {
+        if (!booking.bump()) {
+            return false;
+        }
+        archiveBookings(b -> b == booking);
+        return true;
+    }
+
+    /**
+     * Gets the catering manifest made when the flight departed, or makes one
+     * from the current bookings if it has not departed yet.
+     *
+     * @return The {@link CateringManifest}
+     */
+    public final CateringManifest getCateringManifest() {
+        final CateringManifest manifest = cateringManifest;
+        return manifest != null ? manifest : mealInventory.getManifest(this);
+    }
+
+    /**
+     * Adds a booking made on this flight, locking only this flight's bookings.
+     *
+     * @param booking The {@link Booking}
+     * @throws IllegalArgumentException if the booking is for another flight
+     */
+    public final void addBooking(Booking booking) {
+        if (requireNonNull(booking).getFlight() != this) {
+            throw new IllegalArgumentException("booking is for another flight");
+        }
+        synchronized (bookings.getMutex()) {
+            bookings.add(booking);
+            ReplicationPublisher.bookingAdded(booking, bookings.size() - 1, bookings.getChangeCount());
+        }
+    }
+
+    /**
+     * Cancels a confirmed booking made on this flight, releasing its seat, and
+     * moves it to the airline's {@link BookingArchive}.
+     *
+     * @param booking The {@link Booking}
+     * @return {@code true} if the booking was cancelled, {@code false} if it
+     * was not confirmed
+     * @throws IllegalArgumentException if the booking is for another flight
+     */
+    public final boolean cancelBooking(Booking booking) {
+        if (requireNonNull(booking).getFlight() != this) {
+            throw new IllegalArgumentException("booking is for another flight");
+        }
+        if (!booking.cancel()) {
+            return false;
+        }
+        archiveBookings(b -> b == booking);
+        return true;
+    }
+
+    /**
+     * Moves the bookings that match the predicate from this flight's bookings
+     * to the airline's {@link BookingArchive}.
+     *
+     * @param predicate The predicate
+     * @return The number of bookings archived
+     */
+    public final int archiveBookings(Predicate<? super Booking> predicate) {
+        int count = 0;
+        synchronized (bookings.getMutex()) {
+            // from the end, so the positions still to be checked do not move
+            for (int index = bookings.size() - 1; index >= 0; index--) {
+                if (predicate.test(bookings.get(index))) {
+                    archiveBookingAt(index);
+                    count += 1;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Moves the booking at a position of this flight's bookings to the
+     * airline's {@link BookingArchive}.
+     *
+     * @param index The position of the booking
+     */
+    final void archiveBookingAt(int index) {
+        synchronized (bookings.getMutex()) {
+            ArchivedBooking archived = new ArchivedBooking(bookings.remove(index));
+            ReplicationPublisher.bookingArchived(this, index, bookings.getChangeCount(), archived);
+            if (airline.getBookingArchive().add(archived)) {
+                if (archived.getStatus() == BookingStatusTypes.BUMPED) {
+                    airline.getBumped().add(archived);
+                }
+                if (archived.getStatus().isRevenue()) {
+                    closedBookingCount += 1;
+                    closedPriceCents += archived.getPriceCents();
+                    closedCostsCents += archived.getCostsCents();
+                    closedProfitCents += archived.getProfitCents();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of closed bookings moved to the booking archive.
+     *
+     * @return The number of bookings
+     */
+    final int getClosedBookingCount() {
+        synchronized (bookings.getMutex()) {
+            return closedBookingCount;
+        }
+    }
+
+    /**
+     * Gets the total price of the closed bookings moved to the booking
+     * archive, in cents.
+     *
+     * @return The price in cents
+     */
+    final long getClosedPriceCents() {
+        synchronized (bookings.getMutex()) {
+            return closedPriceCents;
+        }
+    }
+
+    /**
+     * Gets the operating costs of the closed bookings moved to the booking
+     * archive, in cents.
+     *
+     * @return The costs in cents
+     */
+    final long getClosedCostsCents() {
+        synchronized (bookings.getMutex()) {
+            return closedCostsCents;
+        }
+    }
+
+    /**
+     * Gets the operating profit of the closed bookings moved to the booking
+     * archive, in cents.
+     *
+     * @return The profit in cents
+     */
+    final long getClosedProfitCents() {
+        synchronized (bookings.getMutex()) {
+            return closedProfitCents;
+        }
+    }
+
     /**
      * Set the current flight status.
      *
      * @param status The {@link FlightStatusTypes}
      */
     public void setStatus(FlightStatusTypes status) {
-        this.status.set(requireNonNull(status));
+        changeStatus(requireNonNull(status));
         setModified();
     }
 
+    /**
+     * Sets the status and records the change.
+     *
+     * @param status The new status
+     */
+    private void changeStatus(FlightStatusTypes status) {
+        FlightStatusTypes previous = this.status.getAndSet(status);
+        if (previous != status) {
+            QuoteCache.invalidate(this);
+            DomainEvents.flightStatus(this, previous, status);
+            ReplicationPublisher.flightStatus(this, status);
+        }
+    }
+
     /**
      * Prints this object.
      */
@@ -265,8 +820,12 @@ public class Flight extends AccountableObject implements Serializable {
         println("Flight To: " + to.getName());
         println("Flight Departs: " + departureDateTime);
         println("Flight Arrives: " + arrivalDateTime);
-        println("Flight First class available: " + seats.getFirstClassSeatsAvailable().size() + " @ " + firstClassPrice.getValue());
-        println("Flight Economy class seats available: " + seats.getEconomyClassSeatsAvailable().size() + " @ " + economyClassPrice.getValue());
+        Quote first = getQuote(FIRST);
+        Quote economy = getQuote(ECONOMY);
+        println("Flight First class available: " + first.getSeatsAvailable() + " @ " + first.getFare().getValue());
+        println("Flight Economy class seats available: " + economy.getSeatsAvailable() + " @ " + economy.getFare().getValue());
+        println("Flight Bookings authorised: first " + getAuthorised(FIRST) + " of " + getAuthorisationLimit(FIRST)
+                + ", economy " + getAuthorised(ECONOMY) + " of " + getAuthorisationLimit(ECONOMY));
     }
 
     @Override
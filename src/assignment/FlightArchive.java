@@ -0,0 +1,354 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import static assignment.GeneralUtils.printlnLineSpaced;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.UUID;
+
+/**
+ * The closed flights of an airline, moved out of its {@link Flights} once
+ * they have been closed for the retention period, so that the flights held in
+ * memory are only those still on the schedule.
+ *
+ * <p>
+ * Flights are stored by column, one array per field, rather than as objects,
+ * so a revenue query over a period scans only the departure column and the
+ * column being summed. Rows are read back as {@link ArchivedFlight} objects.
+ *
+ * @author Graham Fairweather
+ */
+public class FlightArchive implements Serializable {
+
+    /**
+     * How long a flight is kept with the other flights after it closes, set
+     * in hours by the {@code assignment.archive.retentionHours} property.
+     */
+    public static final Duration RETENTION = Duration.ofHours(Integer.getInteger("assignment.archive.retentionHours", 24));
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<UUID, Integer> rows = new HashMap<>();
+    private final Map<String, Integer> latestRows = new HashMap<>();
+    private int size;
+    private UUID[] ids = new UUID[INITIAL_CAPACITY];
+    private String[] flightNumbers = new String[INITIAL_CAPACITY];
+    private String[] aircraftNames = new String[INITIAL_CAPACITY];
+    private String[] fromNames = new String[INITIAL_CAPACITY];
+    private String[] toNames = new String[INITIAL_CAPACITY];
+    private long[] departures = new long[INITIAL_CAPACITY];
+    private long[] durations = new long[INITIAL_CAPACITY];
+    private int[] seatCounts = new int[INITIAL_CAPACITY];
+    private int[] bookingCounts = new int[INITIAL_CAPACITY];
+    private long[] priceCents = new long[INITIAL_CAPACITY];
+    private long[] costsCents = new long[INITIAL_CAPACITY];
+    private long[] profitCents = new long[INITIAL_CAPACITY];
+
+    /**
+     * Archives a closed flight, unless a flight with the same id is already
+     * archived. A flight number may be archived many times, once for each day
+     * it flew.
+     *
+     * @param flight The {@link ArchivedFlight}
+     * @return {@code true} if the flight was archived, otherwise
+     * {@code false}
+     */
+    public synchronized boolean add(ArchivedFlight flight) {
+        if (rows.putIfAbsent(requireNonNull(flight).getId(), size) != null) {
+            return false;
+        }
+        latestRows.put(flight.getFlightNumber(), size);
+        if (size == ids.length) {
+            grow();
+        }
+        ids[size] = flight.getId();
+        flightNumbers[size] = flight.getFlightNumber();
+        aircraftNames[size] = flight.getAircraftName();
+        fromNames[size] = flight.getFromName();
+        toNames[size] = flight.getToName();
+        departures[size] = toSecond(flight.getDepartureDateTime());
+        durations[size] = flight.getDuration().getSeconds();
+        seatCounts[size] = flight.getSeatCount();
+        bookingCounts[size] = flight.getBookingCount();
+        priceCents[size] = flight.getPriceCents();
+        costsCents[size] = flight.getCostsCents();
+        profitCents[size] = flight.getProfitCents();
+        size += 1;
+        return true;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        flightNumbers = Arrays.copyOf(flightNumbers, capacity);
+        aircraftNames = Arrays.copyOf(aircraftNames, capacity);
+        fromNames = Arrays.copyOf(fromNames, capacity);
+        toNames = Arrays.copyOf(toNames, capacity);
+        departures = Arrays.copyOf(departures, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+        seatCounts = Arrays.copyOf(seatCounts, capacity);
+        bookingCounts = Arrays.copyOf(bookingCounts, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        costsCents = Arrays.copyOf(costsCents, capacity);
+        profitCents = Arrays.copyOf(profitCents, capacity);
+    }
+
+    private static long toSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Gets the number of archived flights.
+     *
+     * @return The number of flights
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Tests if a flight is archived.
+     *
+     * @param id The id of the flight
+     * @return {@code true} if the flight is archived, otherwise {@code false}
+     */
+    public synchronized boolean contains(UUID id) {
+        return rows.containsKey(id);
+    }
+
+    /**
+     * Tests if a flight with a flight number is archived.
+     *
+     * @param flightNumber The flight number
+     * @return {@code true} if a flight with the flight number is archived,
+     * otherwise {@code false}
+     */
+    public synchronized boolean contains(String flightNumber) {
+        return latestRows.containsKey(flightNumber);
+    }
+
+    /**
+     * Gets the archived flight with a flight number archived last.
+     *
+     * @param flightNumber The flight number
+     * @return The {@link ArchivedFlight}, or {@code null} if not archived
+     */
+    public synchronized ArchivedFlight getByFlightNumber(String flightNumber) {
+        Integer row = latestRows.get(flightNumber);
+        return row == null ? null : get(row);
+    }
+
+    /**
+     * Gets the archived flight at a row.
+     *
+     * @param row The row, in the order the flights were archived
+     * @return The {@link ArchivedFlight}
+     * @throws IndexOutOfBoundsException if there is no such row
+     */
+    public synchronized ArchivedFlight get(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row: " + row + ", size: " + size);
+        }
+        return new ArchivedFlight(ids[row], flightNumbers[row], aircraftNames[row], fromNames[row], toNames[row],
+                LocalDateTime.ofEpochSecond(departures[row], 0, ZoneOffset.UTC),
+                Duration.ofSeconds(durations[row]),
+                seatCounts[row], bookingCounts[row], priceCents[row], costsCents[row], profitCents[row]);
+    }
+
+    /**
+     * Counts the archived flights that departed within a period.
+     *
+     * @param from The start of the period, inclusive
+     * @param to The end of the period, exclusive
+     * @return The number of flights
+     */
+    public synchronized int count(LocalDateTime from, LocalDateTime to) {
+        final long first = toSecond(from);
+        final long last = toSecond(to);
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (departures[row] >= first && departures[row] < last) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the closed bookings of the archived flights that departed within
+     * a period.
+     *
+     * @param from The start of the period, inclusive
+     * @param to The end of the period, exclusive
+     * @return The number of bookings
+     */
+    public synchronized long getBookingCount(LocalDateTime from, LocalDateTime to) {
+        final long first = toSecond(from);
+        final long last = toSecond(to);
+        long count = 0;
+        for (int row = 0; row < size; row++) {
+            if (departures[row] >= first && departures[row] < last) {
+                count += bookingCounts[row];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the seats of the archived flights that departed within a period.
+     *
+     * @param from The start of the period, inclusive
+     * @param to The end of the period, exclusive
+     * @return The number of seats
+     */
+    public synchronized long getSeatCount(LocalDateTime from, LocalDateTime to) {
+        final long first = toSecond(from);
+        final long last = toSecond(to);
+        long count = 0;
+        for (int row = 0; row < size; row++) {
+            if (departures[row] >= first && departures[row] < last) {
+                count += seatCounts[row];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the total price of the archived flights that departed within a
+     * period.
+     *
+     * @param from The start of the period, inclusive
+     * @param to The end of the period, exclusive
+     * @return The total price
+     */
+    public synchronized Price getPrice(LocalDateTime from, LocalDateTime to) {
+        return sum(priceCents, from, to);
+    }
+
+    /**
+     * Gets the operating costs of the archived flights that departed within a
+     * period.
+     *
+     * @param from The start of the period, inclusive
+     * @param to The end of the period, exclusive
+     * @return The costs
+     */
+    public synchronized Price getCosts(LocalDateTime from, LocalDateTime to) {
+        return sum(costsCents, from, to);
+    }
+
+    /**
+     * Gets the operating profit of the archived flights that departed within a
+     * period.
+     *
+     * @param from The start of the period, inclusive
+     * @param to The end of the period, exclusive
+     * @return The profit
+     */
+    public synchronized Price getProfit(LocalDateTime from, LocalDateTime to) {
+        return sum(profitCents, from, to);
+    }
+
+    /**
+     * Sums a column over the rows that departed within a period. Must be
+     * called while holding the lock of this archive.
+     */
+    private Price sum(long[] column, LocalDateTime from, LocalDateTime to) {
+        final long first = toSecond(from);
+        final long last = toSecond(to);
+        long cents = 0;
+        for (int row = 0; row < size; row++) {
+            if (departures[row] >= first && departures[row] < last) {
+                cents += column[row];
+            }
+        }
+        return new Price(BigDecimal.valueOf(cents, 2));
+    }
+
+    /**
+     * Removes every archived flight.
+     */
+    public synchronized void clear() {
+        rows.clear();
+        latestRows.clear();
+        Arrays.fill(ids, 0, size, null);
+        Arrays.fill(flightNumbers, 0, size, null);
+        Arrays.fill(aircraftNames, 0, size, null);
+        Arrays.fill(fromNames, 0, size, null);
+        Arrays.fill(toNames, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Writes the archive while holding its lock, so that it is not changed
+     * while a snapshot is being taken.
+     *
+     * @param out The stream to write to
+     * @throws IOException if the stream can not be written to
+     */
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+    }
+
+    /**
+     * Prints each archived flight.
+     */
+    public void print() {
+        printlnLineSpaced("List of archived Flights:");
+        final int count = size();
+        for (int row = 0; row < count; row++) {
+            get(row).print();
+            println();
+        }
+    }
+
+    /**
+     * Prints the totals of the archived flights that departed within a
+     * period.
+     *
+     * @param from The start of the period, inclusive
+     * @param to The end of the period, exclusive
+     */
+    public synchronized void printRevenue(LocalDateTime from, LocalDateTime to) {
+        println();
+        println("Archived flights: " + count(from, to));
+        println("Archived bookings: " + getBookingCount(from, to) + " of " + getSeatCount(from, to) + " seats");
+        println("Archived price: " + getPrice(from, to).getValue());
+        println("Archived costs: " + getCosts(from, to).getValue());
+        println("Archived profit: " + getProfit(from, to).getValue());
+        println();
+    }
+
+}
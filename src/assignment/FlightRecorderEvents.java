@@ -0,0 +1,275 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The Java Flight Recorder events behind {@link DomainEvents}. This is the
+ * only class that refers to the flight recorder, and it is only loaded when
+ * the running Java has one.
+ *
+ * @author Graham Fairweather
+ */
+final class FlightRecorderEvents {
+
+    @Name("assignment.Booking")
+    @Label("Booking")
+    @Category({"Airline", "Booking"})
+    @Description("A booking was created and its seat, if any, reserved")
+    static final class BookingEvent extends Event {
+
+        @Label("Flight Number")
+        String flightNumber;
+
+        @Label("Seat Class")
+        String seatClass;
+
+        @Label("Seat Number")
+        int seatNumber;
+
+        @Label("Price")
+        String price;
+    }
+
+    @Name("assignment.SeatStatus")
+    @Label("Seat Status")
+    @Category({"Airline", "Booking"})
+    @Description("A seat was reserved or released")
+    static final class SeatStatusEvent extends Event {
+
+        @Label("Aircraft")
+        String aircraft;
+
+        @Label("Seat Class")
+        String seatClass;
+
+        @Label("Seat Number")
+        int seatNumber;
+
+        @Label("From")
+        String from;
+
+        @Label("To")
+        String to;
+    }
+
+    @Name("assignment.FlightStatus")
+    @Label("Flight Status")
+    @Category({"Airline", "Flight"})
+    @Description("A flight changed status")
+    static final class FlightStatusEvent extends Event {
+
+        @Label("Flight Number")
+        String flightNumber;
+
+        @Label("From")
+        String from;
+
+        @Label("To")
+        String to;
+    }
+
+    @Name("assignment.FlightTask")
+    @Label("Flight Task")
+    @Category({"Airline", "Flight"})
+    @Description("A scheduled departure or arrival ran")
+    static final class FlightTaskEvent extends Event {
+
+        @Label("Flight Number")
+        String flightNumber;
+
+        @Label("Task")
+        String task;
+
+        @Label("Bookings")
+        int bookings;
+    }
+
+    @Name("assignment.ListLock")
+    @Label("List Lock")
+    @Category({"Airline", "Locks"})
+    @Description("A thread waited for the lock of an airline list")
+    @Threshold("1 ms")
+    @StackTrace(true)
+    static final class ListLockEvent extends Event {
+
+        @Label("List")
+        String list;
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Size")
+        int size;
+    }
+
+    private static final int BOOKING = 0;
+    private static final int SEAT_STATUS = 1;
+    private static final int FLIGHT_STATUS = 2;
+    private static final int FLIGHT_TASK = 3;
+    private static final int LIST_LOCK = 4;
+
+    /**
+     * The types of the events, by the indexes above, checked before an event
+     * is allocated, so that nothing is allocated while an event is not
+     * recorded. Resolved on first use rather than when this class is loaded,
+     * as the flight recorder can refuse to register them, which would
+     * otherwise fail every booking with an {@link ExceptionInInitializerError}.
+     */
+    private static volatile EventType[] types;
+
+    /**
+     * Whether the types could not be resolved, in which case no event is ever
+     * recorded.
+     */
+    private static volatile boolean unavailable;
+
+    private static boolean isEnabled(int event) {
+        EventType[] resolved = types;
+        if (resolved == null) {
+            resolved = resolveTypes();
+            if (resolved == null) {
+                return false;
+            }
+        }
+        return resolved[event].isEnabled();
+    }
+
+    private static synchronized EventType[] resolveTypes() {
+        if (types == null && !unavailable) {
+            try {
+                types = new EventType[]{
+                    EventType.getEventType(BookingEvent.class),
+                    EventType.getEventType(SeatStatusEvent.class),
+                    EventType.getEventType(FlightStatusEvent.class),
+                    EventType.getEventType(FlightTaskEvent.class),
+                    EventType.getEventType(ListLockEvent.class)};
+            } catch (RuntimeException | LinkageError ex) {
+                unavailable = true;
+            }
+        }
+        return types;
+    }
+
+    static Object beginBooking() {
+        if (!isEnabled(BOOKING)) {
+            return null;
+        }
+        BookingEvent event = new BookingEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitBooking(Object event, Flight flight, ProductClassTypes type, Seat seat, Price price) {
+        BookingEvent booking = (BookingEvent) event;
+        booking.end();
+        if (booking.shouldCommit()) {
+            booking.flightNumber = flight.getFlightNumber();
+            booking.seatClass = type.name();
+            booking.seatNumber = seat != null ? seat.getSeatNumber() : 0;
+            booking.price = price.getValue();
+            booking.commit();
+        }
+    }
+
+    static void seatStatus(Seat seat, SeatsStatusTypes from, SeatsStatusTypes to) {
+        if (!isEnabled(SEAT_STATUS)) {
+            return;
+        }
+        SeatStatusEvent event = new SeatStatusEvent();
+        if (event.shouldCommit()) {
+            event.aircraft = seat.getAircraft().getName();
+            event.seatClass = seat.getType().name();
+            event.seatNumber = seat.getSeatNumber();
+            event.from = from.name();
+            event.to = to.name();
+            event.commit();
+        }
+    }
+
+    static void flightStatus(Flight flight, FlightStatusTypes from, FlightStatusTypes to) {
+        if (!isEnabled(FLIGHT_STATUS)) {
+            return;
+        }
+        FlightStatusEvent event = new FlightStatusEvent();
+        if (event.shouldCommit()) {
+            event.flightNumber = flight.getFlightNumber();
+            event.from = from.name();
+            event.to = to.name();
+            event.commit();
+        }
+    }
+
+    static Object beginFlightTask() {
+        if (!isEnabled(FLIGHT_TASK)) {
+            return null;
+        }
+        FlightTaskEvent event = new FlightTaskEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitFlightTask(Object event, Flight flight, String task, int bookings) {
+        FlightTaskEvent flightTask = (FlightTaskEvent) event;
+        flightTask.end();
+        if (flightTask.shouldCommit()) {
+            flightTask.flightNumber = flight.getFlightNumber();
+            flightTask.task = task;
+            flightTask.bookings = bookings;
+            flightTask.commit();
+        }
+    }
+
+    static Object beginListLock() {
+        if (!isEnabled(LIST_LOCK)) {
+            return null;
+        }
+        ListLockEvent event = new ListLockEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitListLock(Object event, AbstractNoNullList<?> list, String operation) {
+        ListLockEvent listLock = (ListLockEvent) event;
+        listLock.end();
+        if (listLock.shouldCommit()) {
+            listLock.list = list.getClass().getSimpleName();
+            listLock.operation = operation;
+            listLock.size = list.size();
+            listLock.commit();
+        }
+    }
+
+    private FlightRecorderEvents() {
+    }
+
+}
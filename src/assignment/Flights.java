@@ -26,7 +26,15 @@ package assignment;
 import static assignment.GeneralUtils.printlnLineSpaced;
 import static assignment.GeneralUtils.requireNotEmpty;
 import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import static java.util.Objects.requireNonNull;
+import java.util.TreeMap;
 
 /**
  * Resizable-array implementation of the <tt>List</tt> interface for {@link
@@ -34,11 +42,26 @@ import java.util.Collection;
  * elements, excluding
  * <tt>null</tt>.
  *
+ * <p>
+ * Flights are also indexed by {@link Route}, and in departure order within
+ * each route, so that the flights between two airports in a period of time are
+ * found without scanning the list. The index is built on the first route
+ * query and then kept up to date as flights are added and removed.
+ *
  * @author Graham Fairweather
  * @see AbstractNoNullList
  */
 public class Flights extends AbstractNoNullList<Flight> implements Serializable {
 
+    private static final LatencyHistogram FIND_BY_NUMBER = Metrics.histogram("flights.findByNumber");
+    private static final LatencyHistogram FIND_BY_ROUTE = Metrics.histogram("flights.findByRoute");
+
+    /**
+     * The route index, guarded by the list mutex, {@code null} until first
+     * used.
+     */
+    private transient Map<Route, NavigableMap<LocalDateTime, List<Flight>>> routes;
+
     /**
      * Constructs an empty list with an initial capacity of ten.
      */
@@ -68,14 +91,115 @@ public class Flights extends AbstractNoNullList<Flight> implements Serializable
         super(c);
     }
 
+    @Override
+    protected String getIndexName(Flight flight) {
+        return flight.getFlightNumber();
+    }
+
+    @Override
+    protected void added(Flight flight) {
+        if (routes != null) {
+            index(flight);
+        }
+    }
+
+    @Override
+    protected void removed(Flight flight) {
+        if (routes != null) {
+            NavigableMap<LocalDateTime, List<Flight>> departures = routes.get(flight.getRoute());
+            if (departures != null) {
+                List<Flight> flights = departures.get(flight.getDepartureDateTime());
+                if (flights != null && flights.remove(flight) && flights.isEmpty()) {
+                    departures.remove(flight.getDepartureDateTime());
+                    if (departures.isEmpty()) {
+                        routes.remove(flight.getRoute());
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void cleared() {
+        routes = null;
+    }
+
+    private void index(Flight flight) {
+        routes.computeIfAbsent(flight.getRoute(), route -> new TreeMap<>())
+                .computeIfAbsent(flight.getDepartureDateTime(), departure -> new ArrayList<>(1))
+                .add(flight);
+    }
+
+    /**
+     * Get the route index, building it if this is the first use. Must be
+     * called while holding the list mutex.
+     *
+     * @return The route index
+     */
+    private Map<Route, NavigableMap<LocalDateTime, List<Flight>>> getRoutes() {
+        if (routes == null) {
+            routes = new HashMap<>();
+            for (Flight flight : this) {
+                index(flight);
+            }
+        }
+        return routes;
+    }
+
+    /**
+     * Get a {@code Flights} list of the {@code Flight} objects that fly from
+     * one airport to another, in departure order.
+     *
+     * @param from The departure airport
+     * @param to The arrival airport
+     * @return A {@code Flights} list of {code Flight} objects
+     */
+    public final Flights getByRoute(Airport from, Airport to) {
+        return getByRoute(from, to, LocalDateTime.MIN, LocalDateTime.MAX);
+    }
+
+    /**
+     * Get a {@code Flights} list of the {@code Flight} objects that fly from
+     * one airport to another and depart within a period, in departure order.
+     *
+     * @param from The departure airport
+     * @param to The arrival airport
+     * @param departureFrom The start of the period, inclusive
+     * @param departureTo The end of the period, exclusive
+     * @return A {@code Flights} list of {code Flight} objects
+     */
+    public final Flights getByRoute(Airport from, Airport to, LocalDateTime departureFrom, LocalDateTime departureTo) {
+        final long start = System.nanoTime();
+        final Route route = new Route(from, to);
+        requireNonNull(departureFrom);
+        requireNonNull(departureTo);
+        final List<Flight> found = new ArrayList<>();
+        final Object probe = lockRequested();
+        synchronized (getMutex()) {
+            lockAcquired(probe, "findByRoute");
+            try {
+                NavigableMap<LocalDateTime, List<Flight>> departures = getRoutes().get(route);
+                if (departures != null && departureFrom.isBefore(departureTo)) {
+                    departures.subMap(departureFrom, true, departureTo, false).values().forEach(found::addAll);
+                }
+            } finally {
+                lockReleased(probe);
+            }
+        }
+        FIND_BY_ROUTE.recordSince(start);
+        return new Flights(found);
+    }
+
     /**
      *
      * @param pattern
      * @return A {@code Flight} object or {@code null}
      */
     public final Flight getByFlightNumberIgnoreCase(String pattern) {
-        final String p = requireNotEmpty(pattern).trim().toLowerCase();
-        return find(flight -> flight.getFlightNumber().toLowerCase().startsWith(p));
+        final long start = System.nanoTime();
+        final Flight flight = findByNameIgnoreCase(pattern);
+        FIND_BY_NUMBER.recordSince(start);
+        return flight;
     }
 
     /**
@@ -84,8 +208,11 @@ public class Flights extends AbstractNoNullList<Flight> implements Serializable
      * @return A {@code Flight} object or {@code null}
      */
     public final Flight getByFlightNumber(String pattern) {
+        final long start = System.nanoTime();
         final String p = requireNotEmpty(pattern).trim();
-        return find(flight -> flight.getFlightNumber().startsWith(p));
+        final Flight flight = find(element -> element.getFlightNumber().startsWith(p));
+        FIND_BY_NUMBER.recordSince(start);
+        return flight;
     }
 
     /**
@@ -0,0 +1,200 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import static assignment.GeneralUtils.printlnLineSpaced;
+import static assignment.GeneralUtils.requireElementFound;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A journey of one or more connecting {@link Flight} legs, in a single
+ * {@link ProductClassTypes}, as found by an {@link ItinerarySearch}.
+ *
+ * @author Graham Fairweather
+ */
+public class Itinerary implements Serializable {
+
+    private final List<Flight> legs;
+    private final ProductClassTypes type;
+
+    /**
+     * Allocates an <code>Itinerary</code> object and initialises it.
+     *
+     * @param legs The flights, in the order they are flown
+     * @param type The {@link ProductClassTypes} of the seats
+     * @throws IllegalArgumentException if there are no legs, or a leg does not
+     * depart from the airport where the previous leg arrives
+     */
+    public Itinerary(List<Flight> legs, ProductClassTypes type) {
+        requireNonNull(legs);
+        if (legs.isEmpty()) {
+            throw new IllegalArgumentException("legs can not be empty");
+        }
+        for (int index = 1; index < legs.size(); index++) {
+            if (legs.get(index).getFrom() != legs.get(index - 1).getTo()) {
+                throw new IllegalArgumentException("legs do not connect");
+            }
+        }
+        this.legs = Collections.unmodifiableList(new ArrayList<>(legs));
+        this.type = requireNonNull(type);
+    }
+
+    /**
+     * Gets the flights, in the order they are flown.
+     *
+     * @return An unmodifiable list of the flights
+     */
+    public List<Flight> getLegs() {
+        return legs;
+    }
+
+    /**
+     * Gets the class of the seats.
+     *
+     * @return The {@link ProductClassTypes}
+     */
+    public ProductClassTypes getType() {
+        return type;
+    }
+
+    /**
+     * Get the departure airport of the first leg.
+     *
+     * @return The airport
+     */
+    public Airport getFrom() {
+        return legs.get(0).getFrom();
+    }
+
+    /**
+     * Get the arrival airport of the last leg.
+     *
+     * @return The airport
+     */
+    public Airport getTo() {
+        return legs.get(legs.size() - 1).getTo();
+    }
+
+    /**
+     * Get the departure date and time of the first leg.
+     *
+     * @return The departure date and time
+     */
+    public LocalDateTime getDepartureDateTime() {
+        return legs.get(0).getDepartureDateTime();
+    }
+
+    /**
+     * Get the arrival date and time of the last leg.
+     *
+     * @return The arrival date and time
+     */
+    public LocalDateTime getArrivalDateTime() {
+        return legs.get(legs.size() - 1).getArrivalDate();
+    }
+
+    /**
+     * Get the total journey time, including connections.
+     *
+     * @return The {@link Duration}
+     */
+    public Duration getDuration() {
+        return Duration.between(getDepartureDateTime(), getArrivalDateTime());
+    }
+
+    /**
+     * Get the total price of a seat on every leg.
+     *
+     * @return The price
+     */
+    public Price getPrice() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Flight flight : legs) {
+            total = total.add(flight.getQuote(type).getFare().getBigDecimal());
+        }
+        return new Price(total);
+    }
+
+    /**
+     * Books a seat, without a meal, on every leg for the passenger. Either
+     * every leg is booked and the bookings are added to the airline, or no leg
+     * is booked and the legs already booked are cancelled, freeing their seats
+     * without offering them to the waitlist. While {@link Overbooking} is on,
+     * the legs are seated at check-in.
+     *
+     * @param airline The {@link Airline} operating the flights
+     * @param passenger The {@link Passenger}
+     * @return A {@link Bookings} list of the booking for each leg
+     * @throws IllegalStateException if a leg is not open or is fully booked
+     * @throws ElementNotFoundException if the airline has no "None" meal
+     */
+    public Bookings book(Airline airline, Passenger passenger) {
+        requireNonNull(airline);
+        requireNonNull(passenger);
+        final Meal meal = requireElementFound(airline.getMeals().getNoMeal(type));
+        final Bookings bookings = new Bookings(legs.size());
+        try {
+            for (Flight flight : legs) {
+                bookings.add(bookLeg(flight, passenger, meal));
+            }
+        } catch (RuntimeException ex) {
+            bookings.forEach(Booking::rollback);
+            throw ex;
+        }
+        bookings.forEach(airline::addBooking);
+        return bookings;
+    }
+
+    private Booking bookLeg(Flight flight, Passenger passenger, Meal meal) {
+        if (flight.getStatus() != FlightStatusTypes.OPEN) {
+            throw new IllegalStateException("flight is not open: " + flight.getFlightNumber());
+        }
+        return flight.book(passenger, type, meal);
+    }
+
+    /**
+     * Prints this object.
+     */
+    public void print() {
+        printlnLineSpaced("Itinerary " + getFrom().getName() + " to " + getTo().getName() + ":");
+        legs.forEach(flight -> println("Leg " + flight.getFlightNumber() + ": " + flight.getFrom().getName() + " " + flight.getDepartureDateTime() + " to " + flight.getTo().getName() + " " + flight.getArrivalDate()));
+        println("Itinerary class: " + type);
+        println("Itinerary duration: " + getDuration());
+        println("Itinerary price: " + getPrice().getValue());
+    }
+
+    @Override
+    public String toString() {
+        return "Itinerary{" + "legs=" + legs + ", type=" + type + '}';
+    }
+
+}
@@ -0,0 +1,324 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.ItineraryOptimiseTypes.FASTEST;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.PriorityQueue;
+
+/**
+ * A connection search over a network where each {@link Airport} is a node and
+ * each open {@link Flight} is an edge that can only be taken at its departure
+ * time.
+ *
+ * <p>
+ * The flights are copied on construction into arrays of departures per
+ * airport, sorted by departure time, so that the connections from an arrival
+ * are found by binary search. A search is a label setting (Dijkstra) search
+ * over the flights themselves: a flight can be taken after an earlier flight
+ * that arrives at its departure airport at least the minimum connection time
+ * before it departs, and no more than the maximum connection time before. A
+ * label is kept per flight and number of legs, so that a dearer path with
+ * fewer legs is not lost where a cheaper one runs out of legs.
+ * Seat availability and prices are read when a search reaches a flight, so a
+ * search instance can be reused while bookings are made, but must be rebuilt
+ * to see flights added after it was constructed.
+ *
+ * @author Graham Fairweather
+ */
+public class ItinerarySearch {
+
+    /**
+     * The default shortest time allowed to change flights.
+     */
+    public static final Duration DEFAULT_MINIMUM_CONNECTION = Duration.ofMinutes(45);
+
+    /**
+     * The default longest time allowed to wait for a connecting flight, and
+     * for the first flight after the requested departure time.
+     */
+    public static final Duration DEFAULT_MAXIMUM_CONNECTION = Duration.ofHours(24);
+
+    /**
+     * The default largest number of flights in an itinerary.
+     */
+    public static final int DEFAULT_MAXIMUM_LEGS = 4;
+
+    private static final int[] NO_DEPARTURES = new int[0];
+
+    private final Flight[] flights;
+    private final long[] departures;
+    private final long[] arrivals;
+    private final Map<Airport, int[]> departuresByAirport;
+    private final long minimumConnection;
+    private final long maximumConnection;
+    private final int maximumLegs;
+
+    /**
+     * Allocates an <code>ItinerarySearch</code> object using the default
+     * connection times and number of legs.
+     *
+     * @param flights The flights that make up the network
+     */
+    public ItinerarySearch(Collection<? extends Flight> flights) {
+        this(flights, DEFAULT_MINIMUM_CONNECTION, DEFAULT_MAXIMUM_CONNECTION, DEFAULT_MAXIMUM_LEGS);
+    }
+
+    /**
+     * Allocates an <code>ItinerarySearch</code> object and initialises it.
+     *
+     * @param flights The flights that make up the network
+     * @param minimumConnection The shortest time allowed to change flights
+     * @param maximumConnection The longest time allowed to wait for a flight
+     * @param maximumLegs The largest number of flights in an itinerary
+     */
+    public ItinerarySearch(Collection<? extends Flight> flights, Duration minimumConnection, Duration maximumConnection, int maximumLegs) {
+        this.minimumConnection = requireNonNull(minimumConnection).getSeconds();
+        this.maximumConnection = requireNonNull(maximumConnection).getSeconds();
+        this.maximumLegs = GeneralUtils.requireGreaterOrEqual(maximumLegs, 1);
+        List<Flight> open = new ArrayList<>(requireNonNull(flights));
+        open.removeIf(flight -> flight.getStatus() != FlightStatusTypes.OPEN);
+        Collections.sort(open, Comparator.comparing(Flight::getDepartureDateTime));
+        this.flights = open.toArray(new Flight[open.size()]);
+        this.departures = new long[this.flights.length];
+        this.arrivals = new long[this.flights.length];
+        Map<Airport, List<Integer>> byAirport = new HashMap<>();
+        for (int index = 0; index < this.flights.length; index++) {
+            Flight flight = this.flights[index];
+            departures[index] = seconds(flight.getDepartureDateTime());
+            arrivals[index] = seconds(flight.getArrivalDate());
+            byAirport.computeIfAbsent(flight.getFrom(), airport -> new ArrayList<>()).add(index);
+        }
+        this.departuresByAirport = new HashMap<>();
+        byAirport.forEach((airport, indexes) -> departuresByAirport.put(airport, indexes.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    private static long seconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * A search label, the cost of reaching the arrival of a flight in a number
+     * of legs. The state is the flight index times the largest number of legs,
+     * plus the number of legs less one.
+     */
+    private static final class Label {
+
+        private final int state;
+        private final long primary;
+        private final long secondary;
+
+        Label(int state, long primary, long secondary) {
+            this.state = state;
+            this.primary = primary;
+            this.secondary = secondary;
+        }
+
+    }
+
+    /**
+     * Search for the best itinerary from one airport to another, departing no
+     * earlier than the supplied date and time.
+     *
+     * @param from The departure airport
+     * @param to The arrival airport
+     * @param earliestDeparture The earliest departure date and time of the
+     * first leg
+     * @param type The {@link ProductClassTypes} of the seats, every leg must
+     * have a seat of this class available
+     * @param optimise Whether to find the fastest or cheapest itinerary
+     * @return The {@link Itinerary} or {@code null} if none was found
+     */
+    public Itinerary search(Airport from, Airport to, LocalDateTime earliestDeparture, ProductClassTypes type, ItineraryOptimiseTypes optimise) {
+        requireNonNull(from);
+        requireNonNull(to);
+        requireNonNull(type);
+        final boolean fastest = requireNonNull(optimise) == FASTEST;
+        if (from == to) {
+            throw new IllegalArgumentException("from and to are the same");
+        }
+        final int count = flights.length;
+        final int states = count * maximumLegs;
+        final long[] bestPrimary = new long[states];
+        final long[] bestSecondary = new long[states];
+        final long[] prices = new long[count];
+        final int[] previous = new int[states];
+        final byte[] usable = new byte[count];
+        final boolean[] settled = new boolean[states];
+        Arrays.fill(bestPrimary, Long.MAX_VALUE);
+        Arrays.fill(bestSecondary, Long.MAX_VALUE);
+        Arrays.fill(prices, -1);
+        final PriorityQueue<Label> queue = new PriorityQueue<>((a, b) -> a.primary != b.primary
+                ? Long.compare(a.primary, b.primary) : Long.compare(a.secondary, b.secondary));
+
+        final long earliest = seconds(requireNonNull(earliestDeparture));
+        int[] outbound = departuresByAirport.getOrDefault(from, NO_DEPARTURES);
+        for (int position = lowerBound(outbound, earliest); position < outbound.length; position++) {
+            int next = outbound[position];
+            if (departures[next] > earliest + maximumConnection) {
+                break;
+            }
+            if (isUsable(next, type, from, usable)) {
+                long price = price(next, type, prices);
+                long primary = fastest ? arrivals[next] : price;
+                long secondary = fastest ? price : arrivals[next];
+                relax(next, 1, -1, primary, secondary, bestPrimary, bestSecondary, previous, queue);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            Label label = queue.poll();
+            int state = label.state;
+            if (settled[state] || label.primary != bestPrimary[state] || label.secondary != bestSecondary[state]) {
+                continue;
+            }
+            settled[state] = true;
+            int current = state / maximumLegs;
+            int legCount = state % maximumLegs + 1;
+            Airport at = flights[current].getTo();
+            if (at == to) {
+                return itinerary(state, previous, type);
+            }
+            if (legCount >= maximumLegs) {
+                continue;
+            }
+            long ready = arrivals[current] + minimumConnection;
+            long latest = arrivals[current] + maximumConnection;
+            int[] connections = departuresByAirport.getOrDefault(at, NO_DEPARTURES);
+            for (int position = lowerBound(connections, ready); position < connections.length; position++) {
+                int next = connections[position];
+                if (departures[next] > latest) {
+                    break;
+                }
+                if (!isUsable(next, type, from, usable)) {
+                    continue;
+                }
+                long price = price(next, type, prices);
+                long primary = fastest ? arrivals[next] : label.primary + price;
+                long secondary = fastest ? label.secondary + price : arrivals[next];
+                relax(next, legCount + 1, state, primary, secondary, bestPrimary, bestSecondary, previous, queue);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records a label for reaching the arrival of a flight in a number of
+     * legs, unless it is dominated: some label for the same flight in no more
+     * legs already costs no more. Only one of the two keys varies between the
+     * labels of a flight, the arrival time or the price being fixed by the
+     * flight itself, so comparing them in order is a full Pareto test. A
+     * dearer label that uses fewer legs is kept, as only it may still reach
+     * the destination within the largest number of legs.
+     */
+    private void relax(int next, int legCount, int from, long primary, long secondary, long[] bestPrimary, long[] bestSecondary, int[] previous, PriorityQueue<Label> queue) {
+        final int first = next * maximumLegs;
+        final int state = first + legCount - 1;
+        for (int fewer = first; fewer <= state; fewer++) {
+            if (bestPrimary[fewer] < primary || (bestPrimary[fewer] == primary && bestSecondary[fewer] <= secondary)) {
+                return;
+            }
+        }
+        bestPrimary[state] = primary;
+        bestSecondary[state] = secondary;
+        previous[state] = from;
+        queue.add(new Label(state, primary, secondary));
+    }
+
+    /**
+     * Whether a flight is still open, has a seat of the class available and
+     * does not return to the origin. Worked out once per search and flight.
+     */
+    private boolean isUsable(int index, ProductClassTypes type, Airport origin, byte[] usable) {
+        if (usable[index] == 0) {
+            Flight flight = flights[index];
+            boolean ok = flight.getTo() != origin
+                    && flight.getStatus() == FlightStatusTypes.OPEN
+                    && flight.getQuote(type).getSeatsAvailable() > 0;
+            usable[index] = ok ? (byte) 1 : (byte) 2;
+        }
+        return usable[index] == 1;
+    }
+
+    /**
+     * The price of a seat in whole cents. Worked out once per search and
+     * flight.
+     */
+    private long price(int index, ProductClassTypes type, long[] prices) {
+        if (prices[index] < 0) {
+            prices[index] = flights[index].getQuote(type).getFareCents();
+        }
+        return prices[index];
+    }
+
+    /**
+     * The position of the first departure at or after the supplied time.
+     */
+    private int lowerBound(int[] indexes, long time) {
+        int low = 0;
+        int high = indexes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (departures[indexes[middle]] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Follows the labels back from the last leg to build the itinerary.
+     */
+    private Itinerary itinerary(int last, int[] previous, ProductClassTypes type) {
+        List<Flight> legs = new ArrayList<>();
+        for (int state = last; state >= 0; state = previous[state]) {
+            legs.add(flights[state / maximumLegs]);
+        }
+        Collections.reverse(legs);
+        return new Itinerary(legs, type);
+    }
+
+    /**
+     * Gets the number of flights in the network.
+     *
+     * @return The number of flights
+     */
+    public int size() {
+        return flights.length;
+    }
+
+}
@@ -0,0 +1,320 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.requireElementFound;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import static java.util.Objects.requireNonNull;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * A committed change to the flights or bookings of an airline, as shipped by a
+ * {@link ReplicationPublisher} to its {@link ReplicaFollower}s. Objects are
+ * referred to by airline name, flight id, seat number, position in the
+ * flight's bookings, or id, so that an entry can be applied to a copy of the
+ * airline in another process.
+ *
+ * <p>
+ * Applying an entry whose change the copy already has does nothing, so a
+ * follower can apply the entries made while its snapshot was being taken.
+ * Changes to a flight's bookings carry the change count of the bookings, see
+ * {@link AbstractNoNullList#getChangeCount()}, to tell which changes the copy
+ * already has, as positions only mean something at a given count.
+ *
+ * @author Graham Fairweather
+ */
+public final class JournalEntry implements Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    private final long sequence;
+    private final JournalEntryTypes type;
+    private final String airlineName;
+    private final UUID flightId;
+    private final String flightNumber;
+    private final Serializable[] values;
+
+    private JournalEntry(long sequence, JournalEntryTypes type, Flight flight, Serializable... values) {
+        this.sequence = sequence;
+        this.type = requireNonNull(type);
+        this.airlineName = flight.getAirline().getName();
+        this.flightId = flight.getId();
+        this.flightNumber = flight.getFlightNumber();
+        this.values = values;
+    }
+
+    /**
+     * Records that a flight was added to its airline.
+     *
+     * @param sequence The position of the entry in the journal
+     * @param flight The {@link Flight}
+     * @return The entry
+     */
+    public static JournalEntry flightAdded(long sequence, Flight flight) {
+        return new JournalEntry(sequence, JournalEntryTypes.FLIGHT_ADDED, flight,
+                flight.getAircraft().getId(),
+                flight.getDepartureDateTime(),
+                flight.getFrom().getId(),
+                flight.getTo().getId(),
+                flight.getDuration(),
+                flight.getFirstClassPrice(),
+                flight.getEconomyClassPrice());
+    }
+
+    /**
+     * Records that the status of a flight changed.
+     *
+     * @param sequence The position of the entry in the journal
+     * @param flight The {@link Flight}
+     * @param status The new {@link FlightStatusTypes}
+     * @return The entry
+     */
+    public static JournalEntry flightStatus(long sequence, Flight flight, FlightStatusTypes status) {
+        return new JournalEntry(sequence, JournalEntryTypes.FLIGHT_STATUS, flight, status);
+    }
+
+    /**
+     * Records that a booking was added to its flight.
+     *
+     * @param sequence The position of the entry in the journal
+     * @param booking The {@link Booking}
+     * @param index The position of the booking in the flight's bookings
+     * @param version The change count of the flight's bookings after the add
+     * @return The entry
+     */
+    public static JournalEntry bookingAdded(long sequence, Booking booking, int index, long version) {
+        return new JournalEntry(sequence, JournalEntryTypes.BOOKING_ADDED, booking.getFlight(),
+                index,
+                version,
+                booking.isSeated() ? booking.getSeat().getSeatNumber() : 0,
+                booking.getPassenger().getId(),
+                booking.getMeal().getId(),
+                booking.getFare(),
+                booking.getType());
+    }
+
+    /**
+     * Records that a booking was given a seat at check-in.
+     *
+     * @param sequence The position of the entry in the journal
+     * @param booking The {@link Booking}
+     * @param index The position of the booking in the flight's bookings
+     * @param version The change count of the flight's bookings
+     * @return The entry
+     */
+    public static JournalEntry bookingSeated(long sequence, Booking booking, int index, long version) {
+        return new JournalEntry(sequence, JournalEntryTypes.BOOKING_SEATED, booking.getFlight(), index, version, booking.getSeat().getSeatNumber());
+    }
+
+    /**
+     * Records that the status of a booking changed.
+     *
+     * @param sequence The position of the entry in the journal
+     * @param booking The {@link Booking}
+     * @param index The position of the booking in the flight's bookings
+     * @param version The change count of the flight's bookings
+     * @param status The new {@link BookingStatusTypes}
+     * @return The entry
+     */
+    public static JournalEntry bookingStatus(long sequence, Booking booking, int index, long version, BookingStatusTypes status) {
+        return new JournalEntry(sequence, JournalEntryTypes.BOOKING_STATUS, booking.getFlight(), index, version, status);
+    }
+
+    /**
+     * Records that a booking was moved from its flight to the archive.
+     *
+     * @param sequence The position of the entry in the journal
+     * @param flight The {@link Flight}
+     * @param index The position the booking had in the flight's bookings
+     * @param version The change count of the flight's bookings after the
+     * removal
+     * @param archived The {@link ArchivedBooking} added to the archive
+     * @return The entry
+     */
+    public static JournalEntry bookingArchived(long sequence, Flight flight, int index, long version, ArchivedBooking archived) {
+        return new JournalEntry(sequence, JournalEntryTypes.BOOKING_ARCHIVED, flight, index, version, archived);
+    }
+
+    /**
+     * Records that a closed flight was moved from its airline's flights to
+     * the archive.
+     *
+     * @param sequence The position of the entry in the journal
+     * @param flight The {@link Flight}
+     * @param archived The {@link ArchivedFlight} added to the archive
+     * @return The entry
+     */
+    public static JournalEntry flightArchived(long sequence, Flight flight, ArchivedFlight archived) {
+        return new JournalEntry(sequence, JournalEntryTypes.FLIGHT_ARCHIVED, flight, archived);
+    }
+
+    /**
+     * Gets the position of the entry in the journal.
+     *
+     * @return The sequence number, starting at 1
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the kind of change.
+     *
+     * @return The {@link JournalEntryTypes}
+     */
+    public JournalEntryTypes getType() {
+        return type;
+    }
+
+    /**
+     * Applies the change to copies of the airlines and airports.
+     *
+     * @param airlines The {@link Airlines}
+     * @param airports The {@link Airports}
+     * @throws ElementNotFoundException if an object the entry refers to is
+     * missing
+     */
+    public void apply(Airlines airlines, Airports airports) {
+        final Airline airline = requireElementFound(airlines.getByName(airlineName));
+        if (type == JournalEntryTypes.FLIGHT_ADDED) {
+            if (airline.getFlights().find(this::isFlight) == null && !airline.getFlightArchive().contains(flightId)) {
+                airline.addFlight(new Flight(flightId, flightNumber, airline,
+                        requireElementFound(airline.getAircrafts().find(byId((UUID) values[0]))),
+                        (LocalDateTime) values[1],
+                        requireElementFound(airports.find(byId((UUID) values[2]))),
+                        requireElementFound(airports.find(byId((UUID) values[3]))),
+                        (Duration) values[4],
+                        (Price) values[5],
+                        (Price) values[6]));
+            }
+            return;
+        }
+        final Flight flight = airline.getFlights().find(this::isFlight);
+        if (flight == null) {
+            // the flight was archived before the snapshot's flights were
+            // written, and its FLIGHT_ARCHIVED entry is still to come if the
+            // archive was written before that
+            if (type == JournalEntryTypes.FLIGHT_ARCHIVED) {
+                airline.getFlightArchive().add((ArchivedFlight) values[0]);
+            } else if (type == JournalEntryTypes.BOOKING_ARCHIVED) {
+                airline.getBookingArchive().add((ArchivedBooking) values[2]);
+            }
+            return;
+        }
+        switch (type) {
+            case FLIGHT_STATUS:
+                flight.setStatus((FlightStatusTypes) values[0]);
+                break;
+            case BOOKING_ADDED:
+                if (isNext(flight.getBookings(), (Long) values[1])) {
+                    Passenger passenger = requireElementFound(airline.getPassengers().find(byId((UUID) values[3])));
+                    Meal meal = requireElementFound(airline.getMeals().find(byId((UUID) values[4])));
+                    if ((Integer) values[2] == 0) {
+                        // given a seat at check-in
+                        airline.addBooking(new Booking(flight, passenger, (ProductClassTypes) values[6], meal, (Price) values[5]));
+                    } else {
+                        Seat seat = requireElementFound(flight.getSeats().getSeatBy((Integer) values[2]));
+                        airline.addBooking(new Booking(flight, passenger, seat, meal, (Price) values[5]));
+                    }
+                }
+                break;
+            case BOOKING_STATUS:
+                if (isCurrent(flight.getBookings(), (Long) values[1])) {
+                    Booking booking = flight.getBookings().get((Integer) values[0]);
+                    if (values[2] == BookingStatusTypes.CANCELLED) {
+                        booking.cancel();
+                    } else if (values[2] == BookingStatusTypes.BUMPED) {
+                        booking.bump();
+                    } else {
+                        booking.setStatus((BookingStatusTypes) values[2]);
+                    }
+                }
+                break;
+            case BOOKING_SEATED:
+                if (isCurrent(flight.getBookings(), (Long) values[1])) {
+                    Booking booking = flight.getBookings().get((Integer) values[0]);
+                    Seat seat = requireElementFound(flight.getSeats().getSeatBy((Integer) values[2]));
+                    // the snapshot may already have the seat
+                    if (!booking.isSeated() && flight.reserveSeat(seat)) {
+                        booking.assignSeat(seat);
+                    }
+                }
+                break;
+            case BOOKING_ARCHIVED:
+                if (isNext(flight.getBookings(), (Long) values[1])) {
+                    flight.getBookings().remove((int) (Integer) values[0]);
+                }
+                // the snapshot may have the archive from before the removal
+                airline.getBookingArchive().add((ArchivedBooking) values[2]);
+                break;
+            case FLIGHT_ARCHIVED:
+                airline.getFlights().remove(flight);
+                airline.getFlightArchive().add((ArchivedFlight) values[0]);
+                break;
+            default:
+                throw new RuntimeException("missing JournalEntryTypes");
+        }
+    }
+
+    /**
+     * Tests if an add or removal is the next change to the bookings, rather
+     * than one the snapshot already has.
+     */
+    private boolean isNext(Bookings bookings, long version) {
+        long current = bookings.getChangeCount();
+        if (version > current + 1) {
+            throw new IllegalStateException("journal is missing changes: " + this);
+        }
+        return version == current + 1;
+    }
+
+    /**
+     * Tests if the bookings are at the version a status change was recorded
+     * at, rather than one the snapshot already has.
+     */
+    private boolean isCurrent(Bookings bookings, long version) {
+        long current = bookings.getChangeCount();
+        if (version > current) {
+            throw new IllegalStateException("journal is missing changes: " + this);
+        }
+        return version == current;
+    }
+
+    private boolean isFlight(Flight flight) {
+        return flight.getId().equals(flightId);
+    }
+
+    private static Predicate<AccountableObject> byId(UUID id) {
+        return element -> element.getId().equals(id);
+    }
+
+    @Override
+    public String toString() {
+        return "JournalEntry{" + "sequence=" + sequence + ", type=" + type + ", airlineName=" + airlineName + ", flightId=" + flightId + ", flightNumber=" + flightNumber + '}';
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+/**
+ * The kinds of change recorded in the replication journal.
+ *
+ * @author Graham Fairweather
+ * @see JournalEntry
+ */
+public enum JournalEntryTypes {
+
+    /**
+     * A flight was added to an airline.
+     */
+    FLIGHT_ADDED,
+    /**
+     * The status of a flight changed.
+     */
+    FLIGHT_STATUS,
+    /**
+     * A booking, and the seat it reserves if any, was added to a flight.
+     */
+    BOOKING_ADDED,
+    /**
+     * A booking was given a seat at check-in.
+     */
+    BOOKING_SEATED,
+    /**
+     * The status of a booking changed.
+     */
+    BOOKING_STATUS,
+    /**
+     * A booking was moved from its flight to the airline's archive.
+     */
+    BOOKING_ARCHIVED,
+    /**
+     * A closed flight was moved from an airline's flights to its archive.
+     */
+    FLIGHT_ARCHIVED
+
+}
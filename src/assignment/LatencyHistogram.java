@@ -0,0 +1,215 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds. Each power of two is
+ * split into four buckets, so a percentile is reported to within 25% of the
+ * true value, for any latency from a nanosecond to centuries, in a fixed 248
+ * buckets.
+ *
+ * <p>
+ * Recording touches one bucket, chosen by the latency, in one of several
+ * stripes, chosen by the thread, so that threads recording at the same time
+ * rarely update the same counter. The stripes are only added together when the
+ * histogram is read.
+ *
+ * @author Graham Fairweather
+ * @see Metrics
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+    private final LongAdder total;
+    private final AtomicLong max;
+
+    /**
+     * Allocates a <code>LatencyHistogram</code> object and initialises it.
+     *
+     * @param name The name of the histogram
+     */
+    LatencyHistogram(String name) {
+        this.name = name;
+        int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1) << 1);
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int index = 0; index < stripeCount; index++) {
+            this.stripes[index] = new AtomicLongArray(BUCKET_COUNT);
+        }
+        this.stripeMask = stripeCount - 1;
+        this.total = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Gets the bucket that a latency falls into.
+     *
+     * @param nanos The latency
+     * @return The bucket index
+     */
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Gets the highest latency that falls into a bucket.
+     *
+     * @param bucket The bucket index
+     * @return The latency
+     */
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    /**
+     * Gets the name of the histogram.
+     *
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds, negative values count as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        stripes[(int) Thread.currentThread().getId() & stripeMask].incrementAndGet(bucket(value));
+        total.add(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Records the time since a start time taken from {@link System#nanoTime()}.
+     *
+     * @param startNanos The start time
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gets the number of latencies recorded.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        long recorded = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                recorded += stripe.get(bucket);
+            }
+        }
+        return recorded;
+    }
+
+    /**
+     * Gets the sum of the latencies recorded.
+     *
+     * @return The total in nanoseconds
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * Gets the highest latency recorded.
+     *
+     * @return The latency in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the latency that the given share of recorded latencies do not
+     * exceed, rounded up to the end of its bucket.
+     *
+     * @param quantile The share, from 0 to 1
+     * @return The latency in nanoseconds, or 0 if nothing is recorded
+     */
+    public long getPercentile(double quantile) {
+        long[] merged = new long[BUCKET_COUNT];
+        long recorded = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                long value = stripe.get(bucket);
+                merged[bucket] += value;
+                recorded += value;
+            }
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(1, Math.max(0, quantile)) * recorded));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += merged[bucket];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(bucket), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Clears the recorded latencies. Latencies recorded at the same time may be
+     * partly kept.
+     */
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                stripe.set(bucket, 0);
+            }
+        }
+        total.reset();
+        max.set(0);
+    }
+
+}
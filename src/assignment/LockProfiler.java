@@ -0,0 +1,153 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An optional profiler of the locks of every {@link AbstractNoNullList}. While
+ * it is enabled, each list records how long threads wait for, and then hold,
+ * its lock, in its own {@link LockStats}, so that the most contended lists can
+ * be reported. While it is disabled, the lists only pay for reading a flag.
+ *
+ * <p>
+ * Profiling starts enabled when the system property
+ * <code>assignment.lockProfiler</code> is <code>true</code>, and can be
+ * switched on and off from the "Metrics" menu.
+ *
+ * @author Graham Fairweather
+ */
+public final class LockProfiler {
+
+    private static volatile boolean enabled = Boolean.getBoolean("assignment.lockProfiler");
+    private static volatile long generation;
+    private static final ConcurrentLinkedQueue<LockStats> STATS = new ConcurrentLinkedQueue<>();
+
+    /**
+     * How many lists register between prunings of the statistics of
+     * discarded lists, so that short lived lists, such as those made by
+     * {@link AbstractNoNullList#filter}, do not pile up while profiling.
+     */
+    private static final int PRUNE_INTERVAL = 1024;
+    private static final AtomicInteger REGISTERED = new AtomicInteger();
+
+    /**
+     * Tests if lock profiling is enabled.
+     *
+     * @return <code>true</code> if enabled, otherwise <code>false</code>
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts profiling.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Stops profiling. The statistics gathered so far are kept.
+     */
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     * Forgets the statistics gathered so far. Each list starts new statistics
+     * on its next lock.
+     */
+    public static void reset() {
+        generation++;
+        STATS.clear();
+    }
+
+    /**
+     * Gets the current generation, which changes on each {@link #reset()}.
+     *
+     * @return The generation
+     */
+    static long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Creates and registers the statistics of a list.
+     *
+     * @param list The list
+     * @return The statistics
+     */
+    static LockStats register(AbstractNoNullList<?> list) {
+        if (REGISTERED.incrementAndGet() % PRUNE_INTERVAL == 0) {
+            prune();
+        }
+        LockStats stats = new LockStats(list, generation);
+        STATS.add(stats);
+        return stats;
+    }
+
+    /**
+     * Drops the statistics of discarded lists that never waited longer than
+     * {@link LockStats#CONTENDED_NANOS}, as nearly every lock waits a little.
+     */
+    private static void prune() {
+        STATS.removeIf(stats -> stats.getList() == null && stats.getContended() == 0);
+    }
+
+    /**
+     * Gets the statistics of the lists that waited longest for their locks,
+     * longest first. Statistics of discarded lists that were not contended
+     * are dropped first.
+     *
+     * @param limit The largest number to return
+     * @return The statistics
+     */
+    public static List<LockStats> getTopContended(int limit) {
+        prune();
+        List<LockStats> top = new ArrayList<>(STATS);
+        top.sort(Comparator.comparingLong(LockStats::getWaitNanos).reversed()
+                .thenComparing(Comparator.comparingLong(LockStats::getHoldNanos).reversed()));
+        return top.subList(0, Math.min(Math.max(0, limit), top.size()));
+    }
+
+    /**
+     * Prints the lists that waited longest for their locks.
+     *
+     * @param limit The largest number to print
+     */
+    public static void print(int limit) {
+        println("Lock profiler " + (enabled ? "enabled" : "disabled") + ", profiled lists: " + STATS.size());
+        getTopContended(limit).forEach(stats -> println(stats.toString()));
+    }
+
+    private LockProfiler() {
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The wait and hold times of the lock of one {@link AbstractNoNullList}, as
+ * recorded by the {@link LockProfiler}. The list is only weakly referenced, so
+ * that profiling does not keep discarded lists alive.
+ *
+ * @author Graham Fairweather
+ */
+public final class LockStats {
+
+    /**
+     * A wait longer than this, in nanoseconds, counts as contended.
+     */
+    public static final long CONTENDED_NANOS = 10_000;
+
+    private final WeakReference<AbstractNoNullList<?>> list;
+    private final long generation;
+    private final String name;
+    private final LongAdder acquisitions;
+    private final LongAdder contended;
+    private final LongAdder waitNanos;
+    private final LongAdder holdNanos;
+    private final AtomicLong maxWaitNanos;
+    private final AtomicLong maxHoldNanos;
+
+    /**
+     * Allocates a <code>LockStats</code> object and initialises it.
+     *
+     * @param list The list whose lock is profiled
+     * @param generation The {@link LockProfiler} generation
+     */
+    LockStats(AbstractNoNullList<?> list, long generation) {
+        this.list = new WeakReference<>(list);
+        this.generation = generation;
+        this.name = list.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(list));
+        this.acquisitions = new LongAdder();
+        this.contended = new LongAdder();
+        this.waitNanos = new LongAdder();
+        this.holdNanos = new LongAdder();
+        this.maxWaitNanos = new AtomicLong();
+        this.maxHoldNanos = new AtomicLong();
+    }
+
+    private static void raise(AtomicLong max, long value) {
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Records the time a thread waited to acquire the lock.
+     *
+     * @param nanos The wait in nanoseconds
+     */
+    void recordWait(long nanos) {
+        acquisitions.increment();
+        waitNanos.add(nanos);
+        if (nanos > CONTENDED_NANOS) {
+            contended.increment();
+        }
+        raise(maxWaitNanos, nanos);
+    }
+
+    /**
+     * Records the time a thread held the lock.
+     *
+     * @param nanos The hold in nanoseconds
+     */
+    void recordHold(long nanos) {
+        holdNanos.add(nanos);
+        raise(maxHoldNanos, nanos);
+    }
+
+    /**
+     * Gets the {@link LockProfiler} generation that these statistics belong
+     * to.
+     *
+     * @return The generation
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets the list, if it is still in use.
+     *
+     * @return The list or {@code null}
+     */
+    public AbstractNoNullList<?> getList() {
+        return list.get();
+    }
+
+    /**
+     * Gets the name of the list: its class and identity hash code.
+     *
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of times the lock was acquired.
+     *
+     * @return The count
+     */
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * Gets the number of times a thread waited longer than
+     * {@link #CONTENDED_NANOS} for the lock.
+     *
+     * @return The count
+     */
+    public long getContended() {
+        return contended.sum();
+    }
+
+    /**
+     * Gets the total time threads waited for the lock.
+     *
+     * @return The time in nanoseconds
+     */
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    /**
+     * Gets the longest time a thread waited for the lock.
+     *
+     * @return The time in nanoseconds
+     */
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    /**
+     * Gets the total time threads held the lock.
+     *
+     * @return The time in nanoseconds
+     */
+    public long getHoldNanos() {
+        return holdNanos.sum();
+    }
+
+    /**
+     * Gets the longest time a thread held the lock.
+     *
+     * @return The time in nanoseconds
+     */
+    public long getMaxHoldNanos() {
+        return maxHoldNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        AbstractNoNullList<?> current = getList();
+        return String.format("%s%s: acquisitions=%d contended=%d wait=%.3fms (max %.3fms) hold=%.3fms (max %.3fms)",
+                name, current == null ? " (discarded)" : " size=" + current.size(), getAcquisitions(), getContended(),
+                getWaitNanos() / 1e6, getMaxWaitNanos() / 1e6, getHoldNanos() / 1e6, getMaxHoldNanos() / 1e6);
+    }
+
+}
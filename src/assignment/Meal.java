@@ -68,6 +68,16 @@ public class Meal extends AccountableObject implements Serializable {
         return description;
     }
 
+    /**
+     * Tests if this is a "None" meal, chosen by bookings without a meal.
+     *
+     * @return <code>true</code> if this is a "None" meal, otherwise
+     * <code>false</code>
+     */
+    public final boolean isNone() {
+        return description.startsWith("None");
+    }
+
     /**
      *
      * @return
@@ -0,0 +1,163 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.requireGreaterOrEqual;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The meals a flight is catered with. Each meal has a number of portions
+ * available, taken when a booking chooses the meal and put back when the
+ * booking is cancelled, with lock-free counters, so checking and taking a
+ * portion costs the same however many desks are booking the flight.
+ *
+ * <p>
+ * A meal is catered the first time it is asked for, with one portion for
+ * each seat of the flight, unless {@link #setPortions} says otherwise. The
+ * "None" meals are never counted.
+ *
+ * @author Graham Fairweather
+ */
+public class MealInventory implements Serializable {
+
+    private final int portions;
+    private final ConcurrentMap<Meal, Stock> stocks = new ConcurrentHashMap<>();
+
+    /**
+     * The portions of one meal.
+     */
+    private static final class Stock implements Serializable {
+
+        private final AtomicInteger booked = new AtomicInteger();
+        private volatile int portions;
+
+        Stock(int portions) {
+            this.portions = portions;
+        }
+
+    }
+
+    /**
+     * Allocates a <code>MealInventory</code> object and initialises it.
+     *
+     * @param portions The portions each meal is first catered with
+     */
+    public MealInventory(int portions) {
+        this.portions = requireGreaterOrEqual(portions, 0);
+    }
+
+    private Stock getStock(Meal meal) {
+        return stocks.computeIfAbsent(requireNonNull(meal), key -> new Stock(portions));
+    }
+
+    /**
+     * Atomically takes a portion of the meal, if one is available. A replica
+     * always takes it, as it follows the bookings the publisher made and is
+     * not told when the publisher changes the portions.
+     *
+     * @param meal The {@link Meal}
+     * @return {@code true} if a portion was taken, otherwise {@code false}
+     */
+    public boolean reserve(Meal meal) {
+        if (meal.isNone()) {
+            return true;
+        }
+        final Stock stock = getStock(meal);
+        if (ReplicaFollower.isReplica()) {
+            stock.booked.incrementAndGet();
+            return true;
+        }
+        int booked;
+        do {
+            booked = stock.booked.get();
+            if (booked >= stock.portions) {
+                return false;
+            }
+        } while (!stock.booked.compareAndSet(booked, booked + 1));
+        return true;
+    }
+
+    /**
+     * Puts back a portion of the meal taken by {@link #reserve}.
+     *
+     * @param meal The {@link Meal}
+     */
+    public void release(Meal meal) {
+        if (meal.isNone()) {
+            return;
+        }
+        getStock(meal).booked.decrementAndGet();
+    }
+
+    /**
+     * Gets the number of portions of the meal that are still available.
+     *
+     * @param meal The {@link Meal}
+     * @return The number of portions, or {@link Integer#MAX_VALUE} for a "None"
+     * meal
+     */
+    public int getAvailable(Meal meal) {
+        if (meal.isNone()) {
+            return Integer.MAX_VALUE;
+        }
+        final Stock stock = getStock(meal);
+        return Math.max(stock.portions - stock.booked.get(), 0);
+    }
+
+    /**
+     * Caters the meal with a number of portions in total, including those
+     * already booked. Fewer portions than are booked leaves none available.
+     *
+     * @param meal The {@link Meal}
+     * @param portions The number of portions
+     */
+    public void setPortions(Meal meal, int portions) {
+        getStock(meal).portions = requireGreaterOrEqual(portions, 0);
+    }
+
+    /**
+     * Makes the catering manifest of the flight: the portions of each meal
+     * that are booked.
+     *
+     * @param flight The {@link Flight} this inventory caters
+     * @return The manifest
+     */
+    public CateringManifest getManifest(Flight flight) {
+        final Map<Meal, Integer> portions = new LinkedHashMap<>();
+        stocks.forEach((meal, stock) -> {
+            int booked = stock.booked.get();
+            if (booked > 0) {
+                portions.put(meal, booked);
+            }
+        });
+        return new CateringManifest(flight, portions);
+    }
+
+}
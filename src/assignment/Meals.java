@@ -29,6 +29,11 @@ import static assignment.GeneralUtils.printlnLineSpaced;
 import static assignment.GeneralUtils.requireNotEmpty;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * Resizable-array implementation of the <tt>List</tt> interface for {@link
@@ -41,6 +46,69 @@ import java.util.Collection;
  */
 public class Meals extends AbstractNoNullList<Meal> implements Serializable {
 
+    /**
+     * The read-only meals of each class, built on first use and dropped when a
+     * meal is added or removed. Replaced, never changed, once published.
+     */
+    private transient volatile Map<ProductClassTypes, Meals> classMeals;
+
+    /**
+     * A {@code Meals} list that can not be changed, shared by every caller of
+     * {@link #getFirstClassMeals} or {@link #getEconomyClassMeals}.
+     */
+    private static final class ReadOnlyMeals extends Meals {
+
+        ReadOnlyMeals(Collection<? extends Meal> c) {
+            super(c);
+        }
+
+        @Override
+        public boolean add(Meal e) {
+            throw new UnsupportedOperationException("read only");
+        }
+
+        @Override
+        public void add(int index, Meal element) {
+            throw new UnsupportedOperationException("read only");
+        }
+
+        @Override
+        public Meal set(int index, Meal element) {
+            throw new UnsupportedOperationException("read only");
+        }
+
+        @Override
+        public Meal remove(int index) {
+            throw new UnsupportedOperationException("read only");
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            throw new UnsupportedOperationException("read only");
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException("read only");
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super Meal> filter) {
+            throw new UnsupportedOperationException("read only");
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<Meal> operator) {
+            throw new UnsupportedOperationException("read only");
+        }
+
+        @Override
+        public void sort(Comparator<? super Meal> c) {
+            throw new UnsupportedOperationException("read only");
+        }
+
+    }
+
     private static void noMeals(Meals meals) {
         // Meal 0
         ProductClassTypes productType = ECONOMY;
@@ -86,26 +154,77 @@ public class Meals extends AbstractNoNullList<Meal> implements Serializable {
      */
     public Meals(Collection<? extends Meal> c) {
         super(c);
-        Meals meals = this;
-        noMeals(meals);
+    }
+
+    @Override
+    protected void added(Meal meal) {
+        classMeals = null;
+    }
+
+    @Override
+    protected void removed(Meal meal) {
+        classMeals = null;
+    }
+
+    @Override
+    protected void cleared() {
+        classMeals = null;
+    }
+
+    /**
+     * Gets the read-only meals of a class, building them on first use.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return A read-only {@code Meals} list
+     */
+    private Meals getClassMeals(ProductClassTypes type) {
+        final Map<ProductClassTypes, Meals> cached = classMeals;
+        Meals meals = cached == null ? null : cached.get(type);
+        if (meals != null) {
+            return meals;
+        }
+        synchronized (getMutex()) {
+            final Map<ProductClassTypes, Meals> current = classMeals;
+            final Map<ProductClassTypes, Meals> next = current == null ? new EnumMap<>(ProductClassTypes.class) : new EnumMap<>(current);
+            meals = next.get(type);
+            if (meals == null) {
+                meals = new ReadOnlyMeals(filter(meal -> meal.getType() == type));
+                next.put(type, meals);
+                classMeals = next;
+            }
+            return meals;
+        }
     }
 
     /**
-     * Return A {@code Meals} list of "FIRST" class {code Meal} objects.
+     * Return A {@code Meals} list of "FIRST" class {code Meal} objects. The
+     * list is shared and can not be changed.
      *
      * @return A {@code Meals} list of "FIRST" class {code Meal} objects
      */
     public final Meals getFirstClassMeals() {
-        return new Meals(filter(meal -> meal.getType() == FIRST));
+        return getClassMeals(FIRST);
     }
 
     /**
-     * Return A {@code Meals} list of "ECONOMY" class {code Meal} objects.
+     * Return A {@code Meals} list of "ECONOMY" class {code Meal} objects. The
+     * list is shared and can not be changed.
      *
      * @return A {@code Meals} list of "ECONOMY" class {code Meal} objects
      */
     public final Meals getEconomyClassMeals() {
-        return new Meals(filter(meal -> meal.getType() == ECONOMY));
+        return getClassMeals(ECONOMY);
+    }
+
+    /**
+     * Get the "None" {@code Meal} object of the supplied class, for bookings
+     * without a meal.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return A {@code Meal} object or {@code null}
+     */
+    public final Meal getNoMeal(ProductClassTypes type) {
+        return find(meal -> meal.getType() == type && meal.isNone());
     }
 
     /**
@@ -0,0 +1,224 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * The application's registry of metrics: striped counters, latency histograms
+ * and gauges, each looked up by name.
+ *
+ * <p>
+ * Instrumented code looks up its counters and histograms once, into static
+ * fields, and then records into them without locking. Gauges are read only
+ * when the metrics are printed or dumped. The live thread counts and the seat
+ * fill rate are registered by default.
+ *
+ * @author Graham Fairweather
+ * @see LatencyHistogram
+ */
+public final class Metrics {
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+    private static final Map<String, DoubleSupplier> GAUGES = new ConcurrentSkipListMap<>();
+    private static final Map<String, Object> NAMES = new ConcurrentHashMap<>();
+
+    /**
+     * The counters that track live state for a gauge, which a reset keeps.
+     */
+    private static final Set<String> LIVE_COUNTERS = new HashSet<>(Arrays.asList("seats.created", "seats.reserved", "seats.released"));
+    private static volatile long startNanos = System.nanoTime();
+
+    static {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        gauge("threads.live", threads::getThreadCount);
+        gauge("threads.daemon", threads::getDaemonThreadCount);
+        gauge("threads.peak", threads::getPeakThreadCount);
+        LongAdder seats = counter("seats.created");
+        LongAdder reserved = counter("seats.reserved");
+        LongAdder released = counter("seats.released");
+        gauge("seats.fill", () -> {
+            long created = seats.sum();
+            return created == 0 ? 0 : (double) (reserved.sum() - released.sum()) / created;
+        });
+    }
+
+    /**
+     * Claims a name for a metric of the given kind.
+     *
+     * @param name The name
+     * @param kind The kind of metric
+     * @throws IllegalArgumentException if the name is used by another kind
+     */
+    private static void claim(String name, String kind) {
+        Object claimed = NAMES.putIfAbsent(requireNonNull(name), kind);
+        if (claimed != null && !claimed.equals(kind)) {
+            throw new IllegalArgumentException("metric " + name + " is a " + claimed);
+        }
+    }
+
+    /**
+     * Gets the counter of the given name, creating it if needed.
+     *
+     * @param name The name
+     * @return The counter
+     */
+    public static LongAdder counter(String name) {
+        claim(name, "counter");
+        return COUNTERS.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Gets the latency histogram of the given name, creating it if needed.
+     *
+     * @param name The name
+     * @return The histogram
+     */
+    public static LatencyHistogram histogram(String name) {
+        claim(name, "histogram");
+        return HISTOGRAMS.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge of the same name.
+     *
+     * @param name The name
+     * @param gauge Reads the current value
+     */
+    public static void gauge(String name, DoubleSupplier gauge) {
+        claim(name, "gauge");
+        GAUGES.put(name, requireNonNull(gauge));
+    }
+
+    /**
+     * Gets the number of seconds since the metrics were started or last reset.
+     *
+     * @return The seconds
+     */
+    public static double getElapsedSeconds() {
+        return Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+    }
+
+    /**
+     * Clears every counter and histogram, and restarts the elapsed time. The
+     * seat counters are kept, as the seat fill rate is worked out from them.
+     */
+    public static void reset() {
+        COUNTERS.forEach((name, counter) -> {
+            if (!LIVE_COUNTERS.contains(name)) {
+                counter.reset();
+            }
+        });
+        HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+        startNanos = System.nanoTime();
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1fus", nanos / 1000.0);
+    }
+
+    /**
+     * Prints every metric, with the p50, p99 and maximum latency and the
+     * throughput of each histogram.
+     */
+    public static void print() {
+        double seconds = getElapsedSeconds();
+        println(String.format("Metrics over %.1f seconds:", seconds));
+        HISTOGRAMS.forEach((name, histogram) -> {
+            long count = histogram.getCount();
+            println(String.format("%s: count=%d rate=%.2f/s p50=%s p99=%s max=%s", name, count, count / seconds, micros(histogram.getPercentile(0.5)), micros(histogram.getPercentile(0.99)), micros(histogram.getMax())));
+        });
+        COUNTERS.forEach((name, counter) -> {
+            long count = counter.sum();
+            if (LIVE_COUNTERS.contains(name)) {
+                // counted since the start, not since the last reset
+                println(String.format("%s: count=%d", name, count));
+            } else {
+                println(String.format("%s: count=%d rate=%.2f/s", name, count, count / seconds));
+            }
+        });
+        GAUGES.forEach((name, gauge) -> println(String.format("%s: %.3f", name, gauge.getAsDouble())));
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    /**
+     * Gets every metric as a JSON object, with latencies in nanoseconds and
+     * rates per second.
+     *
+     * @return The JSON text
+     */
+    public static String dump() {
+        double seconds = getElapsedSeconds();
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"elapsedSeconds\":").append(seconds).append(",\"histograms\":{");
+        String separator = "";
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            long count = histogram.getCount();
+            sb.append(separator).append(quote(histogram.getName()))
+                    .append(":{\"count\":").append(count)
+                    .append(",\"rate\":").append(count / seconds)
+                    .append(",\"totalNanos\":").append(histogram.getTotal())
+                    .append(",\"p50\":").append(histogram.getPercentile(0.5))
+                    .append(",\"p99\":").append(histogram.getPercentile(0.99))
+                    .append(",\"max\":").append(histogram.getMax()).append('}');
+            separator = ",";
+        }
+        sb.append("},\"counters\":{");
+        separator = "";
+        for (Map.Entry<String, LongAdder> entry : COUNTERS.entrySet()) {
+            long count = entry.getValue().sum();
+            sb.append(separator).append(quote(entry.getKey()))
+                    .append(":{\"count\":").append(count)
+                    .append(",\"rate\":").append(count / seconds).append('}');
+            separator = ",";
+        }
+        sb.append("},\"gauges\":{");
+        separator = "";
+        for (Map.Entry<String, DoubleSupplier> entry : GAUGES.entrySet()) {
+            double value = entry.getValue().getAsDouble();
+            sb.append(separator).append(quote(entry.getKey())).append(':').append(Double.isFinite(value) ? String.valueOf(value) : "null");
+            separator = ",";
+        }
+        return sb.append("}}").toString();
+    }
+
+    private Metrics() {
+    }
+
+}
@@ -0,0 +1,279 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.function.Function;
+
+/**
+ * A prefix trie of element names, ignoring case, for looking up the first
+ * element whose name starts with a prefix, and for completing a prefix to the
+ * names that start with it. Both cost time in proportion to the length of the
+ * prefix, rather than the number of elements, and case is folded one character
+ * at a time so that a lookup does not allocate strings.
+ *
+ * <p>
+ * "First" means the earliest added element that is still present, which
+ * matches the order of an {@link AbstractNoNullList} that only appends.
+ *
+ * <p>
+ * <strong>Note that this implementation is not synchronized.</strong>
+ *
+ * @author Graham Fairweather
+ * @param <T> Generic support
+ */
+public class NameIndex<T> {
+
+    private static final char[] NO_KEYS = new char[0];
+
+    /**
+     * An indexed element, with the order in which it was added.
+     */
+    private static final class Entry<T> {
+
+        private final T element;
+        private final String name;
+        private final long sequence;
+
+        Entry(T element, String name, long sequence) {
+            this.element = element;
+            this.name = name;
+            this.sequence = sequence;
+        }
+
+    }
+
+    /**
+     * A trie node. Children are kept in sorted arrays, searched by binary
+     * search, so that completions come out in alphabetical order.
+     */
+    private static final class Node<T> {
+
+        private char[] keys = NO_KEYS;
+        private Node<T>[] children;
+        private int size;
+        private List<Entry<T>> entries;
+        private Entry<T> first;
+
+        Node<T> child(char key) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        Node<T> addChild(char key) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            if (size == keys.length) {
+                int capacity = Math.max(2, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = children == null ? (Node<T>[]) new Node<?>[capacity] : Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(children, index, children, index + 1, size - index);
+            Node<T> node = new Node<>();
+            keys[index] = key;
+            children[index] = node;
+            size++;
+            return node;
+        }
+
+        void removeChild(char key) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index >= 0) {
+                System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+                System.arraycopy(children, index + 1, children, index, size - index - 1);
+                size--;
+                children[size] = null;
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0 && (entries == null || entries.isEmpty());
+        }
+
+        void recalculateFirst() {
+            Entry<T> best = null;
+            if (entries != null) {
+                for (Entry<T> entry : entries) {
+                    best = earliest(best, entry);
+                }
+            }
+            for (int index = 0; index < size; index++) {
+                best = earliest(best, children[index].first);
+            }
+            first = best;
+        }
+
+        private static <T> Entry<T> earliest(Entry<T> a, Entry<T> b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            return a.sequence <= b.sequence ? a : b;
+        }
+
+    }
+
+    private final Function<? super T, String> nameFunction;
+    private Node<T> root;
+    private long sequence;
+
+    /**
+     * Allocates a <code>NameIndex</code> object and initialises it.
+     *
+     * @param nameFunction Gets the name of an element
+     */
+    public NameIndex(Function<? super T, String> nameFunction) {
+        this.nameFunction = requireNonNull(nameFunction);
+        this.root = new Node<>();
+    }
+
+    private static char fold(char character) {
+        return Character.toLowerCase(character);
+    }
+
+    /**
+     * Adds an element to the index, after all of the elements already added.
+     *
+     * @param element The element
+     */
+    public void add(T element) {
+        final String name = requireNonNull(nameFunction.apply(requireNonNull(element)));
+        final Entry<T> entry = new Entry<>(element, name, sequence++);
+        Node<T> node = root;
+        if (node.first == null) {
+            node.first = entry;
+        }
+        for (int index = 0; index < name.length(); index++) {
+            node = node.addChild(fold(name.charAt(index)));
+            if (node.first == null) {
+                node.first = entry;
+            }
+        }
+        if (node.entries == null) {
+            node.entries = new ArrayList<>(1);
+        }
+        node.entries.add(entry);
+    }
+
+    /**
+     * Removes an element from the index.
+     *
+     * @param element The element
+     * @return {@code true} if the element was in the index
+     */
+    public boolean remove(T element) {
+        final String name = nameFunction.apply(requireNonNull(element));
+        @SuppressWarnings("unchecked")
+        final Node<T>[] path = (Node<T>[]) new Node<?>[name.length() + 1];
+        Node<T> node = root;
+        path[0] = node;
+        for (int index = 0; index < name.length() && node != null; index++) {
+            node = node.child(fold(name.charAt(index)));
+            path[index + 1] = node;
+        }
+        if (node == null || node.entries == null || !node.entries.removeIf(entry -> entry.element == element)) {
+            return false;
+        }
+        for (int index = name.length(); index >= 0; index--) {
+            Node<T> current = path[index];
+            if (index > 0 && current.isEmpty()) {
+                path[index - 1].removeChild(fold(name.charAt(index - 1)));
+            } else {
+                current.recalculateFirst();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes every element from the index.
+     */
+    public void clear() {
+        root = new Node<>();
+    }
+
+    private Node<T> find(String prefix) {
+        Node<T> node = root;
+        for (int index = 0; index < prefix.length() && node != null; index++) {
+            node = node.child(fold(prefix.charAt(index)));
+        }
+        return node;
+    }
+
+    /**
+     * Gets the earliest added element whose name starts with the prefix,
+     * ignoring case.
+     *
+     * @param prefix The start of the name
+     * @return The element or {@code null}
+     */
+    public T first(String prefix) {
+        final Node<T> node = find(requireNonNull(prefix));
+        return node == null || node.first == null ? null : node.first.element;
+    }
+
+    /**
+     * Gets the distinct names that start with the prefix, ignoring case, in
+     * alphabetical order.
+     *
+     * @param prefix The start of the name
+     * @param limit The largest number of names to return
+     * @return The names
+     */
+    public List<String> complete(String prefix, int limit) {
+        final List<String> names = new ArrayList<>();
+        final Node<T> node = find(requireNonNull(prefix));
+        if (node != null && limit > 0) {
+            collect(node, names, limit);
+        }
+        return names;
+    }
+
+    private void collect(Node<T> node, List<String> names, int limit) {
+        if (node.entries != null) {
+            for (Entry<T> entry : node.entries) {
+                if (names.size() >= limit) {
+                    return;
+                }
+                if (!names.contains(entry.name)) {
+                    names.add(entry.name);
+                }
+            }
+        }
+        for (int index = 0; index < node.size && names.size() < limit; index++) {
+            collect(node.children[index], names, limit);
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Whether, and by how much, the classes of a flight are sold above the number
+ * of seats, expecting some passengers not to show up.
+ *
+ * <p>
+ * Each passenger is taken to show up independently with the probability
+ * {@code 1 - noShowRate}, so the number who show up out of {@code n} booked
+ * is binomially distributed. The authorisation limit of a class of
+ * {@code capacity} seats is the largest {@code n}, up to twice the capacity,
+ * for which the probability of more than {@code capacity} passengers showing
+ * up is at most {@code risk}. While overbooking is off, the limit is the
+ * capacity. While overbooking is on, bookings are given their seats at
+ * check-in, so the seats of the passengers who do not show up are free for
+ * the others, see {@link Flight#checkIn(Booking)}.
+ *
+ * <p>
+ * Limits are worked out once per capacity and then looked up, until the
+ * settings change. The settings start from the
+ * {@code assignment.overbooking}, {@code assignment.overbooking.noShowRate}
+ * and {@code assignment.overbooking.risk} properties.
+ *
+ * @author Graham Fairweather
+ * @see Flight#authorise(ProductClassTypes)
+ */
+public final class Overbooking {
+
+    private static final Map<Integer, Integer> LIMITS = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled = Boolean.getBoolean("assignment.overbooking");
+    private static volatile double noShowRate = Double.parseDouble(System.getProperty("assignment.overbooking.noShowRate", "0.08"));
+    private static volatile double risk = Double.parseDouble(System.getProperty("assignment.overbooking.risk", "0.05"));
+
+    /**
+     * Tests if classes are sold above their number of seats.
+     *
+     * @return {@code true} if overbooking is on, otherwise {@code false}
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns overbooking on or off. Bookings already made above the number of
+     * seats are kept.
+     *
+     * @param enabled {@code true} to turn overbooking on
+     */
+    public static void setEnabled(boolean enabled) {
+        Overbooking.enabled = enabled;
+        LIMITS.clear();
+    }
+
+    /**
+     * Gets the chance that a passenger does not show up.
+     *
+     * @return The no show rate
+     */
+    public static double getNoShowRate() {
+        return noShowRate;
+    }
+
+    /**
+     * Gets the chance, that is accepted, of more passengers showing up than
+     * there are seats.
+     *
+     * @return The risk
+     */
+    public static double getRisk() {
+        return risk;
+    }
+
+    /**
+     * Sets the model the limits are worked out from.
+     *
+     * @param noShowRate The chance that a passenger does not show up
+     * @param risk The accepted chance of more passengers than seats
+     * @throws IllegalArgumentException if either is not between 0 and 1
+     */
+    public static void setModel(double noShowRate, double risk) {
+        if (!(noShowRate >= 0 && noShowRate < 1) || !(risk >= 0 && risk < 1)) {
+            throw new IllegalArgumentException("rates must be between 0 and 1");
+        }
+        Overbooking.noShowRate = noShowRate;
+        Overbooking.risk = risk;
+        LIMITS.clear();
+    }
+
+    /**
+     * Gets the number of bookings that may be authorised for a class.
+     *
+     * @param capacity The number of seats of the class
+     * @return The authorisation limit
+     */
+    public static int getLimit(int capacity) {
+        if (!enabled || capacity <= 0) {
+            return capacity;
+        }
+        Integer limit = LIMITS.get(capacity);
+        if (limit == null) {
+            limit = limitOf(capacity, 1 - noShowRate, risk);
+            LIMITS.put(capacity, limit);
+        }
+        return limit;
+    }
+
+    private static int limitOf(int capacity, double showRate, double risk) {
+        int limit = capacity;
+        while (limit < capacity * 2 && overflowProbability(limit + 1, capacity, showRate) <= risk) {
+            limit += 1;
+        }
+        return limit;
+    }
+
+    /**
+     * The probability that more than {@code capacity} out of {@code booked}
+     * passengers show up, summed down from everybody showing up, in logs so
+     * that large flights do not underflow.
+     */
+    private static double overflowProbability(int booked, int capacity, double showRate) {
+        if (showRate >= 1) {
+            return booked > capacity ? 1 : 0;
+        }
+        if (showRate <= 0) {
+            return 0;
+        }
+        final double logRatio = Math.log(1 - showRate) - Math.log(showRate);
+        double logProbability = booked * Math.log(showRate);
+        double probability = 0;
+        for (int shows = booked; shows > capacity; shows--) {
+            probability += Math.exp(logProbability);
+            logProbability += Math.log(shows) - Math.log(booked - shows + 1) + logRatio;
+        }
+        return Math.min(1, probability);
+    }
+
+    private Overbooking() {
+    }
+
+}
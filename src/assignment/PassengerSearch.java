@@ -0,0 +1,318 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+
+/**
+ * A fuzzy search index of {@link Passenger} objects. Forenames, surnames and
+ * phone numbers are folded to lower case without accents, so that "Sjokvist"
+ * finds "Sjökvist", and broken into trigrams (three character sequences, each
+ * word padded with spaces). A search scores each passenger by the share of the
+ * query's trigrams that they contain, and returns the best candidates first.
+ *
+ * <p>
+ * Passengers are indexed as they are added, and searching only visits the
+ * passengers that share at least one trigram with the query. Changes to a
+ * passenger's phone number are not seen until the passenger is indexed again.
+ *
+ * <p>
+ * <strong>Note that this implementation is not synchronized.</strong>
+ *
+ * @author Graham Fairweather
+ */
+public class PassengerSearch {
+
+    /**
+     * The default lowest share of query trigrams a candidate must contain.
+     */
+    public static final double DEFAULT_MINIMUM_SCORE = 0.5;
+
+    /**
+     * The fewest removed passengers that are worth compacting the index for.
+     */
+    private static final int COMPACT_MINIMUM = 64;
+
+    /**
+     * A growable list of passenger ordinals.
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+    }
+
+    private final Map<Long, Postings> postings;
+    private final List<Passenger> passengers;
+    private final Map<Passenger, Integer> ordinals;
+    private int[] trigramCounts;
+    private int[] scores;
+    private int[] touched;
+
+    /**
+     * The number of removed passengers whose ordinals and postings are still
+     * in the index.
+     */
+    private int removed;
+
+    /**
+     * Allocates an empty <code>PassengerSearch</code> object.
+     */
+    public PassengerSearch() {
+        this.postings = new HashMap<>();
+        this.passengers = new ArrayList<>();
+        this.ordinals = new HashMap<>();
+        this.trigramCounts = new int[16];
+        this.scores = new int[16];
+        this.touched = new int[16];
+    }
+
+    /**
+     * Folds text to lower case letters and digits without accents, with any
+     * other characters replaced by a space.
+     *
+     * @param text The text to fold
+     * @return The folded text
+     */
+    public static String fold(String text) {
+        final String decomposed = Normalizer.normalize(requireNonNull(text), Normalizer.Form.NFD);
+        final StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int index = 0; index < decomposed.length(); index++) {
+            char character = decomposed.charAt(index);
+            if (Character.getType(character) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            folded.append(Character.isLetterOrDigit(character) ? Character.toLowerCase(character) : ' ');
+        }
+        return folded.toString();
+    }
+
+    private static String digits(String text) {
+        final StringBuilder digits = new StringBuilder(text.length());
+        for (int index = 0; index < text.length(); index++) {
+            char character = text.charAt(index);
+            if (Character.isDigit(character)) {
+                digits.append(character);
+            }
+        }
+        return digits.toString();
+    }
+
+    private static long trigram(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * Adds the distinct trigrams of each word in the folded text to the set.
+     */
+    private static void trigrams(String folded, Set<Long> trigrams) {
+        for (String word : folded.trim().split(" +")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            char previous2 = ' ';
+            char previous1 = ' ';
+            for (int index = 0; index < word.length(); index++) {
+                char current = word.charAt(index);
+                trigrams.add(trigram(previous2, previous1, current));
+                previous2 = previous1;
+                previous1 = current;
+            }
+            trigrams.add(trigram(previous2, previous1, ' '));
+        }
+    }
+
+    private static Set<Long> trigrams(Passenger passenger) {
+        final Set<Long> trigrams = new LinkedHashSet<>();
+        trigrams(fold(passenger.getForeName()), trigrams);
+        trigrams(fold(passenger.getSurName()), trigrams);
+        final Phone phone = passenger.getPhone();
+        final String subscriber = digits(phone.getSubscriberNumber());
+        trigrams(subscriber, trigrams);
+        trigrams(digits(phone.getAreaCode()) + subscriber, trigrams);
+        return trigrams;
+    }
+
+    /**
+     * The trigrams of a query. A query without letters is treated as a phone
+     * number, ignoring anything that is not a digit.
+     */
+    private static Set<Long> queryTrigrams(String query) {
+        final String folded = fold(query);
+        boolean letters = false;
+        for (int index = 0; index < folded.length() && !letters; index++) {
+            letters = Character.isLetter(folded.charAt(index));
+        }
+        final Set<Long> trigrams = new LinkedHashSet<>();
+        trigrams(letters ? folded : digits(folded), trigrams);
+        return trigrams;
+    }
+
+    /**
+     * Adds a passenger to the index.
+     *
+     * @param passenger The passenger
+     */
+    public void add(Passenger passenger) {
+        requireNonNull(passenger);
+        if (ordinals.containsKey(passenger)) {
+            return;
+        }
+        final int ordinal = passengers.size();
+        passengers.add(passenger);
+        ordinals.put(passenger, ordinal);
+        if (scores.length < passengers.size()) {
+            scores = Arrays.copyOf(scores, scores.length * 2);
+            trigramCounts = Arrays.copyOf(trigramCounts, scores.length);
+        }
+        final Set<Long> trigrams = trigrams(passenger);
+        trigramCounts[ordinal] = trigrams.size();
+        trigrams.forEach(trigram -> postings.computeIfAbsent(trigram, key -> new Postings()).add(ordinal));
+    }
+
+    /**
+     * Removes a passenger from the index. The passenger's trigrams are left in
+     * place and skipped when searching, until the removed passengers are at
+     * least {@link #COMPACT_MINIMUM} and as many as those left, when the
+     * index is built again from the passengers left.
+     *
+     * @param passenger The passenger
+     */
+    public void remove(Passenger passenger) {
+        final Integer ordinal = ordinals.remove(passenger);
+        if (ordinal != null) {
+            passengers.set(ordinal, null);
+            removed += 1;
+            if (removed >= COMPACT_MINIMUM && removed >= ordinals.size()) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Builds the index again from the passengers left, in the order they were
+     * added, dropping the ordinals and postings of the removed passengers.
+     */
+    private void compact() {
+        final List<Passenger> left = new ArrayList<>(ordinals.size());
+        passengers.forEach(passenger -> {
+            if (passenger != null) {
+                left.add(passenger);
+            }
+        });
+        postings.clear();
+        passengers.clear();
+        ordinals.clear();
+        removed = 0;
+        left.forEach(this::add);
+    }
+
+    /**
+     * Search for the passengers that best match the query, using the
+     * {@link #DEFAULT_MINIMUM_SCORE}.
+     *
+     * @param query Any part of the forename, surname or phone number
+     * @param limit The largest number of passengers to return
+     * @return The passengers, best match first
+     */
+    public List<Passenger> search(String query, int limit) {
+        return search(query, limit, DEFAULT_MINIMUM_SCORE);
+    }
+
+    /**
+     * Search for the passengers that best match the query. Candidates are
+     * ranked by the share of the query's trigrams that they contain, and then
+     * by having fewer trigrams of their own.
+     *
+     * @param query Any part of the forename, surname or phone number
+     * @param limit The largest number of passengers to return
+     * @param minimumScore The lowest share of query trigrams a candidate must
+     * contain, from 0 to 1
+     * @return The passengers, best match first
+     */
+    public List<Passenger> search(String query, int limit, double minimumScore) {
+        final Set<Long> trigrams = queryTrigrams(query);
+        final List<Passenger> found = new ArrayList<>();
+        if (trigrams.isEmpty() || limit <= 0) {
+            return found;
+        }
+        int touchedCount = 0;
+        for (Long trigram : trigrams) {
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                continue;
+            }
+            for (int index = 0; index < list.size; index++) {
+                int ordinal = list.ordinals[index];
+                if (scores[ordinal]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = ordinal;
+                }
+            }
+        }
+        final int required = (int) Math.ceil(trigrams.size() * minimumScore);
+        final List<int[]> candidates = new ArrayList<>();
+        for (int index = 0; index < touchedCount; index++) {
+            int ordinal = touched[index];
+            if (scores[ordinal] >= required && passengers.get(ordinal) != null) {
+                candidates.add(new int[]{ordinal, scores[ordinal], trigramCounts[ordinal]});
+            }
+            scores[ordinal] = 0;
+        }
+        candidates.sort((a, b) -> a[1] != b[1] ? Integer.compare(b[1], a[1])
+                : a[2] != b[2] ? Integer.compare(a[2], b[2]) : Integer.compare(a[0], b[0]));
+        for (int index = 0; index < candidates.size() && index < limit; index++) {
+            found.add(passengers.get(candidates.get(index)[0]));
+        }
+        return found;
+    }
+
+    /**
+     * Gets the number of passengers in the index.
+     *
+     * @return The number of passengers
+     */
+    public int size() {
+        return ordinals.size();
+    }
+
+}
@@ -27,6 +27,7 @@ import static assignment.GeneralUtils.printlnLineSpaced;
 import static assignment.GeneralUtils.requireNotEmpty;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Resizable-array implementation of the <tt>List</tt> interface for {@link
@@ -36,9 +37,16 @@ import java.util.Collection;
  *
  * @author Graham Fairweather
  * @see AbstractNoNullList
+ * @see PassengerSearch
  */
 public class Passengers extends AbstractNoNullList<Passenger> implements Serializable {
 
+    /**
+     * The fuzzy search index, guarded by the list mutex, {@code null} until
+     * first used.
+     */
+    private transient PassengerSearch search;
+
     /**
      * Constructs an empty list with an initial capacity of ten.
      */
@@ -68,6 +76,57 @@ public class Passengers extends AbstractNoNullList<Passenger> implements Seriali
         super(c);
     }
 
+    @Override
+    protected String getIndexName(Passenger passenger) {
+        return passenger.getName();
+    }
+
+    @Override
+    protected void added(Passenger passenger) {
+        if (search != null) {
+            search.add(passenger);
+        }
+    }
+
+    @Override
+    protected void removed(Passenger passenger) {
+        if (search != null) {
+            search.remove(passenger);
+        }
+    }
+
+    @Override
+    protected void cleared() {
+        search = null;
+    }
+
+    /**
+     * Search for the passengers that best match the query, ignoring case and
+     * accents, and tolerating misspelling. The search index is built on first
+     * use and then kept up to date as passengers are added and removed.
+     *
+     * @param query Any part of the forename, surname or phone number
+     * @param limit The largest number of passengers to return
+     * @return A list of {@code Passenger} objects, best match first
+     */
+    public final List<Passenger> search(String query, int limit) {
+        requireNotEmpty(query);
+        final Object probe = lockRequested();
+        synchronized (getMutex()) {
+            lockAcquired(probe, "search");
+            try {
+                if (search == null) {
+                    PassengerSearch index = new PassengerSearch();
+                    forEach(index::add);
+                    search = index;
+                }
+                return search.search(query, limit);
+            } finally {
+                lockReleased(probe);
+            }
+        }
+    }
+
     /**
      * Get a {@code Passenger} object by matching the start of their name,
      * ignoring case.
@@ -76,8 +135,7 @@ public class Passengers extends AbstractNoNullList<Passenger> implements Seriali
      * @return A {@code Meal} object or {@code null}
      */
     public final Passenger getByNameIgnoreCase(String pattern) {
-        final String p = requireNotEmpty(pattern).trim().toLowerCase();
-        return find(passenger -> passenger.getName().toLowerCase().startsWith(p));
+        return findByNameIgnoreCase(pattern);
     }
 
     /**
@@ -38,6 +38,7 @@ public abstract class Person extends AccountableObject implements Serializable {
 
     private final String foreName;
     private final String surName;
+    private final String name;
     private final GenderTypes gender;
     private final LocalDate birthDate;
     private final AtomicReference<Address> address;
@@ -58,6 +59,7 @@ public abstract class Person extends AccountableObject implements Serializable {
     public Person(String foreName, String surName, GenderTypes gender, LocalDate birthDate, Address address, Phone phone, PersonTypes type) {
         this.foreName = requireNotEmpty(foreName);
         this.surName = requireNotEmpty(surName);
+        this.name = this.foreName + " " + this.surName;
         this.gender = requireNonNull(gender);
         this.birthDate = requireNonNull(birthDate);
         this.address = new AtomicReference<>(requireNonNull(address));
@@ -127,7 +129,7 @@ public abstract class Person extends AccountableObject implements Serializable {
      * @return The person's full name
      */
     public final String getName() {
-        return foreName + " " + surName;
+        return name;
     }
 
     /**
@@ -86,6 +86,16 @@ public class Price extends AccountableObject implements Serializable {
         return new BigDecimal(price);
     }
 
+    /**
+     * Gets the price as a whole number of cents.
+     *
+     * @return The price in cents
+     * @throws ArithmeticException if the price has fractions of a cent
+     */
+    public final long getCents() {
+        return new BigDecimal(price).movePointRight(2).longValueExact();
+    }
+
     /**
      *
      * @return
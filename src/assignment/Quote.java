@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The fare and the number of seats available of one class of a
+ * {@link Flight}, as quoted at a point in time.
+ *
+ * @author Graham Fairweather
+ * @see QuoteCache
+ */
+public final class Quote implements Serializable {
+
+    private final String flightNumber;
+    private final ProductClassTypes type;
+    private final Price fare;
+    private final long fareCents;
+    private final int seatsAvailable;
+    private final LocalDateTime quotedAt;
+
+    /**
+     * Allocates a <code>Quote</code> object with the current fare and seats of
+     * a flight.
+     *
+     * @param flight The {@link Flight}
+     * @param type The {@link ProductClassTypes}
+     */
+    public Quote(Flight flight, ProductClassTypes type) {
+        this.flightNumber = flight.getFlightNumber();
+        this.type = requireNonNull(type);
+        FareEngine fares = flight.getFareEngine();
+        this.fareCents = fares.quoteCents(type);
+        this.fare = new Price(BigDecimal.valueOf(fareCents, 2));
+        this.seatsAvailable = flight.getAvailable(type);
+        this.quotedAt = ApplicationClock.coarseNow();
+    }
+
+    /**
+     * Gets the flight number.
+     *
+     * @return The flight number
+     */
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    /**
+     * Gets the class quoted.
+     *
+     * @return The {@link ProductClassTypes}
+     */
+    public ProductClassTypes getType() {
+        return type;
+    }
+
+    /**
+     * Gets the fare of a seat.
+     *
+     * @return The fare
+     */
+    public Price getFare() {
+        return fare;
+    }
+
+    /**
+     * Gets the fare of a seat, in cents.
+     *
+     * @return The fare in cents
+     */
+    public long getFareCents() {
+        return fareCents;
+    }
+
+    /**
+     * Gets the number of seats of the class that were available, which
+     * includes the bookings above the seats that {@link Overbooking} allows.
+     *
+     * @return The number of seats
+     */
+    public int getSeatsAvailable() {
+        return seatsAvailable;
+    }
+
+    /**
+     * Gets the application clock time of the quote.
+     *
+     * @return The date and time quoted
+     */
+    public LocalDateTime getQuotedAt() {
+        return quotedAt;
+    }
+
+    /**
+     * Prints this object.
+     */
+    public void print() {
+        println("Quote " + flightNumber + " " + type + ": " + seatsAvailable + " @ " + fare.getValue());
+    }
+
+    @Override
+    public String toString() {
+        return "Quote{" + "flightNumber=" + flightNumber + ", type=" + type + ", fare=" + fare.getValue() + ", seatsAvailable=" + seatsAvailable + ", quotedAt=" + quotedAt + '}';
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of {@link Quote}s, by flight and class, for searches and
+ * listings, which look at far more flights than are booked.
+ *
+ * <p>
+ * A quote is kept until its flight's seats of the class are reserved or
+ * released, which changes the fare, or the flight's status changes, or it is
+ * older than {@link #TTL} on the application clock, as the fare also rises as
+ * departure nears. The cache holds at most {@link #CAPACITY} quotes; when it
+ * is full, expired quotes are dropped first and then the oldest.
+ *
+ * <p>
+ * Bookings are always made at the {@link FareEngine}'s current fare, never a
+ * cached one. The TTL and capacity are set by the
+ * {@code assignment.quotes.ttlSeconds} and {@code assignment.quotes.capacity}
+ * properties.
+ *
+ * @author Graham Fairweather
+ */
+public final class QuoteCache {
+
+    /**
+     * How long, on the application clock, a quote is used for.
+     */
+    public static final Duration TTL = Duration.ofSeconds(Integer.getInteger("assignment.quotes.ttlSeconds", 60));
+
+    /**
+     * The most quotes kept.
+     */
+    public static final int CAPACITY = Integer.getInteger("assignment.quotes.capacity", 10_000);
+
+    private static final LongAdder HITS = Metrics.counter("quotes.hit");
+    private static final LongAdder MISSES = Metrics.counter("quotes.miss");
+    private static final LongAdder EVICTIONS = Metrics.counter("quotes.evicted");
+
+    private static final Map<Key, Quote> QUOTES = new ConcurrentHashMap<>();
+    private static final AtomicBoolean SWEEPING = new AtomicBoolean();
+
+    static {
+        Metrics.gauge("quotes.size", QUOTES::size);
+    }
+
+    /**
+     * A flight, by identity, and a class.
+     */
+    private static final class Key {
+
+        private final Flight flight;
+        private final ProductClassTypes type;
+
+        Key(Flight flight, ProductClassTypes type) {
+            this.flight = flight;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return flight == other.flight && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(flight) * 31 + type.hashCode();
+        }
+
+    }
+
+    /**
+     * Gets the quote of a class of a flight, quoting it if there is no quote
+     * in the cache that is still current.
+     *
+     * @param flight The {@link Flight}
+     * @param type The {@link ProductClassTypes}
+     * @return The {@link Quote}
+     */
+    public static Quote get(Flight flight, ProductClassTypes type) {
+        final Key key = new Key(requireNonNull(flight), requireNonNull(type));
+        final LocalDateTime now = ApplicationClock.coarseNow();
+        Quote quote = QUOTES.get(key);
+        if (quote != null && isCurrent(quote, now)) {
+            HITS.increment();
+            return quote;
+        }
+        MISSES.increment();
+        // quoting inside compute means an invalidation, which removes the
+        // key, waits for the quote and then removes it
+        quote = QUOTES.compute(key, (k, cached) -> cached != null && isCurrent(cached, now) ? cached : new Quote(flight, type));
+        if (QUOTES.size() > CAPACITY) {
+            sweep(now);
+        }
+        return quote;
+    }
+
+    private static boolean isCurrent(Quote quote, LocalDateTime now) {
+        LocalDateTime quotedAt = quote.getQuotedAt();
+        return !now.isBefore(quotedAt) && now.isBefore(quotedAt.plus(TTL));
+    }
+
+    /**
+     * Drops expired quotes, then the oldest until the cache is three quarters
+     * full. Only one thread sweeps at a time; the others carry on.
+     */
+    private static void sweep(LocalDateTime now) {
+        if (!SWEEPING.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (Iterator<Quote> quotes = QUOTES.values().iterator(); quotes.hasNext();) {
+                if (!isCurrent(quotes.next(), now)) {
+                    quotes.remove();
+                    EVICTIONS.increment();
+                }
+            }
+            final int target = CAPACITY / 4 * 3;
+            if (QUOTES.size() > target) {
+                QUOTES.entrySet().stream()
+                        .sorted((left, right) -> left.getValue().getQuotedAt().compareTo(right.getValue().getQuotedAt()))
+                        .limit(QUOTES.size() - target)
+                        .forEach(entry -> {
+                            if (QUOTES.remove(entry.getKey(), entry.getValue())) {
+                                EVICTIONS.increment();
+                            }
+                        });
+            }
+        } finally {
+            SWEEPING.set(false);
+        }
+    }
+
+    /**
+     * Drops the quote of a class of a flight. Call after changing its seats or
+     * fare.
+     *
+     * @param flight The {@link Flight}
+     * @param type The {@link ProductClassTypes}
+     */
+    public static void invalidate(Flight flight, ProductClassTypes type) {
+        QUOTES.remove(new Key(requireNonNull(flight), requireNonNull(type)));
+    }
+
+    /**
+     * Drops the quotes of every class of a flight.
+     *
+     * @param flight The {@link Flight}
+     */
+    public static void invalidate(Flight flight) {
+        for (ProductClassTypes type : ProductClassTypes.values()) {
+            invalidate(flight, type);
+        }
+    }
+
+    /**
+     * Gets the number of quotes in the cache.
+     *
+     * @return The number of quotes
+     */
+    public static int size() {
+        return QUOTES.size();
+    }
+
+    /**
+     * Drops every quote.
+     */
+    public static void clear() {
+        QUOTES.clear();
+    }
+
+    private QuoteCache() {
+    }
+
+}
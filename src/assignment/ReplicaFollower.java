@@ -0,0 +1,176 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import static assignment.GeneralUtils.requireNotEmpty;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * A read-only copy of the airlines of another process, kept up to date by
+ * applying the {@link JournalEntry}s its {@link ReplicationPublisher} ships,
+ * in order. Reports run against the copy without touching the locks of the
+ * process that takes the bookings.
+ *
+ * <p>
+ * The follower sends the publisher's token first, and reads with a
+ * {@link ShardObjectInputStream}.
+ *
+ * @author Graham Fairweather
+ */
+public final class ReplicaFollower implements Closeable {
+
+    /**
+     * The environment variable holding the token of the publisher to follow.
+     */
+    public static final String TOKEN_ENV = "ASSIGNMENT_REPLICATION_TOKEN";
+
+    private static volatile boolean replica;
+
+    private final Socket socket;
+    private final ObjectInputStream in;
+    private final Airlines airlines;
+    private final Airports airports;
+    private volatile long appliedSequence;
+    private volatile boolean connected = true;
+
+    /**
+     * Connects to a publisher on this machine and reads its snapshot. The
+     * entries that follow are applied by a background thread.
+     *
+     * @param port The port the publisher is listening on
+     * @param token The token of the publisher
+     * @throws IOException if the publisher can not be read from
+     */
+    public ReplicaFollower(int port, String token) throws IOException {
+        requireNotEmpty(token);
+        replica = true;
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        try {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeUTF(token);
+            out.flush();
+            in = new ShardObjectInputStream(socket.getInputStream());
+            appliedSequence = in.readLong();
+            byte[] snapshot = new byte[in.readInt()];
+            in.readFully(snapshot);
+            try (ObjectInputStream copy = new ShardObjectInputStream(new ByteArrayInputStream(snapshot))) {
+                airlines = (Airlines) copy.readObject();
+                airports = (Airports) copy.readObject();
+            }
+        } catch (IOException | ClassNotFoundException | RuntimeException ex) {
+            socket.close();
+            throw ex instanceof IOException ? (IOException) ex : new IOException(ex);
+        }
+        Thread thread = new Thread(this::follow, "replica-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Tests if this process holds a replica. Flights read into a replica do
+     * not schedule their own departures and arrivals, they follow the
+     * publisher's instead.
+     *
+     * @return <code>true</code> if this process is following a publisher
+     */
+    static boolean isReplica() {
+        return replica;
+    }
+
+    private void follow() {
+        try {
+            while (true) {
+                JournalEntry entry = (JournalEntry) in.readObject();
+                // entries are only ever applied once, and in order
+                if (entry.getSequence() > appliedSequence) {
+                    entry.apply(airlines, airports);
+                    appliedSequence = entry.getSequence();
+                }
+            }
+        } catch (EOFException ex) {
+            // The publisher stopped
+        } catch (IOException | ClassNotFoundException | RuntimeException ex) {
+            if (!socket.isClosed()) {
+                println("Replication failed: " + ex);
+            }
+        } finally {
+            connected = false;
+        }
+    }
+
+    /**
+     * Gets the copy of the airlines. It must not be changed.
+     *
+     * @return The {@link Airlines}
+     */
+    public Airlines getAirlines() {
+        return airlines;
+    }
+
+    /**
+     * Gets the copy of the airports. It must not be changed.
+     *
+     * @return The {@link Airports}
+     */
+    public Airports getAirports() {
+        return airports;
+    }
+
+    /**
+     * Gets the sequence number of the last entry applied.
+     *
+     * @return The sequence number
+     */
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * Tests if the follower is still receiving entries.
+     *
+     * @return <code>true</code> if connected, otherwise <code>false</code>
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Disconnects from the publisher.
+     *
+     * @throws IOException if the connection could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+}
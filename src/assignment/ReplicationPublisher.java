@@ -0,0 +1,437 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.function.LongFunction;
+
+/**
+ * Ships the changes made to flights, seats and bookings to
+ * {@link ReplicaFollower} processes over a localhost socket, so that reports
+ * can run on a follower without holding up booking here.
+ *
+ * <p>
+ * A follower that connects is sent a snapshot of the airlines and airports,
+ * then every {@link JournalEntry} recorded after the snapshot was started, in
+ * order. Entries are kept only until every connected follower has been sent
+ * them; while no follower is connected, nothing is kept.
+ *
+ * <p>
+ * A follower must first send the publisher's token, see {@link #getToken()}.
+ * The snapshot is written to memory before it is sent, so that the locks of
+ * the lists are never held while waiting on a slow follower.
+ *
+ * <p>
+ * The domain objects report their changes through the static methods of this
+ * class, which do nothing unless a publisher is running.
+ *
+ * @author Graham Fairweather
+ */
+public final class ReplicationPublisher implements Closeable {
+
+    private static volatile ReplicationPublisher current;
+
+    /**
+     * How long a follower has to send the token after connecting, in
+     * milliseconds.
+     */
+    private static final int TOKEN_TIMEOUT = 10_000;
+
+    private final ServerSocket serverSocket;
+    private final String token = ShardWorker.newToken();
+    private final Airlines airlines;
+    private final Airports airports;
+    private final List<JournalEntry> journal = new ArrayList<>();
+    private final List<Follower> followers = new ArrayList<>();
+    private long nextSequence = 1;
+    private volatile boolean running = true;
+
+    /**
+     * The connection to one follower and the last entry sent to it.
+     */
+    private static final class Follower {
+
+        private final Socket socket;
+        private long sent;
+
+        Follower(Socket socket, long sent) {
+            this.socket = socket;
+            this.sent = sent;
+        }
+
+    }
+
+    private ReplicationPublisher(int port, Airlines airlines, Airports airports) throws IOException {
+        this.airlines = requireNonNull(airlines);
+        this.airports = requireNonNull(airports);
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread thread = new Thread(this::serve, "replication-publisher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Starts publishing the changes made to the airlines. Every airline is
+     * loaded first, so that followers are sent complete airlines.
+     *
+     * @param port The port to listen on, or 0 for any free port
+     * @param airlines The {@link Airlines}
+     * @param airports The {@link Airports}
+     * @return The publisher
+     * @throws IOException if the port can not be listened on
+     * @throws IllegalStateException if a publisher is already running
+     */
+    public static synchronized ReplicationPublisher start(int port, Airlines airlines, Airports airports) throws IOException {
+        if (current != null) {
+            throw new IllegalStateException("replication is already running on port " + current.getPort());
+        }
+        airlines.filter(airline -> true).forEach(Airline::load);
+        current = new ReplicationPublisher(port, airlines, airports);
+        return current;
+    }
+
+    /**
+     * Gets the running publisher.
+     *
+     * @return The publisher, or {@code null} if none is running
+     */
+    public static ReplicationPublisher getCurrent() {
+        return current;
+    }
+
+    /**
+     * Records that a flight was added to its airline.
+     *
+     * @param flight The {@link Flight}
+     */
+    public static void flightAdded(Flight flight) {
+        ReplicationPublisher publisher = current;
+        if (publisher != null) {
+            publisher.append(sequence -> JournalEntry.flightAdded(sequence, flight));
+        }
+    }
+
+    /**
+     * Records that the status of a flight changed.
+     *
+     * @param flight The {@link Flight}
+     * @param status The new {@link FlightStatusTypes}
+     */
+    public static void flightStatus(Flight flight, FlightStatusTypes status) {
+        ReplicationPublisher publisher = current;
+        if (publisher != null) {
+            publisher.append(sequence -> JournalEntry.flightStatus(sequence, flight, status));
+        }
+    }
+
+    /**
+     * Records that a booking was added to its flight. Called while holding the
+     * lock of the flight's bookings, so that entries for a flight are in the
+     * same order as its bookings.
+     *
+     * @param booking The {@link Booking}
+     * @param index The position of the booking in the flight's bookings
+     * @param version The change count of the flight's bookings after the add
+     */
+    public static void bookingAdded(Booking booking, int index, long version) {
+        ReplicationPublisher publisher = current;
+        if (publisher != null) {
+            publisher.append(sequence -> JournalEntry.bookingAdded(sequence, booking, index, version));
+        }
+    }
+
+    /**
+     * Records that the status of a booking changed.
+     *
+     * @param booking The {@link Booking}
+     * @param status The new {@link BookingStatusTypes}
+     */
+    public static void bookingStatus(Booking booking, BookingStatusTypes status) {
+        ReplicationPublisher publisher = current;
+        if (publisher != null) {
+            final Bookings bookings = booking.getFlight().getBookings();
+            // under the lock, so the position is the one at this version
+            synchronized (bookings.getMutex()) {
+                int index = bookings.indexOf(booking);
+                if (index >= 0) {
+                    long version = bookings.getChangeCount();
+                    publisher.append(sequence -> JournalEntry.bookingStatus(sequence, booking, index, version, status));
+                }
+            }
+        }
+    }
+
+    /**
+     * Records that a booking was given a seat at check-in. Called while
+     * holding the lock of the flight's bookings.
+     *
+     * @param booking The {@link Booking}
+     * @param index The position of the booking in the flight's bookings
+     * @param version The change count of the flight's bookings
+     */
+    public static void bookingSeated(Booking booking, int index, long version) {
+        ReplicationPublisher publisher = current;
+        if (publisher != null) {
+            publisher.append(sequence -> JournalEntry.bookingSeated(sequence, booking, index, version));
+        }
+    }
+
+    /**
+     * Records that a booking was moved from its flight to the archive. Called
+     * while holding the lock of the flight's bookings.
+     *
+     * @param flight The {@link Flight}
+     * @param index The position the booking had in the flight's bookings
+     * @param version The change count of the flight's bookings after the
+     * removal
+     * @param archived The {@link ArchivedBooking} added to the archive
+     */
+    public static void bookingArchived(Flight flight, int index, long version, ArchivedBooking archived) {
+        ReplicationPublisher publisher = current;
+        if (publisher != null) {
+            publisher.append(sequence -> JournalEntry.bookingArchived(sequence, flight, index, version, archived));
+        }
+    }
+
+    /**
+     * Records that a closed flight was moved to the archive. Called while
+     * holding the lock of the airline's flights.
+     *
+     * @param flight The {@link Flight}
+     * @param archived The {@link ArchivedFlight} added to the archive
+     */
+    public static void flightArchived(Flight flight, ArchivedFlight archived) {
+        ReplicationPublisher publisher = current;
+        if (publisher != null) {
+            publisher.append(sequence -> JournalEntry.flightArchived(sequence, flight, archived));
+        }
+    }
+
+    private synchronized void append(LongFunction<JournalEntry> entry) {
+        JournalEntry appended = entry.apply(nextSequence++);
+        if (!followers.isEmpty()) {
+            journal.add(appended);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Gets the token a follower must send, which is handed to it in the
+     * {@link ReplicaFollower#TOKEN_ENV} environment variable.
+     *
+     * @return The token
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Gets the port the publisher is listening on.
+     *
+     * @return The port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Gets the sequence number of the last entry recorded.
+     *
+     * @return The sequence number, or 0 if nothing has been recorded
+     */
+    public synchronized long getSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Gets the number of connected followers.
+     *
+     * @return The number of followers
+     */
+    public synchronized int getFollowerCount() {
+        return followers.size();
+    }
+
+    /**
+     * Gets the number of entries waiting to be sent to the slowest follower.
+     *
+     * @return The number of entries
+     */
+    public synchronized int getBacklog() {
+        return journal.size();
+    }
+
+    private void serve() {
+        while (running) {
+            try {
+                final Socket socket = serverSocket.accept();
+                Thread thread = new Thread(() -> ship(socket), "replication-follower");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException ex) {
+                if (running) {
+                    println("Replication accept failed: " + ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private void ship(Socket socket) {
+        try {
+            socket.setSoTimeout(TOKEN_TIMEOUT);
+            // read as plain data, so nothing is sent before this
+            String sent = new DataInputStream(socket.getInputStream()).readUTF();
+            if (!MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), sent.getBytes(StandardCharsets.UTF_8))) {
+                println("Replication connection refused: wrong token");
+                socket.close();
+                return;
+            }
+            socket.setSoTimeout(0);
+        } catch (IOException ex) {
+            try {
+                socket.close();
+            } catch (IOException closeEx) {
+                // Already closing
+            }
+            return;
+        }
+        Follower follower;
+        synchronized (this) {
+            follower = new Follower(socket, nextSequence - 1);
+            followers.add(follower);
+        }
+        try (Socket connection = socket;
+                ObjectOutputStream out = new ObjectOutputStream(connection.getOutputStream())) {
+            // changes made while writing are also sent below, and skipped
+            // by the follower if the snapshot already has them
+            byte[] snapshot = snapshot();
+            out.writeLong(follower.sent);
+            out.writeInt(snapshot.length);
+            out.write(snapshot);
+            out.flush();
+            while (running) {
+                List<JournalEntry> entries = awaitEntries(follower);
+                for (JournalEntry entry : entries) {
+                    out.writeObject(entry);
+                }
+                out.reset();
+                out.flush();
+                acknowledge(follower, entries);
+            }
+        } catch (IOException ex) {
+            // The follower disconnected or the publisher stopped
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (this) {
+                followers.remove(follower);
+                trim();
+            }
+        }
+    }
+
+    /**
+     * Writes the airlines and airports to memory, holding the locks of their
+     * lists only while they are copied.
+     */
+    private byte[] snapshot() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(airlines);
+            out.writeObject(airports);
+        }
+        return bytes.toByteArray();
+    }
+
+    private synchronized List<JournalEntry> awaitEntries(Follower follower) throws InterruptedException {
+        List<JournalEntry> entries = new ArrayList<>();
+        while (running && entries.isEmpty()) {
+            for (JournalEntry entry : journal) {
+                if (entry.getSequence() > follower.sent) {
+                    entries.add(entry);
+                }
+            }
+            if (entries.isEmpty()) {
+                wait();
+            }
+        }
+        return entries;
+    }
+
+    private synchronized void acknowledge(Follower follower, List<JournalEntry> entries) {
+        if (!entries.isEmpty()) {
+            follower.sent = entries.get(entries.size() - 1).getSequence();
+        }
+        trim();
+    }
+
+    /**
+     * Drops the entries every follower has been sent.
+     */
+    private void trim() {
+        long sent = nextSequence - 1;
+        for (Follower follower : followers) {
+            sent = Math.min(sent, follower.sent);
+        }
+        final long oldest = sent;
+        journal.removeIf(entry -> entry.getSequence() <= oldest);
+    }
+
+    /**
+     * Stops publishing and disconnects the followers.
+     *
+     * @throws IOException if the port could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (ReplicationPublisher.class) {
+            if (current == this) {
+                current = null;
+            }
+        }
+        running = false;
+        serverSocket.close();
+        synchronized (this) {
+            for (Follower follower : followers) {
+                follower.socket.close();
+            }
+            journal.clear();
+            notifyAll();
+        }
+    }
+
+}
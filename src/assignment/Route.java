@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.io.Serializable;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A value object for the pair of {@link Airport} objects that a
+ * {@link Flight} flies between. Two routes are equal when their departure and
+ * arrival airports have the same ids.
+ *
+ * @author Graham Fairweather
+ */
+public final class Route implements Serializable {
+
+    private final Airport from;
+    private final Airport to;
+
+    /**
+     * Allocates a <code>Route</code> object and initialises it.
+     *
+     * @param from The departure airport
+     * @param to The arrival airport
+     */
+    public Route(Airport from, Airport to) {
+        this.from = requireNonNull(from);
+        this.to = requireNonNull(to);
+    }
+
+    /**
+     * Get the departure airport.
+     *
+     * @return The airport
+     */
+    public Airport getFrom() {
+        return from;
+    }
+
+    /**
+     * Get the arrival airport.
+     *
+     * @return The airport
+     */
+    public Airport getTo() {
+        return to;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Route)) {
+            return false;
+        }
+        final Route other = (Route) obj;
+        return from.getId().equals(other.from.getId()) && to.getId().equals(other.to.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * from.getId().hashCode() + to.getId().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return from.getName() + " - " + to.getName();
+    }
+
+}
@@ -24,11 +24,13 @@
 package assignment;
 
 import static assignment.SeatsStatusTypes.AVAILABLE;
+import static assignment.SeatsStatusTypes.RESERVED;
 import static assignment.GeneralUtils.println;
 import static assignment.GeneralUtils.requireGreaterOrEqual;
 import java.io.Serializable;
 import static java.util.Objects.requireNonNull;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  *
@@ -36,6 +38,10 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public final class Seat extends AccountableObject implements Serializable {
 
+    private static final LongAdder CREATED = Metrics.counter("seats.created");
+    private static final LongAdder RESERVED_COUNT = Metrics.counter("seats.reserved");
+    private static final LongAdder RELEASED_COUNT = Metrics.counter("seats.released");
+
     private final int seatNumber;
     private final Aircraft aircraft;
     private final ProductClassTypes type;
@@ -53,6 +59,7 @@ public final class Seat extends AccountableObject implements Serializable {
         this.seatNumber = requireGreaterOrEqual(seatNumber, 1);
         this.type = requireNonNull(type);
         this.status = new AtomicReference<>(requireNonNull(AVAILABLE));
+        CREATED.increment();
     }
 
     /**
@@ -68,10 +75,50 @@ public final class Seat extends AccountableObject implements Serializable {
      * @param status
      */
     public void setStatus(SeatsStatusTypes status) {
-        this.status.set(requireNonNull(status));
+        SeatsStatusTypes previous = this.status.getAndSet(requireNonNull(status));
+        if (previous == AVAILABLE && status == RESERVED) {
+            RESERVED_COUNT.increment();
+        } else if (previous == RESERVED && status == AVAILABLE) {
+            RELEASED_COUNT.increment();
+        }
+        if (previous != status) {
+            DomainEvents.seatStatus(this, previous, status);
+        }
         setModified();
     }
 
+    /**
+     * Atomically reserves the seat if it is available.
+     *
+     * @return {@code true} if the seat was available and is now reserved,
+     * otherwise {@code false}
+     */
+    public boolean reserve() {
+        boolean changed = this.status.compareAndSet(AVAILABLE, RESERVED);
+        if (changed) {
+            RESERVED_COUNT.increment();
+            DomainEvents.seatStatus(this, AVAILABLE, RESERVED);
+            setModified();
+        }
+        return changed;
+    }
+
+    /**
+     * Atomically releases the seat if it is reserved.
+     *
+     * @return {@code true} if the seat was reserved and is now available,
+     * otherwise {@code false}
+     */
+    public boolean release() {
+        boolean changed = this.status.compareAndSet(RESERVED, AVAILABLE);
+        if (changed) {
+            RELEASED_COUNT.increment();
+            DomainEvents.seatStatus(this, RESERVED, AVAILABLE);
+            setModified();
+        }
+        return changed;
+    }
+
     /**
      *
      * @return
@@ -150,6 +150,16 @@ public class Seats extends AbstractNoNullList<Seat> implements Serializable {
         return new Seats(reserved().filter(seat -> seat.getType() == ECONOMY));
     }
 
+    /**
+     * Get the first available {@code Seat} of the supplied class.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return A {@code Seat} or null
+     */
+    public Seat getFirstAvailable(ProductClassTypes type) {
+        return find(seat -> seat.getType() == type && seat.getStatus() == AVAILABLE);
+    }
+
     /**
      * Get a {@code Seat} by its seat number on the airplane.
      *
@@ -0,0 +1,439 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Partitions the airlines across {@link ShardWorker} processes on this
+ * machine and routes the requests for an airline to the worker that owns it.
+ * Airlines are handed to the least loaded worker, and can be rebalanced, by
+ * moving them between workers, after workers are added.
+ *
+ * <p>
+ * Once an airline is handed to a worker, the worker's copy is the one that is
+ * booked. The copy in this process is taken out of the {@link Airlines} it
+ * was handed out from, and its flights no longer depart, so it is no longer
+ * changed or shown. Closing the coordinator brings the workers' copies back.
+ *
+ * <p>
+ * The workers started here are handed a token, which every connection sends
+ * first, see {@link ShardWorker}.
+ *
+ * @author Graham Fairweather
+ */
+public final class ShardCoordinator implements Closeable {
+
+    private static final int CONNECT_ATTEMPTS = 50;
+
+    private final String token = ShardWorker.newToken();
+    private final List<Shard> shards = new ArrayList<>();
+    private final Map<String, Shard> routes = new LinkedHashMap<>();
+    private Airlines airlines;
+
+    /**
+     * A connection to one worker, used by one request at a time.
+     */
+    private static final class Shard implements Closeable {
+
+        private final int port;
+        private final Process process;
+        private final Socket socket;
+        private final ObjectOutputStream out;
+        private final ObjectInputStream in;
+
+        Shard(int port, Process process, String token) throws IOException {
+            this.port = port;
+            this.process = process;
+            socket = connect(port);
+            out = new ObjectOutputStream(socket.getOutputStream());
+            out.writeUTF(token);
+            out.flush();
+            in = new ShardObjectInputStream(socket.getInputStream());
+        }
+
+        private static Socket connect(int port) throws IOException {
+            for (int attempt = 1;; attempt++) {
+                try {
+                    return new Socket(InetAddress.getLoopbackAddress(), port);
+                } catch (IOException ex) {
+                    if (attempt == CONNECT_ATTEMPTS) {
+                        throw ex;
+                    }
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        throw ex;
+                    }
+                }
+            }
+        }
+
+        synchronized Object send(ShardRequestTypes type, String airlineName, Serializable payload) {
+            Object response;
+            try {
+                out.writeObject(new ShardRequest(type, airlineName, payload));
+                out.reset();
+                out.flush();
+                response = in.readObject();
+            } catch (IOException | ClassNotFoundException ex) {
+                throw new IllegalStateException("shard " + port + " failed: " + ex.getMessage(), ex);
+            }
+            if (response instanceof RuntimeException) {
+                throw (RuntimeException) response;
+            }
+            return response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+            if (process != null) {
+                try {
+                    process.waitFor();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    process.destroy();
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Starts worker processes, using the same Java and class path as this
+     * process, and connects to them.
+     *
+     * @param count The number of workers to start
+     * @throws IOException if a worker can not be started or connected to
+     */
+    public void startWorkers(int count) throws IOException {
+        final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        for (int index = 0; index < count; index++) {
+            ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), ShardWorker.class.getName())
+                    .redirectErrorStream(true);
+            // in the environment, which other users can not read
+            builder.environment().put(ShardWorker.TOKEN_ENV, token);
+            Process process = builder.start();
+            int port;
+            try {
+                port = readPort(process);
+            } catch (IOException | RuntimeException ex) {
+                process.destroy();
+                throw ex;
+            }
+            // do not leave workers behind when this process exits
+            Runtime.getRuntime().addShutdownHook(new Thread(process::destroy));
+            synchronized (this) {
+                shards.add(new Shard(port, process, token));
+            }
+        }
+    }
+
+    /**
+     * Reads the port a worker prints when it is ready, then discards the rest
+     * of its output so that it never blocks on a full pipe.
+     */
+    private static int readPort(Process process) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null && !line.startsWith(ShardWorker.READY)) {
+            // Skip anything printed before the worker is ready
+        }
+        if (line == null) {
+            throw new IOException("shard worker exited before it was ready");
+        }
+        Thread drain = new Thread(() -> {
+            try {
+                while (reader.readLine() != null) {
+                    // Discard
+                }
+            } catch (IOException ex) {
+                // The worker has exited
+            }
+        }, "shard-output");
+        drain.setDaemon(true);
+        drain.start();
+        return Integer.parseInt(line.substring(ShardWorker.READY.length()).trim());
+    }
+
+    /**
+     * Connects to a worker that is already running on this machine.
+     *
+     * @param port The port the worker is listening on
+     * @param token The token the worker was started with
+     * @throws IOException if the worker can not be connected to
+     */
+    public synchronized void connect(int port, String token) throws IOException {
+        shards.add(new Shard(port, null, requireNonNull(token)));
+    }
+
+    /**
+     * Gets the number of workers.
+     *
+     * @return The number of workers
+     */
+    public synchronized int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Hands each airline that is not on a worker yet to the least loaded
+     * worker, and takes it out of the airlines.
+     *
+     * @param airlines The {@link Airlines}
+     * @return The number of airlines handed out
+     * @throws IllegalStateException if there are no workers
+     */
+    public synchronized int distribute(Airlines airlines) {
+        requireNonNull(airlines);
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("no shard workers");
+        }
+        if (this.airlines != null && this.airlines != airlines) {
+            throw new IllegalStateException("airlines are already distributed from another list");
+        }
+        this.airlines = airlines;
+        int count = 0;
+        for (Airline airline : airlines.filter(airline -> !routes.containsKey(airline.getName()))) {
+            // the loader is not sent, so the worker gets a loaded airline
+            airline.load();
+            Shard shard = leastLoaded();
+            shard.send(ShardRequestTypes.ACCEPT, null, airline);
+            routes.put(airline.getName(), shard);
+            // the worker's copy departs its flights from now on
+            Flight.cancelTasks(airline.getFlights());
+            airlines.remove(airline);
+            count += 1;
+        }
+        return count;
+    }
+
+    /**
+     * Moves airlines from the most loaded workers to the least loaded ones,
+     * until no two workers differ by more than one airline.
+     *
+     * @return The number of airlines moved
+     */
+    public synchronized int rebalance() {
+        int moves = 0;
+        while (shards.size() > 1) {
+            Shard from = mostLoaded();
+            Shard to = leastLoaded();
+            if (countAirlines(from) - countAirlines(to) <= 1) {
+                break;
+            }
+            String name = getAirlineNames(from).get(0);
+            Airline airline = (Airline) from.send(ShardRequestTypes.RELEASE, name, null);
+            try {
+                to.send(ShardRequestTypes.ACCEPT, null, airline);
+            } catch (RuntimeException ex) {
+                from.send(ShardRequestTypes.ACCEPT, null, airline);
+                throw ex;
+            }
+            routes.put(name, to);
+            moves += 1;
+        }
+        return moves;
+    }
+
+    /**
+     * Gets the name of a routed airline, ignoring case.
+     *
+     * @param pattern The airline name
+     * @return The airline name, or {@code null} if no worker owns the airline
+     */
+    public synchronized String findAirline(String pattern) {
+        for (String name : routes.keySet()) {
+            if (name.equalsIgnoreCase(pattern)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Books a seat, without a meal, on the worker that owns the airline.
+     *
+     * @param airlineName The airline name
+     * @param flightNumber The flight number
+     * @param passengerName The passenger's name
+     * @param type The {@link ProductClassTypes}
+     * @return A description of the booking
+     */
+    public String book(String airlineName, String flightNumber, String passengerName, ProductClassTypes type) {
+        String[] details = {requireNonNull(flightNumber), requireNonNull(passengerName), type.name()};
+        return (String) route(airlineName).send(ShardRequestTypes.BOOK, airlineName, details);
+    }
+
+    /**
+     * Gets the booking totals of an airline from the worker that owns it.
+     *
+     * @param airlineName The airline name
+     * @return The number of bookings, the total price, the costs and the
+     * profit
+     */
+    public BigDecimal[] getTotals(String airlineName) {
+        String[] totals = (String[]) route(airlineName).send(ShardRequestTypes.TOTALS, airlineName, null);
+        BigDecimal[] values = new BigDecimal[totals.length];
+        for (int index = 0; index < totals.length; index++) {
+            values[index] = new BigDecimal(totals[index]);
+        }
+        return values;
+    }
+
+    /**
+     * Prints the booking totals of every airline, and of all of them together.
+     */
+    public void printTotals() {
+        List<String> names;
+        synchronized (this) {
+            names = new ArrayList<>(routes.keySet());
+        }
+        BigDecimal[] sum = {BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO};
+        for (String name : names) {
+            BigDecimal[] totals = getTotals(name);
+            println(name + ": bookings " + totals[0] + ", price " + totals[1] + ", costs " + totals[2] + ", profit " + totals[3]);
+            for (int index = 0; index < sum.length; index++) {
+                sum[index] = sum[index].add(totals[index]);
+            }
+        }
+        println("All airlines: bookings " + sum[0] + ", price " + sum[1] + ", costs " + sum[2] + ", profit " + sum[3]);
+    }
+
+    /**
+     * Prints each worker and the airlines it owns.
+     */
+    public synchronized void print() {
+        if (shards.isEmpty()) {
+            println("No shard workers");
+        }
+        for (Shard shard : shards) {
+            println("Shard " + shard.port + ": " + getAirlineNames(shard));
+        }
+    }
+
+    private synchronized Shard route(String airlineName) {
+        Shard shard = routes.get(requireNonNull(airlineName));
+        if (shard == null) {
+            throw new ElementNotFoundException();
+        }
+        return shard;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> getAirlineNames(Shard shard) {
+        return (List<String>) shard.send(ShardRequestTypes.LIST, null, null);
+    }
+
+    private int countAirlines(Shard shard) {
+        int count = 0;
+        for (Shard owner : routes.values()) {
+            if (owner == shard) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    private Shard leastLoaded() {
+        Shard least = shards.get(0);
+        for (Shard shard : shards) {
+            if (countAirlines(shard) < countAirlines(least)) {
+                least = shard;
+            }
+        }
+        return least;
+    }
+
+    private Shard mostLoaded() {
+        Shard most = shards.get(0);
+        for (Shard shard : shards) {
+            if (countAirlines(shard) > countAirlines(most)) {
+                most = shard;
+            }
+        }
+        return most;
+    }
+
+    /**
+     * Brings every airline back from its worker, in place of the copy in the
+     * distributed {@link Airlines}, then stops the workers.
+     *
+     * @throws IOException if a connection could not be closed
+     * @throws IllegalStateException if an airline could not be brought back,
+     * in which case nothing is stopped
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (Map.Entry<String, Shard> route : new ArrayList<>(routes.entrySet())) {
+            Airline released = (Airline) route.getValue().send(ShardRequestTypes.RELEASE, route.getKey(), null);
+            restore(released);
+            routes.remove(route.getKey());
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.send(ShardRequestTypes.STOP, null, null);
+            } catch (IllegalStateException ex) {
+                // Already stopped
+            }
+            shard.close();
+        }
+        shards.clear();
+        airlines = null;
+    }
+
+    /**
+     * Puts an airline brought back from a worker back into the airlines, in
+     * place of any copy of it there.
+     */
+    private void restore(Airline released) {
+        final String name = released.getName();
+        final Airline old = airlines.find(airline -> airline.getName().equals(name));
+        if (old != null) {
+            Flight.cancelTasks(old.getFlights());
+            airlines.remove(old);
+        }
+        airlines.add(released);
+    }
+
+}
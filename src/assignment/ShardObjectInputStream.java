@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+
+/**
+ * An {@link ObjectInputStream} for the connections between a
+ * {@link ShardCoordinator} and its {@link ShardWorker}s, and from a
+ * {@link ReplicationPublisher} to its {@link ReplicaFollower}s, which only
+ * resolves the classes of this package and the value classes of the JDK they
+ * are built from, so that a stream can not make the process instantiate
+ * anything else.
+ *
+ * @author Graham Fairweather
+ */
+final class ShardObjectInputStream extends ObjectInputStream {
+
+    private static final String[] ALLOWED_PACKAGES = {"assignment.", "java.lang.", "java.math.", "java.time.", "java.util."};
+    private static final String[] ALLOWED_CLASSES = {"java.io.Serializable"};
+    private static final String[] DENIED_PACKAGES = {"java.lang.invoke.", "java.lang.reflect.", "java.util.logging."};
+
+    /**
+     * Allocates a <code>ShardObjectInputStream</code> object reading from the
+     * supplied stream.
+     *
+     * @param in The stream to read from
+     * @throws IOException if the stream header can not be read
+     */
+    ShardObjectInputStream(InputStream in) throws IOException {
+        super(in);
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+        if (!isAllowed(desc.getName())) {
+            throw new InvalidClassException(desc.getName(), "class is not allowed on a shard connection");
+        }
+        return super.resolveClass(desc);
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+        throw new InvalidClassException("proxy classes are not allowed on a shard connection");
+    }
+
+    private static boolean isAllowed(String name) {
+        int dimensions = 0;
+        while (dimensions < name.length() && name.charAt(dimensions) == '[') {
+            dimensions += 1;
+        }
+        if (dimensions > 0) {
+            // an array of primitives, or of a class named as "Lname;"
+            if (name.length() == dimensions + 1) {
+                return true;
+            }
+            name = name.substring(dimensions + 1, name.length() - 1);
+        }
+        for (String allowed : ALLOWED_CLASSES) {
+            if (name.equals(allowed)) {
+                return true;
+            }
+        }
+        for (String denied : DENIED_PACKAGES) {
+            if (name.startsWith(denied)) {
+                return false;
+            }
+        }
+        for (String allowed : ALLOWED_PACKAGES) {
+            if (name.startsWith(allowed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
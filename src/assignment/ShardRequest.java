@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.io.Serializable;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A request sent by a {@link ShardCoordinator} to a {@link ShardWorker}.
+ *
+ * @author Graham Fairweather
+ */
+public final class ShardRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ShardRequestTypes type;
+    private final String airlineName;
+    private final Serializable payload;
+
+    /**
+     * Allocates a <code>ShardRequest</code> object and initialises it.
+     *
+     * @param type The {@link ShardRequestTypes}
+     * @param airlineName The name of the airline the request is for, or
+     * {@code null}
+     * @param payload The data sent with the request, or {@code null}
+     */
+    public ShardRequest(ShardRequestTypes type, String airlineName, Serializable payload) {
+        this.type = requireNonNull(type);
+        this.airlineName = airlineName;
+        this.payload = payload;
+    }
+
+    /**
+     * Gets the type of request.
+     *
+     * @return The {@link ShardRequestTypes}
+     */
+    public ShardRequestTypes getType() {
+        return type;
+    }
+
+    /**
+     * Gets the name of the airline the request is for.
+     *
+     * @return The airline name, or {@code null}
+     */
+    public String getAirlineName() {
+        return airlineName;
+    }
+
+    /**
+     * Gets the data sent with the request.
+     *
+     * @return The payload, or {@code null}
+     */
+    public Serializable getPayload() {
+        return payload;
+    }
+
+    @Override
+    public String toString() {
+        return "ShardRequest{" + "type=" + type + ", airlineName=" + airlineName + '}';
+    }
+
+}
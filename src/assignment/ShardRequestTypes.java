@@ -0,0 +1,62 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+/**
+ * The requests a {@link ShardCoordinator} can send to a {@link ShardWorker}.
+ *
+ * @author Graham Fairweather
+ */
+public enum ShardRequestTypes {
+
+    /**
+     * Answers with the number of airlines on the shard.
+     */
+    PING,
+    /**
+     * Answers with the names of the airlines on the shard.
+     */
+    LIST,
+    /**
+     * Takes ownership of the airline sent with the request.
+     */
+    ACCEPT,
+    /**
+     * Gives up ownership of an airline and answers with it.
+     */
+    RELEASE,
+    /**
+     * Books a seat on a flight of an airline.
+     */
+    BOOK,
+    /**
+     * Answers with the booking totals of an airline.
+     */
+    TOTALS,
+    /**
+     * Stops the shard worker.
+     */
+    STOP
+
+}
@@ -0,0 +1,280 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import static assignment.GeneralUtils.requireElementFound;
+import static assignment.GeneralUtils.requireNotEmpty;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A process that owns some of the airlines and serves the requests of a
+ * {@link ShardCoordinator} for them over a localhost socket. Airlines arrive
+ * with an {@link ShardRequestTypes#ACCEPT} request and leave with a
+ * {@link ShardRequestTypes#RELEASE} request, so that the coordinator can move
+ * them between workers.
+ *
+ * <p>
+ * Each connection is served by its own thread, one request at a time. A
+ * request that fails answers with the exception, which the coordinator throws
+ * again.
+ *
+ * <p>
+ * A connection must first send the worker's token, which the coordinator
+ * hands to the workers it starts in the {@link #TOKEN_ENV} environment
+ * variable, and requests are read with a {@link ShardObjectInputStream}.
+ *
+ * @author Graham Fairweather
+ */
+public final class ShardWorker {
+
+    /**
+     * The start of the line a worker prints when it is ready, followed by the
+     * port it is listening on.
+     */
+    public static final String READY = "SHARD_WORKER_PORT ";
+
+    /**
+     * The environment variable holding the token connections must send.
+     */
+    public static final String TOKEN_ENV = "ASSIGNMENT_SHARD_TOKEN";
+
+    /**
+     * The start of the line a worker started without a token prints, followed
+     * by the token it made up.
+     */
+    public static final String TOKEN = "SHARD_WORKER_TOKEN ";
+
+    private final ServerSocket serverSocket;
+    private final byte[] token;
+    private final ConcurrentMap<String, Airline> airlines = new ConcurrentSkipListMap<>();
+    private volatile boolean running = true;
+
+    /**
+     * Allocates a <code>ShardWorker</code> object listening on a localhost
+     * port.
+     *
+     * @param port The port, or 0 for any free port
+     * @param token The token connections must send
+     * @throws IOException if the port can not be listened on
+     */
+    public ShardWorker(int port, String token) throws IOException {
+        this.token = requireNotEmpty(token).getBytes(StandardCharsets.UTF_8);
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Makes up a random token.
+     *
+     * @return The token
+     */
+    static String newToken() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder token = new StringBuilder(bytes.length * 2);
+        for (byte value : bytes) {
+            token.append(String.format("%02x", value));
+        }
+        return token.toString();
+    }
+
+    /**
+     * Gets the port the worker is listening on.
+     *
+     * @return The port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the worker is stopped.
+     */
+    public void serve() {
+        while (running) {
+            try {
+                final Socket socket = serverSocket.accept();
+                Thread thread = new Thread(() -> handle(socket), "shard-connection");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException ex) {
+                if (running) {
+                    println("Shard worker accept failed: " + ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket connection = socket;
+                ObjectOutputStream out = new ObjectOutputStream(connection.getOutputStream())) {
+            out.flush();
+            ObjectInputStream in = new ShardObjectInputStream(connection.getInputStream());
+            // read as plain data, so nothing is deserialised before this
+            if (!MessageDigest.isEqual(token, in.readUTF().getBytes(StandardCharsets.UTF_8))) {
+                println("Shard connection refused: wrong token");
+                return;
+            }
+            while (true) {
+                ShardRequest request = (ShardRequest) in.readObject();
+                Serializable response;
+                try {
+                    response = execute(request);
+                } catch (RuntimeException ex) {
+                    response = ex;
+                }
+                out.writeObject(response);
+                // forget what was written, or released airlines stay reachable
+                out.reset();
+                out.flush();
+                if (request.getType() == ShardRequestTypes.STOP) {
+                    return;
+                }
+            }
+        } catch (EOFException ex) {
+            // The coordinator closed the connection
+        } catch (IOException | ClassNotFoundException ex) {
+            println("Shard connection failed: " + ex.getMessage());
+        }
+    }
+
+    private Serializable execute(ShardRequest request) {
+        switch (request.getType()) {
+            case PING:
+                return airlines.size();
+            case LIST:
+                return new ArrayList<>(airlines.keySet());
+            case ACCEPT:
+                Airline accepted = (Airline) request.getPayload();
+                if (airlines.putIfAbsent(accepted.getName(), accepted) != null) {
+                    throw new IllegalStateException("airline is already on this shard: " + accepted.getName());
+                }
+                return airlines.size();
+            case RELEASE:
+                Airline released = requireElementFound(airlines.remove(request.getAirlineName()));
+                // the flights depart wherever the airline goes next
+                Flight.cancelTasks(released.getFlights());
+                return released;
+            case BOOK:
+                return book(getAirline(request), (String[]) request.getPayload());
+            case TOTALS:
+                return totals(getAirline(request));
+            case STOP:
+                stop();
+                return airlines.size();
+            default:
+                throw new RuntimeException("missing ShardRequestTypes");
+        }
+    }
+
+    private Airline getAirline(ShardRequest request) {
+        return requireElementFound(airlines.get(request.getAirlineName()));
+    }
+
+    /**
+     * Books a seat, without a meal, on a flight.
+     *
+     * @param airline The {@link Airline}
+     * @param details The flight number, the passenger's name and the
+     * {@link ProductClassTypes} name
+     * @return A description of the booking
+     */
+    private String book(Airline airline, String[] details) {
+        Flight flight = requireElementFound(airline.getFlights().getByFlightNumberIgnoreCase(details[0]));
+        Passenger passenger = requireElementFound(airline.getPassengers().getByNameIgnoreCase(details[1]));
+        ProductClassTypes type = ProductClassTypes.valueOf(details[2]);
+        Booking booking = new Itinerary(Collections.singletonList(flight), type).book(airline, passenger).get(0);
+        String seat = booking.isSeated() ? " seat " + booking.getSeat().getSeatNumber() : ", seat at check-in,";
+        return "Booked " + type + seat + " on " + flight.getFlightNumber() + " for " + passenger.getName() + ", price " + booking.getPrice().getValue();
+    }
+
+    /**
+     * Gets the booking totals of an airline.
+     *
+     * @param airline The {@link Airline}
+     * @return The number of bookings, the total price, the costs and the
+     * profit, including the archived closed and no show bookings
+     */
+    private String[] totals(Airline airline) {
+        Bookings bookings = airline.getBookings();
+        BookingArchive archive = airline.getBookingArchive();
+        return new String[]{
+            Integer.toString(bookings.size() + archive.getRevenueCount()),
+            sum(bookings.getPrice(), archive.getPrice()),
+            sum(bookings.getCosts(), archive.getCosts()),
+            sum(bookings.getProfit(), archive.getProfit())
+        };
+    }
+
+    private static String sum(Price live, Price archived) {
+        return new Price(live.getBigDecimal().add(archived.getBigDecimal())).getValue();
+    }
+
+    /**
+     * Stops accepting connections.
+     */
+    public void stop() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException ex) {
+            // Already closed
+        }
+    }
+
+    /**
+     * Starts a shard worker, which prints {@link #READY} and its port once it
+     * is listening. The token is taken from {@link #TOKEN_ENV}, or if that is
+     * not set, made up and printed after {@link #TOKEN}.
+     *
+     * @param args The port to listen on, or none for any free port
+     * @throws IOException if the port can not be listened on
+     */
+    public static void main(String[] args) throws IOException {
+        String token = System.getenv(TOKEN_ENV);
+        if (token == null || token.isEmpty()) {
+            token = newToken();
+            println(TOKEN + token);
+        }
+        ShardWorker worker = new ShardWorker(args.length > 0 ? Integer.parseInt(args[0]) : 0, token);
+        println(READY + worker.getPort());
+        worker.serve();
+        System.exit(0);
+    }
+
+}
@@ -0,0 +1,337 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.AircraftStatusTypes.CRUISE;
+import static assignment.AircraftStatusTypes.LANDING;
+import static assignment.AircraftStatusTypes.REFUEL;
+import static assignment.AircraftStatusTypes.TAKEOFF;
+import static assignment.AircraftStatusTypes.WAITING;
+import static assignment.GeneralUtils.println;
+import static assignment.GeneralUtils.printlnLineSpaced;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * A discrete event simulation of aircraft operations. Each scheduled
+ * {@link Flight} moves its {@link Aircraft} through takeoff, cruise, landing
+ * and refuel, after which the aircraft waits at the arrival {@link Airport} for
+ * its next flight.
+ *
+ * <p>
+ * Time is a virtual clock that jumps from one event to the next, so a year of
+ * operations is simulated as fast as the events can be processed, on the
+ * calling thread. A flight whose aircraft is still operating an earlier flight
+ * departs as soon as the aircraft becomes available, and a flight whose
+ * aircraft is waiting at a different airport is stranded. The phase and
+ * location of each aircraft are kept by the simulation, so the
+ * {@link Aircraft} and {@link Flight} objects are only read.
+ *
+ * <p>
+ * <strong>Note that this implementation is not synchronized.</strong>
+ *
+ * @author Graham Fairweather
+ */
+public class Simulation {
+
+    /**
+     * The default time taken to refuel an aircraft after landing.
+     */
+    public static final Duration DEFAULT_REFUEL_DURATION = Duration.ofMinutes(30);
+
+    /**
+     * The takeoff and landing phases each take this fraction of the flight
+     * duration, the remainder is cruise.
+     */
+    private static final long TAKEOFF_LANDING_DIVISOR = 10;
+
+    private final Duration refuelDuration;
+    private final boolean verbose;
+    private final PriorityQueue<SimulationEvent> events;
+    private final Map<Aircraft, Airport> locations;
+    private final Map<Aircraft, AircraftStatusTypes> phases;
+    private final Map<Aircraft, Deque<Flight>> pending;
+    private final Set<Aircraft> operating;
+    private LocalDateTime clock;
+    private long sequence;
+    private long processedCount;
+    private long completedCount;
+    private long delayedCount;
+    private long strandedCount;
+
+    /**
+     * Allocates a <code>Simulation</code> object that prints each phase and
+     * uses the {@link #DEFAULT_REFUEL_DURATION}.
+     */
+    public Simulation() {
+        this(DEFAULT_REFUEL_DURATION, true);
+    }
+
+    /**
+     * Allocates a <code>Simulation</code> object and initialises it.
+     *
+     * @param refuelDuration The time taken to refuel an aircraft after landing
+     * @param verbose {@code true} to print each phase as it starts
+     */
+    public Simulation(Duration refuelDuration, boolean verbose) {
+        this.refuelDuration = requireNonNull(refuelDuration);
+        this.verbose = verbose;
+        this.events = new PriorityQueue<>();
+        this.locations = new HashMap<>();
+        this.phases = new HashMap<>();
+        this.pending = new HashMap<>();
+        this.operating = new HashSet<>();
+        this.clock = LocalDateTime.MIN;
+    }
+
+    /**
+     * Places an aircraft at an airport before the simulation is run. Aircraft
+     * that are not placed start at the departure airport of their first
+     * flight.
+     *
+     * @param aircraft The {@link Aircraft}
+     * @param airport The {@link Airport}
+     */
+    public void place(Aircraft aircraft, Airport airport) {
+        locations.put(requireNonNull(aircraft), requireNonNull(airport));
+    }
+
+    /**
+     * Schedules the takeoff of a flight at its departure date and time.
+     *
+     * @param flight The {@link Flight}
+     */
+    public void schedule(Flight flight) {
+        push(requireNonNull(flight).getDepartureDateTime(), flight, TAKEOFF);
+    }
+
+    /**
+     * Schedules the takeoff of each flight at its departure date and time.
+     *
+     * @param flights The {@link Flight} objects
+     */
+    public void schedule(Collection<? extends Flight> flights) {
+        flights.forEach(this::schedule);
+    }
+
+    /**
+     * Runs the simulation until no events remain.
+     */
+    public void run() {
+        while (!events.isEmpty()) {
+            step(events.poll());
+        }
+    }
+
+    /**
+     * Runs the simulation until no events remain at or before {@code until},
+     * and then advances the virtual clock to {@code until}.
+     *
+     * @param until The virtual time to run to
+     */
+    public void run(LocalDateTime until) {
+        requireNonNull(until);
+        while (!events.isEmpty() && !events.peek().getTime().isAfter(until)) {
+            step(events.poll());
+        }
+        if (clock.isBefore(until)) {
+            clock = until;
+        }
+    }
+
+    private void push(LocalDateTime time, Flight flight, AircraftStatusTypes phase) {
+        events.add(new SimulationEvent(time, sequence++, flight, phase));
+    }
+
+    private void step(SimulationEvent event) {
+        clock = event.getTime();
+        processedCount++;
+        Flight flight = event.getFlight();
+        Aircraft aircraft = flight.getAircraft();
+        Duration duration = flight.getDuration();
+        Duration takeoffLanding = duration.dividedBy(TAKEOFF_LANDING_DIVISOR);
+        switch (event.getPhase()) {
+            case TAKEOFF:
+                if (operating.contains(aircraft)) {
+                    pending.computeIfAbsent(aircraft, key -> new ArrayDeque<>()).add(flight);
+                    return;
+                }
+                Airport location = locations.putIfAbsent(aircraft, flight.getFrom());
+                if (location != null && location != flight.getFrom()) {
+                    strandedCount++;
+                    report(flight, "STRANDED", aircraft.getName() + " is at " + location.getName());
+                    // the flights queued behind this one may still depart
+                    departNext(aircraft);
+                    return;
+                }
+                if (clock.isAfter(flight.getDepartureDateTime())) {
+                    delayedCount++;
+                }
+                operating.add(aircraft);
+                enter(flight, TAKEOFF, flight.getFrom().getName());
+                push(clock.plus(takeoffLanding), flight, CRUISE);
+                break;
+            case CRUISE:
+                enter(flight, CRUISE, flight.getFrom().getName() + " to " + flight.getTo().getName());
+                push(clock.plus(duration.minus(takeoffLanding.multipliedBy(2))), flight, LANDING);
+                break;
+            case LANDING:
+                enter(flight, LANDING, flight.getTo().getName());
+                push(clock.plus(takeoffLanding), flight, REFUEL);
+                break;
+            case REFUEL:
+                locations.put(aircraft, flight.getTo());
+                completedCount++;
+                enter(flight, REFUEL, flight.getTo().getName());
+                push(clock.plus(refuelDuration), flight, WAITING);
+                break;
+            case WAITING:
+                operating.remove(aircraft);
+                enter(flight, WAITING, flight.getTo().getName());
+                departNext(aircraft);
+                break;
+            default:
+                throw new RuntimeException("missing AircraftStatusTypes");
+        }
+    }
+
+    private void departNext(Aircraft aircraft) {
+        Deque<Flight> queue = pending.get(aircraft);
+        if (queue != null) {
+            Flight next = queue.poll();
+            if (queue.isEmpty()) {
+                pending.remove(aircraft);
+            }
+            if (next != null) {
+                push(clock, next, TAKEOFF);
+            }
+        }
+    }
+
+    private void enter(Flight flight, AircraftStatusTypes phase, String detail) {
+        phases.put(flight.getAircraft(), phase);
+        report(flight, phase.toString(), detail);
+    }
+
+    private void report(Flight flight, String phase, String detail) {
+        if (verbose) {
+            println(clock + " " + phase + ": " + flight.getFlightNumber() + " " + flight.getAircraft().getName() + " " + detail);
+        }
+    }
+
+    /**
+     * Gets the current time of the virtual clock.
+     *
+     * @return The virtual time of the last processed event
+     */
+    public LocalDateTime getClock() {
+        return clock;
+    }
+
+    /**
+     * Gets the airport where an aircraft is, or was last, waiting.
+     *
+     * @param aircraft The {@link Aircraft}
+     * @return The {@link Airport} or {@code null} if not known
+     */
+    public Airport getLocation(Aircraft aircraft) {
+        return locations.get(aircraft);
+    }
+
+    /**
+     * Gets the phase an aircraft is, or was last, in.
+     *
+     * @param aircraft The {@link Aircraft}
+     * @return The {@link AircraftStatusTypes} or {@code null} if it has not
+     * flown
+     */
+    public AircraftStatusTypes getPhase(Aircraft aircraft) {
+        return phases.get(aircraft);
+    }
+
+    /**
+     * Gets the number of events processed.
+     *
+     * @return The number of events
+     */
+    public long getProcessedCount() {
+        return processedCount;
+    }
+
+    /**
+     * Gets the number of flights that have landed.
+     *
+     * @return The number of flights
+     */
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    /**
+     * Gets the number of flights that departed later than scheduled.
+     *
+     * @return The number of flights
+     */
+    public long getDelayedCount() {
+        return delayedCount;
+    }
+
+    /**
+     * Gets the number of flights that could not depart because the aircraft was
+     * at another airport.
+     *
+     * @return The number of flights
+     */
+    public long getStrandedCount() {
+        return strandedCount;
+    }
+
+    /**
+     * Prints a summary of the simulation.
+     */
+    public void print() {
+        printlnLineSpaced("Simulation summary:");
+        println("Simulation clock: " + clock);
+        println("Simulation events: " + processedCount);
+        println("Simulation flights completed: " + completedCount);
+        println("Simulation flights delayed: " + delayedCount);
+        println("Simulation flights stranded: " + strandedCount);
+        println("Simulation events pending: " + events.size());
+    }
+
+    @Override
+    public String toString() {
+        return "Simulation{" + "clock=" + clock + ", processedCount=" + processedCount + ", completedCount=" + completedCount + ", delayedCount=" + delayedCount + ", strandedCount=" + strandedCount + ", pending=" + events.size() + '}';
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.time.LocalDateTime;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An event in the {@link Simulation} queue, marking the start of an
+ * {@link AircraftStatusTypes} phase of a {@link Flight} at a point on the
+ * virtual clock. Events are ordered by time, and then by the order in which
+ * they were scheduled.
+ *
+ * @author Graham Fairweather
+ */
+public final class SimulationEvent implements Comparable<SimulationEvent> {
+
+    private final LocalDateTime time;
+    private final long sequence;
+    private final Flight flight;
+    private final AircraftStatusTypes phase;
+
+    /**
+     * Allocates a <code>SimulationEvent</code> object and initialises it.
+     *
+     * @param time The virtual time at which the phase starts
+     * @param sequence The scheduling order, used to break ties in time
+     * @param flight The {@link Flight} being operated
+     * @param phase The {@link AircraftStatusTypes} phase that starts
+     */
+    public SimulationEvent(LocalDateTime time, long sequence, Flight flight, AircraftStatusTypes phase) {
+        this.time = requireNonNull(time);
+        this.sequence = sequence;
+        this.flight = requireNonNull(flight);
+        this.phase = requireNonNull(phase);
+    }
+
+    /**
+     * Gets the virtual time at which the phase starts.
+     *
+     * @return The time
+     */
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the scheduling order of the event.
+     *
+     * @return The sequence
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the flight being operated.
+     *
+     * @return The flight
+     */
+    public Flight getFlight() {
+        return flight;
+    }
+
+    /**
+     * Gets the phase that starts.
+     *
+     * @return The {@link AircraftStatusTypes}
+     */
+    public AircraftStatusTypes getPhase() {
+        return phase;
+    }
+
+    @Override
+    public int compareTo(SimulationEvent other) {
+        int compare = time.compareTo(other.time);
+        return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationEvent{" + "time=" + time + ", sequence=" + sequence + ", flight=" + flight.getFlightNumber() + ", phase=" + phase + '}';
+    }
+
+}
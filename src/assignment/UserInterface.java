@@ -23,8 +23,8 @@
  */
 package assignment;
 
-import static assignment.Data.AIRLINES;
-import static assignment.Data.AIRPORTS;
+import static assignment.Data.getAirlines;
+import static assignment.Data.getAirports;
 import static assignment.GeneralUtils.println;
 import static assignment.GeneralUtils.printlnLineSpaced;
 import static assignment.GeneralUtils.requireElementFound;
@@ -42,13 +42,17 @@ import static assignment.UserInterfaceUtils.getPrice;
 import static assignment.UserInterfaceUtils.getProductClass;
 import static assignment.UserInterfaceUtils.getRequireNotEmpty;
 import static assignment.UserInterfaceUtils.runOptionMenus;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
+import java.util.List;
 import static java.util.Objects.requireNonNull;
+import java.util.Queue;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A {@link Class} of static methods that implements the console based user
@@ -58,11 +62,37 @@ import static java.util.Objects.requireNonNull;
  */
 public class UserInterface {
 
+    private static final LatencyHistogram BOOKING_LATENCY = Metrics.histogram("booking.make");
+    private static final LongAdder BOOKINGS_FAILED = Metrics.counter("booking.failed");
+
     /**
      * The airline currently chosen and used by the menu actions.
      */
     private static Airline airline;
 
+    /**
+     * The shard workers that own airlines, if any have been started.
+     */
+    private static final ShardCoordinator SHARDS = new ShardCoordinator();
+
+    /**
+     * The name of the sharded airline currently chosen and used by the shard
+     * menu actions.
+     */
+    private static String shardAirline;
+
+    /**
+     * The read-only copy of another process's airlines, when this process was
+     * started as a replica.
+     */
+    private static ReplicaFollower replica;
+
+    /**
+     * The economy analytics last built, and the airline they were built for.
+     */
+    private static EconomyAnalytics economyAnalytics;
+    private static Airline economyAirline;
+
     /**
      * List the aircraft of the currently chosen airline.
      */
@@ -97,6 +127,23 @@ public class UserInterface {
         println();
     }
 
+    /**
+     * Prints the totals of the supplied {@link BookingArchive}.
+     *
+     * @param archive The {@link BookingArchive}
+     */
+    private static void printArchiveTotals(BookingArchive archive) {
+        println();
+        println("Archived closed bookings: " + archive.getClosedCount());
+        println("Archived no show bookings: " + archive.getNoShowCount());
+        println("Archived cancelled bookings: " + archive.getCancelledCount());
+        println("Archived bumped bookings: " + archive.getBumpedCount());
+        println("Archived price: " + archive.getPrice().getValue());
+        println("Archived costs: " + archive.getCosts().getValue());
+        println("Archived profit: " + archive.getProfit().getValue());
+        println();
+    }
+
     /**
      * List the bookings of the currently chosen airline.
      */
@@ -104,15 +151,23 @@ public class UserInterface {
         Bookings bookings = airline.getBookings();
         bookings.print();
         printTotals(bookings);
+        printArchiveTotals(airline.getBookingArchive());
     }
 
     /**
-     * List the completed bookings of the currently chosen airline.
+     * List the completed bookings of the currently chosen airline, which are
+     * in the archive once their flight has departed.
      */
     public static void listBookingsCompleted() {
         Bookings bookings = airline.getBookings().closed();
         bookings.print();
+        BookingArchive archive = airline.getBookingArchive();
+        archive.filter(booking -> booking.getStatus().isRevenue()).forEach(booking -> {
+            booking.print();
+            println();
+        });
         printTotals(bookings);
+        printArchiveTotals(archive);
     }
 
     /**
@@ -135,12 +190,16 @@ public class UserInterface {
             return;
         }
 
-        Seats firstClassSeats = flight.getSeats().getFirstClassSeatsAvailable();
-        println("First class seats: " + firstClassSeats.size());
-        Seats economyClassSeats = flight.getSeats().getEconomyClassSeatsAvailable();
-        println("Economy class seats: " + economyClassSeats.size());
-        if (firstClassSeats.size() <= 0 && economyClassSeats.size() <= 0) {
+        // while overbooking, above the seats and seated at check-in
+        int firstClassAvailable = flight.getAvailable(FIRST);
+        println("First class seats: " + firstClassAvailable);
+        int economyClassAvailable = flight.getAvailable(ECONOMY);
+        println("Economy class seats: " + economyClassAvailable);
+        if (firstClassAvailable <= 0 && economyClassAvailable <= 0) {
             printlnLineSpaced("Sorry, no seats available");
+            if (confirmYesNo("Join the waitlist, (y)es or (n]o?")) {
+                joinWaitlist(flight, getProductClass());
+            }
             return;
         }
 
@@ -150,27 +209,33 @@ public class UserInterface {
         while (running) {
             switch (seatType) {
                 case FIRST:
-                    if (firstClassSeats.size() <= 0) {
+                    if (firstClassAvailable <= 0) {
                         printlnLineSpaced("Sorry, no first class seats available");
                         if (confirmYesNo("Choose another seating class, (y)es or (n]o?")) {
                             seatType = getProductClass();
                             break;
                         }
+                        if (confirmYesNo("Join the waitlist, (y)es or (n]o?")) {
+                            joinWaitlist(flight, seatType);
+                        }
                         return;
                     }
-                    seat = firstClassSeats.get(0);
+                    seat = Overbooking.isEnabled() ? null : flight.getSeats().getFirstAvailable(FIRST);
                     running = false;
                     break;
                 case ECONOMY:
-                    if (economyClassSeats.size() <= 0) {
+                    if (economyClassAvailable <= 0) {
                         printlnLineSpaced("Sorry, no economy seats available");
                         if (confirmYesNo("Choose another seating class, (y)es or (n]o?")) {
                             seatType = getProductClass();
                             break;
                         }
+                        if (confirmYesNo("Join the waitlist, (y)es or (n]o?")) {
+                            joinWaitlist(flight, seatType);
+                        }
                         return;
                     }
-                    seat = economyClassSeats.get(0);
+                    seat = Overbooking.isEnabled() ? null : flight.getSeats().getFirstAvailable(ECONOMY);
                     running = false;
                     break;
                 default:
@@ -218,11 +283,60 @@ public class UserInterface {
             }
         }
 
-        Booking booking = new Booking(flight, passenger, seat, meal);
-        airline.getBookings().add(booking);
+        final long start = System.nanoTime();
+        Booking booking;
+        try {
+            booking = seat != null ? new Booking(flight, passenger, seat, meal) : new Booking(flight, passenger, seatType, meal);
+            airline.addBooking(booking);
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            BOOKINGS_FAILED.increment();
+            printlnLineSpaced(ex.getMessage());
+            return;
+        }
+        BOOKING_LATENCY.recordSince(start);
         booking.print();
     }
 
+    /**
+     * Add a passenger, without a meal, to the waitlist of a class of a flight,
+     * to be booked when a seat is released.
+     *
+     * @param flight The {@link Flight}
+     * @param type The {@link ProductClassTypes}
+     */
+    private static void joinWaitlist(Flight flight, ProductClassTypes type) {
+        Passenger passenger;
+        try {
+            passenger = choosePassengerByName();
+        } catch (RuntimeException ex) {
+            return;
+        }
+        try {
+            Meal meal = requireElementFound(airline.getMeals().getNoMeal(type));
+            Waitlist waitlist = flight.getWaitlist();
+            WaitlistEntry entry = waitlist.add(passenger, type, meal, WaitlistEntry.NORMAL_PRIORITY);
+            int position = waitlist.getPosition(entry);
+            // promoted already if a seat was released meanwhile
+            printlnLineSpaced("Waitlisted " + passenger.getName() + " for " + type + " on " + flight.getFlightNumber()
+                    + (position > 0 ? ", position " + position : ", " + entry.getStatus()));
+        } catch (ElementNotFoundException | IllegalStateException ex) {
+            printlnLineSpaced(ex.getMessage());
+        }
+    }
+
+    /**
+     * List the waitlist of an open flight of the currently chosen airline.
+     */
+    public static void listWaitlist() {
+        Flight flight;
+        try {
+            flight = chooseOpenFlight();
+        } catch (RuntimeException ex) {
+            return;
+        }
+        flight.getWaitlist().print();
+    }
+
     /**
      * Get a first class meal by first matching description.
      *
@@ -306,13 +420,59 @@ public class UserInterface {
     public static void printFlightTotals() {
         try {
             Flight flight = chooseFlight();
-            Bookings bookings = airline.getBookings().getBookingsByFlightNumber(flight.getFlightNumber());
+            Bookings bookings = flight.getBookings();
             printTotals(bookings);
         } catch (ElementNotFoundException | IllegalArgumentException ex) {
             // Do nothing
         }
     }
 
+    /**
+     * Choose a flight by flight number and print its catering manifest.
+     */
+    public static void printCatering() {
+        try {
+            Flight flight = chooseFlight();
+            println();
+            flight.getCateringManifest().print();
+            println();
+        } catch (ElementNotFoundException | IllegalArgumentException ex) {
+            // Do nothing
+        }
+    }
+
+    /**
+     * Choose an open flight by flight number and a meal, and cater the meal
+     * on the flight with a number of portions.
+     */
+    public static void caterMeal() {
+        try {
+            Flight flight = chooseOpenFlight();
+            Meal meal;
+            switch (getProductClass()) {
+                case FIRST:
+                    meal = chooseFirstClassMeal();
+                    break;
+                case ECONOMY:
+                    meal = chooseEconomyClassMeal();
+                    break;
+                default:
+                    throw new RuntimeException("missing ProductClassTypes");
+            }
+            if (meal.isNone()) {
+                printlnLineSpaced("No portions to cater for: " + meal.getDescription());
+                return;
+            }
+            MealInventory inventory = flight.getMealInventory();
+            inventory.setPortions(meal, getInputInt("Portions"));
+            printlnLineSpaced("Portions available: " + inventory.getAvailable(meal));
+        } catch (ElementNotFoundException ex) {
+            // Do nothing
+        } catch (IllegalArgumentException ex) {
+            printlnLineSpaced(ex.getMessage());
+        }
+    }
+
     /**
      * Choose an open flight by flight number.
      *
@@ -338,6 +498,176 @@ public class UserInterface {
         return flight;
     }
 
+    /**
+     * Search for the fastest or cheapest connecting flights between two
+     * airports with the currently chosen airline, and book every leg.
+     */
+    public static void searchConnections() {
+        Itinerary itinerary;
+        try {
+            Airport from = getAirports().getByNameIgnoreCase(getRequireNotEmpty("From airport"));
+            requireNonNull(from);
+            Airport to = getAirports().getByNameIgnoreCase(getRequireNotEmpty("To airport"));
+            requireNonNull(to);
+            LocalDate departureDate = getLocalDate("Departure date (yyyy-MM-dd)");
+            LocalTime departureTime = getLocalTime("Earliest departure (HH:mm)");
+            ProductClassTypes seatType = getProductClass();
+            ItineraryOptimiseTypes optimise = confirmYesNo("Cheapest rather than fastest? (y)es or (n)o")
+                    ? ItineraryOptimiseTypes.CHEAPEST : ItineraryOptimiseTypes.FASTEST;
+            ItinerarySearch search = new ItinerarySearch(airline.getFlights());
+            itinerary = search.search(from, to, departureDate.atTime(departureTime), seatType, optimise);
+        } catch (NullPointerException | IllegalArgumentException | DateTimeParseException ex) {
+            printlnLineSpaced(ex.getMessage());
+            return;
+        }
+        if (itinerary == null) {
+            printlnLineSpaced("Sorry, no connections found");
+            return;
+        }
+        itinerary.print();
+        if (!confirmYesNo("Book this itinerary? (y)es or (n)o")) {
+            return;
+        }
+
+        Passenger passenger;
+        try {
+            passenger = choosePassengerByName();
+        } catch (RuntimeException ex) {
+            return;
+        }
+        try {
+            itinerary.book(airline, passenger).print();
+        } catch (IllegalStateException | ElementNotFoundException ex) {
+            printlnLineSpaced("Sorry, the itinerary could not be booked: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Choose a confirmed booking of a passenger on a flight, by seat number if
+     * the passenger has more than one, or 0 for one not yet seated.
+     *
+     * @param flight The {@link Flight}
+     * @param passenger The {@link Passenger}
+     * @return The booking, or {@code null} if none was found
+     */
+    private static Booking chooseConfirmedBooking(Flight flight, Passenger passenger) {
+        List<Booking> found = flight.getBookings().filter(booking -> booking.getPassenger() == passenger
+                && booking.getStatus() == BookingStatusTypes.CONFIRMED);
+        if (found.isEmpty()) {
+            printlnLineSpaced("No confirmed booking for " + passenger.getName() + " on " + flight.getFlightNumber());
+            return null;
+        }
+
+        Booking booking = found.get(0);
+        if (found.size() > 1) {
+            try {
+                int seatNumber = getInputInt("Seat number");
+                booking = requireElementFound(found.stream()
+                        .filter(candidate -> seatNumber(candidate) == seatNumber)
+                        .findFirst()
+                        .orElse(null));
+            } catch (IllegalArgumentException | ElementNotFoundException ex) {
+                printlnLineSpaced("Seat not booked by " + passenger.getName());
+                return null;
+            }
+        }
+        return booking;
+    }
+
+    private static int seatNumber(Booking booking) {
+        return booking.isSeated() ? booking.getSeat().getSeatNumber() : 0;
+    }
+
+    /**
+     * Cancel a confirmed booking with the currently chosen airline, releasing
+     * its seat and meal.
+     */
+    public static void cancelBooking() {
+        Flight flight;
+        Passenger passenger;
+        try {
+            flight = chooseOpenFlight();
+            passenger = choosePassengerByName();
+        } catch (RuntimeException ex) {
+            return;
+        }
+
+        Booking booking = chooseConfirmedBooking(flight, passenger);
+        if (booking == null) {
+            return;
+        }
+
+        if (airline.cancelBooking(booking)) {
+            printlnLineSpaced("Cancelled " + booking.getType() + " seat " + seatNumber(booking) + " on " + flight.getFlightNumber() + " for " + passenger.getName());
+        } else {
+            printlnLineSpaced("Sorry, the booking is no longer confirmed");
+        }
+    }
+
+    /**
+     * Check in a confirmed booking with the currently chosen airline, giving
+     * it a seat if it has none, or bumping it if none is left.
+     */
+    public static void checkIn() {
+        Flight flight;
+        Passenger passenger;
+        try {
+            flight = chooseOpenFlight();
+            passenger = choosePassengerByName();
+        } catch (RuntimeException ex) {
+            return;
+        }
+
+        Booking booking = chooseConfirmedBooking(flight, passenger);
+        if (booking == null) {
+            return;
+        }
+
+        try {
+            if (flight.checkIn(booking)) {
+                printlnLineSpaced("Checked in " + passenger.getName() + " on " + flight.getFlightNumber() + ", seat " + booking.getSeat().getSeatNumber());
+            } else {
+                printlnLineSpaced("Sorry, no " + booking.getType() + " seat left on " + flight.getFlightNumber() + ", " + passenger.getName() + " was bumped");
+            }
+        } catch (IllegalStateException ex) {
+            printlnLineSpaced(ex.getMessage());
+        }
+    }
+
+    /**
+     * List the passengers bumped at check-in with the currently chosen airline
+     * since they were last listed, take them from the queue and waitlist them
+     * on the next flight of the same route.
+     */
+    public static void listBumped() {
+        Queue<ArchivedBooking> bumped = airline.getBumped();
+        if (bumped.isEmpty()) {
+            printlnLineSpaced("No bumped passengers");
+            return;
+        }
+        printlnLineSpaced("List of bumped passengers:");
+        ArchivedBooking booking;
+        while ((booking = bumped.poll()) != null) {
+            booking.print();
+            WaitlistEntry entry = airline.waitlistBumped(booking);
+            if (entry != null) {
+                println("Waitlisted on " + entry.getFlight().getFlightNumber() + ": " + entry.getStatus());
+            } else {
+                println("No later flight to waitlist on");
+            }
+            println();
+        }
+    }
+
+    /**
+     * Turn overbooking on or off, for the bookings made from now on.
+     */
+    public static void toggleOverbooking() {
+        Overbooking.setEnabled(!Overbooking.isEnabled());
+        printlnLineSpaced("Overbooking " + (Overbooking.isEnabled() ? "on" : "off")
+                + ", no show rate " + Overbooking.getNoShowRate() + ", risk " + Overbooking.getRisk());
+    }
+
     /**
      * Bookings action menu.
      */
@@ -347,6 +677,11 @@ public class UserInterface {
         optionMap.add("1", "List completed bookings", "listBookingsCompleted");
         optionMap.add("2", "List confirmed bookings", "listBookingsConfirmed");
         optionMap.add("3", "Make bookings", "makeBooking");
+        optionMap.add("4", "Search connections", "searchConnections");
+        optionMap.add("5", "Cancel booking", "cancelBooking");
+        optionMap.add("6", "Check in", "checkIn");
+        optionMap.add("7", "Bumped passengers", "listBumped");
+        optionMap.add("8", "List waitlist", "listWaitlist");
         optionMap.addBackAction();
         optionMap.addExitAction();
         if (runOptionMenus(optionMap)) {
@@ -368,6 +703,7 @@ public class UserInterface {
             requireElementFound(passenger);
         } catch (ElementNotFoundException ex) {
             printlnLineSpaced("Passenger not found: " + data);
+            printPassengerCandidates(data);
             throw ex;
         } catch (IllegalArgumentException ex) {
             printlnLineSpaced(ex.getMessage() + ": " + data);
@@ -406,6 +742,44 @@ public class UserInterface {
         }
     }
 
+    /**
+     * Print the names of the passengers that best match a query.
+     *
+     * @param query Any part of the forename, surname or phone number
+     */
+    private static void printPassengerCandidates(String query) {
+        try {
+            List<Passenger> candidates = airline.getPassengers().search(query, 5);
+            if (!candidates.isEmpty()) {
+                println("Did you mean:");
+                candidates.forEach(candidate -> println(candidate.getName() + ", " + candidate.getBirthDate()));
+                println();
+            }
+        } catch (IllegalArgumentException ex) {
+            // Do nothing
+        }
+    }
+
+    /**
+     * Search the passengers of the currently chosen airline by name or phone
+     * number, tolerating misspelling.
+     */
+    public static void searchPassengers() {
+        String data = getInput("Name or phone number");
+        try {
+            List<Passenger> candidates = airline.getPassengers().search(data, 10);
+            if (candidates.isEmpty()) {
+                printlnLineSpaced("Passenger not found: " + data);
+                return;
+            }
+            printlnLineSpaced("Passengers matching: " + data);
+            candidates.forEach(candidate -> println(candidate.getName() + ", " + candidate.getBirthDate() + ", " + candidate.getId()));
+            println();
+        } catch (IllegalArgumentException ex) {
+            printlnLineSpaced(ex.getMessage() + ": " + data);
+        }
+    }
+
     /**
      * List the passengers of the currently chosen airline.
      */
@@ -420,6 +794,7 @@ public class UserInterface {
         OptionMap optionMap = new OptionMap();
         optionMap.add("0", "List passengers", "listPassengers");
         optionMap.add("1", "Add passenger", "addPassenger");
+        optionMap.add("2", "Search passengers", "searchPassengers");
         optionMap.addBackAction();
         optionMap.addExitAction();
         if (runOptionMenus(optionMap)) {
@@ -553,6 +928,7 @@ public class UserInterface {
         OptionMap optionMap = new OptionMap();
         optionMap.add("0", "List meals", "listMeals");
         optionMap.add("1", "Add meal", "addMeal");
+        optionMap.add("2", "Cater meal", "caterMeal");
         optionMap.addBackAction();
         optionMap.addExitAction();
         if (runOptionMenus(optionMap)) {
@@ -569,7 +945,7 @@ public class UserInterface {
             String aircraftName = getRequireNotEmpty("Aircraft name");
             Aircraft aircraft = airline.getAircrafts().getByNameIgnoreCase(aircraftName);
             requireNonNull(aircraft);
-            LocalDateTime nowDateTime = LocalDateTime.now();
+            LocalDateTime nowDateTime = ApplicationClock.now();
             LocalDate departureDate = getLocalDate("Departure date (yyyy-MM-dd)");
             int dateCompareTo = departureDate.compareTo(nowDateTime.toLocalDate());
             if (dateCompareTo < 0) {
@@ -582,11 +958,11 @@ public class UserInterface {
             LocalDateTime departureDateTime = departureDate.atTime(departureTime);
 
             String fromAirport = getRequireNotEmpty("From airport");
-            Airport from = AIRPORTS.getByNameIgnoreCase(fromAirport);
+            Airport from = getAirports().getByNameIgnoreCase(fromAirport);
             requireNonNull(from);
 
             String toAirport = getRequireNotEmpty("To airport");
-            Airport to = AIRPORTS.getByNameIgnoreCase(toAirport);
+            Airport to = getAirports().getByNameIgnoreCase(toAirport);
             requireNonNull(to);
             if (to.equals(from)) {
                 throw new IllegalArgumentException("from and to are the same");
@@ -603,7 +979,7 @@ public class UserInterface {
             requireGreaterOrEqual(economyClassPrice.getBigDecimal(), new BigDecimal("1.0"));
 
             Flight flight = new Flight(flightNumber, airline, aircraft, departureDateTime, from, to, duration, firstClassPrice, economyClassPrice);
-            airline.getFlights().add(flight);
+            airline.addFlight(flight);
             printlnLineSpaced(flight.toString());
         } catch (NullPointerException | IllegalArgumentException | DateTimeParseException ex) {
             printlnLineSpaced(ex.getMessage());
@@ -611,10 +987,26 @@ public class UserInterface {
     }
 
     /**
-     * List the closed flights of the currently chosen airline.
+     * List the closed flights of the currently chosen airline, including those
+     * moved to the archive.
      */
     public static void listFlightsClosed() {
         airline.getFlights().getClosed().print();
+        airline.getFlightArchive().print();
+    }
+
+    /**
+     * Print the revenue of the archived flights of the currently chosen
+     * airline that departed between two dates.
+     */
+    public static void printArchivedRevenue() {
+        try {
+            LocalDate from = getLocalDate("From date (yyyy-MM-dd)");
+            LocalDate to = getLocalDate("To date (yyyy-MM-dd)");
+            airline.getFlightArchive().printRevenue(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            printlnLineSpaced(ex.getMessage());
+        }
     }
 
     /**
@@ -631,6 +1023,36 @@ public class UserInterface {
         airline.getFlights().getOpen().print();
     }
 
+    /**
+     * Search the flights of the currently chosen airline by route and
+     * departure time.
+     */
+    public static void searchFlights() {
+        try {
+            Airport from = getAirports().getByNameIgnoreCase(getRequireNotEmpty("From airport"));
+            requireNonNull(from);
+            Airport to = getAirports().getByNameIgnoreCase(getRequireNotEmpty("To airport"));
+            requireNonNull(to);
+            LocalDate departureDate = getLocalDate("Departure date (yyyy-MM-dd)");
+            LocalTime earliest = getLocalTime("Earliest departure (HH:mm)");
+            LocalTime latest = getLocalTime("Latest departure (HH:mm)");
+            airline.getFlights().getByRoute(from, to, departureDate.atTime(earliest), departureDate.atTime(latest).plusMinutes(1)).print();
+        } catch (NullPointerException | IllegalArgumentException | DateTimeParseException ex) {
+            printlnLineSpaced(ex.getMessage());
+        }
+    }
+
+    /**
+     * Simulate the takeoff, flight, landing and refuel of each flight of the
+     * currently chosen airline.
+     */
+    public static void simulateFlights() {
+        Simulation simulation = new Simulation();
+        simulation.schedule(airline.getFlights());
+        simulation.run();
+        simulation.print();
+    }
+
     /**
      * Flights action menu.
      */
@@ -641,6 +1063,11 @@ public class UserInterface {
         optionMap.add("2", "List open flights", "listFlightsOpen");
         optionMap.add("3", "Add flight", "addFlight");
         optionMap.add("4", "Print flight", "printFlightTotals");
+        optionMap.add("5", "Simulate flights", "simulateFlights");
+        optionMap.add("6", "Search flights", "searchFlights");
+        optionMap.add("7", "Print catering", "printCatering");
+        optionMap.add("8", "Archived revenue", "printArchivedRevenue");
+        optionMap.add("9", "Toggle overbooking", "toggleOverbooking");
         optionMap.addBackAction();
         optionMap.addExitAction();
         if (runOptionMenus(optionMap)) {
@@ -648,11 +1075,75 @@ public class UserInterface {
         }
     }
 
+    /**
+     * Gets the economy analytics of the currently chosen airline, building them
+     * if they have not been built yet.
+     *
+     * @return The {@link EconomyAnalytics}
+     */
+    private static EconomyAnalytics getEconomyAnalytics() {
+        if (economyAnalytics == null || economyAirline != airline) {
+            economyAnalytics = EconomyAnalytics.build(airline);
+            economyAirline = airline;
+            printlnLineSpaced("Analysed " + economyAnalytics.size() + " bookings");
+        }
+        return economyAnalytics;
+    }
+
+    /**
+     * Print the revenue by route of the currently chosen airline.
+     */
+    public static void printRevenueByRoute() {
+        getEconomyAnalytics().printRevenueByRoute();
+    }
+
+    /**
+     * Print the revenue by month of the currently chosen airline.
+     */
+    public static void printRevenueByMonth() {
+        getEconomyAnalytics().printRevenueByMonth();
+    }
+
+    /**
+     * Print the revenue by class of the currently chosen airline.
+     */
+    public static void printRevenueByClass() {
+        getEconomyAnalytics().printRevenueByClass();
+    }
+
+    /**
+     * Print the load factor by aircraft of the currently chosen airline.
+     */
+    public static void printLoadFactorByAircraft() {
+        getEconomyAnalytics().printLoadFactorByAircraft();
+    }
+
+    /**
+     * Print the meal attach rate of the currently chosen airline.
+     */
+    public static void printMealAttachRate() {
+        getEconomyAnalytics().printMealAttachRate();
+    }
+
+    /**
+     * Rebuild the economy analytics, to include the latest bookings.
+     */
+    public static void refreshEconomyAnalytics() {
+        economyAnalytics = null;
+        getEconomyAnalytics();
+    }
+
     /**
      * Economy action menu.
      */
     public static void economyAction() {
         OptionMap optionMap = new OptionMap();
+        optionMap.add("0", "Revenue by route", "printRevenueByRoute");
+        optionMap.add("1", "Revenue by month", "printRevenueByMonth");
+        optionMap.add("2", "Revenue by class", "printRevenueByClass");
+        optionMap.add("3", "Load factor by aircraft", "printLoadFactorByAircraft");
+        optionMap.add("4", "Meal attach rate", "printMealAttachRate");
+        optionMap.add("5", "Refresh", "refreshEconomyAnalytics");
         optionMap.addBackAction();
         optionMap.addExitAction();
         if (runOptionMenus(optionMap)) {
@@ -686,10 +1177,16 @@ public class UserInterface {
     public static void chooseAirline() {
         String data = getInput("Airline name");
         try {
-            airline = AIRLINES.getByNameIgnoreCase(data);
+            airline = getAirlines().getByNameIgnoreCase(data);
             requireElementFound(airline);
             println();
             println("Airline: " + airline.getName());
+            if (SHARDS.findAirline(airline.getName()) != null) {
+                shardAirline = airline.getName();
+                airline = null;
+                shardAirlineAction();
+                return;
+            }
             mainAction();
         } catch (ElementNotFoundException ex) {
             printlnLineSpaced("Company not found: " + data);
@@ -714,7 +1211,7 @@ public class UserInterface {
             String subscriberNumber = getRequireNotEmpty("Subscriber number");
             Phone phone = new Phone(countryCode, areaCode, subscriberNumber);
             Airline airline1 = new Airline(airlineName, address, phone);
-            AIRLINES.add(airline1);
+            getAirlines().add(airline1);
             printlnLineSpaced(airline1.toString());
         } catch (NullPointerException | IllegalArgumentException ex) {
             printlnLineSpaced(ex.getMessage());
@@ -725,7 +1222,7 @@ public class UserInterface {
      * List the airports.
      */
     public static void listAirports() {
-        AIRPORTS.print();
+        getAirports().print();
     }
 
     /**
@@ -758,7 +1255,7 @@ public class UserInterface {
             String subscriberNumber = getRequireNotEmpty("Subscriber number");
             Phone phone = new Phone(countryCode, areaCode, subscriberNumber);
             Airport airport = new Airport(airportName, address, phone);
-            AIRPORTS.add(airport);
+            getAirports().add(airport);
             printlnLineSpaced(airport.toString());
         } catch (NullPointerException | IllegalArgumentException ex) {
             printlnLineSpaced(ex.getMessage());
@@ -769,7 +1266,7 @@ public class UserInterface {
      * List the airlines.
      */
     public static void listAirlines() {
-        AIRLINES.print();
+        getAirlines().print();
     }
 
     /**
@@ -787,6 +1284,446 @@ public class UserInterface {
         }
     }
 
+    /**
+     * Print the application clock.
+     */
+    public static void printClock() {
+        printlnLineSpaced("Clock: " + ApplicationClock.now() + " (" + ApplicationClock.getMode() + ")");
+    }
+
+    /**
+     * Make the application clock follow the system clock.
+     */
+    public static void useRealClock() {
+        ApplicationClock.useReal();
+        printClock();
+    }
+
+    /**
+     * Stand the application clock still at its current time.
+     */
+    public static void useFixedClock() {
+        ApplicationClock.useFixed(ApplicationClock.now());
+        printClock();
+    }
+
+    /**
+     * Run the application clock faster than the system clock.
+     */
+    public static void useAcceleratedClock() {
+        try {
+            int factor = getInputInt("Times faster than real time");
+            requireGreaterOrEqual(factor, 1);
+            ApplicationClock.useAccelerated(factor);
+            printClock();
+        } catch (IllegalArgumentException ex) {
+            printlnLineSpaced(ex.getMessage());
+        }
+    }
+
+    /**
+     * Advance a fixed application clock, running the flight departures and
+     * arrivals that fall due.
+     */
+    public static void advanceClock() {
+        try {
+            int minutes = getInputInt("Advance (minutes)");
+            requireGreaterOrEqual(minutes, 0);
+            ApplicationClock.advance(Duration.ofMinutes(minutes));
+            printClock();
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            printlnLineSpaced(ex.getMessage());
+        }
+    }
+
+    /**
+     * Clock action menu.
+     */
+    public static void clockAction() {
+        OptionMap optionMap = new OptionMap();
+        optionMap.add("0", "Print clock", "printClock");
+        optionMap.add("1", "Use real clock", "useRealClock");
+        optionMap.add("2", "Use fixed clock", "useFixedClock");
+        optionMap.add("3", "Use accelerated clock", "useAcceleratedClock");
+        optionMap.add("4", "Advance fixed clock", "advanceClock");
+        optionMap.addBackAction();
+        optionMap.addExitAction();
+        if (runOptionMenus(optionMap)) {
+            clockAction();
+        }
+    }
+
+    /**
+     * Print the metrics.
+     */
+    public static void printMetrics() {
+        println();
+        Metrics.print();
+        println();
+    }
+
+    /**
+     * Print the metrics as JSON, for other programs to read.
+     */
+    public static void dumpMetrics() {
+        printlnLineSpaced(Metrics.dump());
+    }
+
+    /**
+     * Clear the metrics.
+     */
+    public static void resetMetrics() {
+        Metrics.reset();
+        printlnLineSpaced("Metrics reset");
+    }
+
+    /**
+     * Switch the lock contention profiler on or off.
+     */
+    public static void toggleLockProfiler() {
+        if (LockProfiler.isEnabled()) {
+            LockProfiler.disable();
+            printlnLineSpaced("Lock profiler disabled");
+        } else {
+            LockProfiler.enable();
+            printlnLineSpaced("Lock profiler enabled");
+        }
+    }
+
+    /**
+     * Print the most contended list locks.
+     */
+    public static void printLockContention() {
+        println();
+        LockProfiler.print(10);
+        println();
+    }
+
+    /**
+     * Clear the lock contention statistics.
+     */
+    public static void resetLockProfiler() {
+        LockProfiler.reset();
+        printlnLineSpaced("Lock profiler reset");
+    }
+
+    /**
+     * Metrics action menu.
+     */
+    public static void metricsAction() {
+        OptionMap optionMap = new OptionMap();
+        optionMap.add("0", "Print metrics", "printMetrics");
+        optionMap.add("1", "Dump metrics", "dumpMetrics");
+        optionMap.add("2", "Reset metrics", "resetMetrics");
+        optionMap.add("3", "Toggle lock profiler", "toggleLockProfiler");
+        optionMap.add("4", "Print lock contention", "printLockContention");
+        optionMap.add("5", "Reset lock profiler", "resetLockProfiler");
+        optionMap.addBackAction();
+        optionMap.addExitAction();
+        if (runOptionMenus(optionMap)) {
+            metricsAction();
+        }
+    }
+
+    /**
+     * Start shard worker processes.
+     */
+    public static void startShardWorkers() {
+        try {
+            int count = requireGreaterOrEqual(getInputInt("Number of workers"), 1);
+            SHARDS.startWorkers(count);
+            printlnLineSpaced("Shard workers: " + SHARDS.getShardCount());
+        } catch (IOException | RuntimeException ex) {
+            printlnLineSpaced("Shard workers not started: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Hand the airlines that are not on a shard yet to the shard workers.
+     */
+    public static void distributeAirlines() {
+        try {
+            printlnLineSpaced("Airlines handed out: " + SHARDS.distribute(getAirlines()));
+        } catch (RuntimeException ex) {
+            printlnLineSpaced(ex.getMessage());
+        }
+    }
+
+    /**
+     * List the shard workers and their airlines.
+     */
+    public static void listShards() {
+        println();
+        SHARDS.print();
+        println();
+    }
+
+    /**
+     * Even out the number of airlines on each shard worker.
+     */
+    public static void rebalanceShards() {
+        try {
+            printlnLineSpaced("Airlines moved: " + SHARDS.rebalance());
+        } catch (RuntimeException ex) {
+            printlnLineSpaced(ex.getMessage());
+        }
+    }
+
+    /**
+     * Print the booking totals of every sharded airline.
+     */
+    public static void printShardTotals() {
+        println();
+        try {
+            SHARDS.printTotals();
+        } catch (RuntimeException ex) {
+            println(ex.getMessage());
+        }
+        println();
+    }
+
+    /**
+     * Stop the shard workers.
+     */
+    public static void stopShardWorkers() {
+        try {
+            SHARDS.close();
+            printlnLineSpaced("Shard workers stopped");
+        } catch (IOException ex) {
+            printlnLineSpaced(ex.getMessage());
+        }
+    }
+
+    /**
+     * Choose a sharded airline by name.
+     */
+    public static void chooseShardAirline() {
+        String data = getInput("Airline name");
+        shardAirline = SHARDS.findAirline(data);
+        if (shardAirline == null) {
+            printlnLineSpaced("Airline not on a shard: " + data);
+            return;
+        }
+        shardAirlineAction();
+    }
+
+    /**
+     * Make a booking with the currently chosen sharded airline.
+     */
+    public static void makeShardBooking() {
+        try {
+            String flightNumber = getRequireNotEmpty("Flight number");
+            String passengerName = getRequireNotEmpty("Passenger name");
+            ProductClassTypes seatType = getProductClass();
+            printlnLineSpaced(SHARDS.book(shardAirline, flightNumber, passengerName, seatType));
+        } catch (ElementNotFoundException ex) {
+            printlnLineSpaced("Flight or passenger not found");
+        } catch (RuntimeException ex) {
+            printlnLineSpaced(ex.getMessage());
+        }
+    }
+
+    /**
+     * Print the booking totals of the currently chosen sharded airline.
+     */
+    public static void printShardAirlineTotals() {
+        try {
+            BigDecimal[] totals = SHARDS.getTotals(shardAirline);
+            println();
+            println("Bookings: " + totals[0]);
+            println("Bookings total price: " + totals[1]);
+            println("Bookings costs: " + totals[2]);
+            println("Bookings profit: " + totals[3]);
+            println();
+        } catch (RuntimeException ex) {
+            printlnLineSpaced(ex.getMessage());
+        }
+    }
+
+    /**
+     * Sharded airline action menu.
+     */
+    public static void shardAirlineAction() {
+        println("Airline " + shardAirline + " is served by a shard worker");
+        OptionMap optionMap = new OptionMap();
+        optionMap.add("0", "Make booking", "makeShardBooking");
+        optionMap.add("1", "Print totals", "printShardAirlineTotals");
+        optionMap.addBackAction();
+        optionMap.addExitAction();
+        if (runOptionMenus(optionMap)) {
+            shardAirlineAction();
+        }
+    }
+
+    /**
+     * Shards action menu.
+     */
+    public static void shardsAction() {
+        OptionMap optionMap = new OptionMap();
+        optionMap.add("0", "Start workers", "startShardWorkers");
+        optionMap.add("1", "Distribute airlines", "distributeAirlines");
+        optionMap.add("2", "List shards", "listShards");
+        optionMap.add("3", "Choose airline", "chooseShardAirline");
+        optionMap.add("4", "Print totals", "printShardTotals");
+        optionMap.add("5", "Rebalance", "rebalanceShards");
+        optionMap.add("6", "Stop workers", "stopShardWorkers");
+        optionMap.addBackAction();
+        optionMap.addExitAction();
+        if (runOptionMenus(optionMap)) {
+            shardsAction();
+        }
+    }
+
+    /**
+     * Start shipping booking changes to replica processes.
+     */
+    public static void startReplication() {
+        try {
+            int port = requireGreaterOrEqual(getInputInt("Port, 0 for any free port"), 0);
+            ReplicationPublisher publisher = ReplicationPublisher.start(port, getAirlines(), getAirports());
+            printlnLineSpaced("Replication listening on port " + publisher.getPort());
+            println("Start a replica with " + ReplicaFollower.TOKEN_ENV + "=" + publisher.getToken());
+            println();
+        } catch (IOException | RuntimeException ex) {
+            printlnLineSpaced("Replication not started: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Print the state of the replication.
+     */
+    public static void printReplication() {
+        ReplicationPublisher publisher = ReplicationPublisher.getCurrent();
+        if (publisher == null) {
+            printlnLineSpaced("Replication is not running");
+            return;
+        }
+        println();
+        println("Replication port: " + publisher.getPort());
+        println("Replication token: " + publisher.getToken());
+        println("Replication sequence: " + publisher.getSequence());
+        println("Replication followers: " + publisher.getFollowerCount());
+        println("Replication backlog: " + publisher.getBacklog());
+        println();
+    }
+
+    /**
+     * Stop shipping booking changes to replica processes.
+     */
+    public static void stopReplication() {
+        ReplicationPublisher publisher = ReplicationPublisher.getCurrent();
+        if (publisher == null) {
+            printlnLineSpaced("Replication is not running");
+            return;
+        }
+        try {
+            publisher.close();
+            printlnLineSpaced("Replication stopped");
+        } catch (IOException ex) {
+            printlnLineSpaced(ex.getMessage());
+        }
+    }
+
+    /**
+     * Replication action menu.
+     */
+    public static void replicationAction() {
+        OptionMap optionMap = new OptionMap();
+        optionMap.add("0", "Start replication", "startReplication");
+        optionMap.add("1", "Print replication", "printReplication");
+        optionMap.add("2", "Stop replication", "stopReplication");
+        optionMap.addBackAction();
+        optionMap.addExitAction();
+        if (runOptionMenus(optionMap)) {
+            replicationAction();
+        }
+    }
+
+    /**
+     * List the airlines of the replica.
+     */
+    public static void listReplicaAirlines() {
+        replica.getAirlines().print();
+    }
+
+    /**
+     * Print how far the replica has followed its publisher.
+     */
+    public static void printReplica() {
+        printlnLineSpaced("Replica sequence: " + replica.getAppliedSequence() + (replica.isConnected() ? "" : ", disconnected"));
+    }
+
+    /**
+     * Choose an airline of the replica by name.
+     */
+    public static void chooseReplicaAirline() {
+        String data = getInput("Airline name");
+        try {
+            airline = requireElementFound(replica.getAirlines().getByNameIgnoreCase(data));
+            println();
+            println("Airline: " + airline.getName());
+            replicaAirlineAction();
+        } catch (ElementNotFoundException ex) {
+            printlnLineSpaced("Company not found: " + data);
+        } catch (IllegalArgumentException ex) {
+            printlnLineSpaced(ex.getMessage() + ": " + data);
+        }
+    }
+
+    /**
+     * Replica airline action menu, offering only the reports.
+     */
+    public static void replicaAirlineAction() {
+        OptionMap optionMap = new OptionMap();
+        optionMap.add("0", "List bookings", "listBookings");
+        optionMap.add("1", "List completed bookings", "listBookingsCompleted");
+        optionMap.add("2", "List confirmed bookings", "listBookingsConfirmed");
+        optionMap.add("3", "List closed flights", "listFlightsClosed");
+        optionMap.add("4", "List departed flights", "listFlightsDeparted");
+        optionMap.add("5", "List open flights", "listFlightsOpen");
+        optionMap.add("6", "Print flight", "printFlightTotals");
+        optionMap.add("7", "Archived revenue", "printArchivedRevenue");
+        optionMap.addBackAction();
+        optionMap.addExitAction();
+        if (runOptionMenus(optionMap)) {
+            replicaAirlineAction();
+        }
+        airline = null;
+    }
+
+    /**
+     * The entry menu of a replica.
+     */
+    public static void replicaMenu() {
+        airline = null;
+        OptionMap optionMap = new OptionMap();
+        optionMap.add("0", "List airlines", "listReplicaAirlines");
+        optionMap.add("1", "Report on airline", "chooseReplicaAirline");
+        optionMap.add("2", "Print replica", "printReplica");
+        optionMap.add("3", "Metrics", "metricsAction");
+        optionMap.addExitAction();
+        runOptionMenus(optionMap);
+        replicaMenu();
+    }
+
+    /**
+     * Follows the publisher on a port of this machine, and starts the replica
+     * menu. The publisher's token is taken from
+     * {@link ReplicaFollower#TOKEN_ENV}, or asked for if that is not set.
+     *
+     * @param port The port the publisher is listening on
+     * @throws IOException if the publisher can not be followed
+     */
+    public static void startReplica(int port) throws IOException {
+        String token = System.getenv(ReplicaFollower.TOKEN_ENV);
+        if (token == null || token.isEmpty()) {
+            token = getRequireNotEmpty("Replication token");
+        }
+        replica = new ReplicaFollower(port, token);
+        printlnLineSpaced("Following replication on port " + port);
+        replicaMenu();
+    }
+
     /**
      * The entry menu into the user interface.
      */
@@ -796,6 +1733,10 @@ public class UserInterface {
         OptionMap optionMap = new OptionMap();
         optionMap.add("0", "Airports", "airportsAction");
         optionMap.add("1", "Airlines", "airlinesAction");
+        optionMap.add("2", "Clock", "clockAction");
+        optionMap.add("3", "Metrics", "metricsAction");
+        optionMap.add("4", "Shards", "shardsAction");
+        optionMap.add("5", "Replication", "replicationAction");
         optionMap.addExitAction();
         runOptionMenus(optionMap);
         startMenu();
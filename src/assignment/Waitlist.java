@@ -0,0 +1,261 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import static assignment.GeneralUtils.printlnLineSpaced;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The passengers waiting for a seat on a {@link Flight}, in a
+ * {@link PriorityBlockingQueue} for each {@link ProductClassTypes}, ordered by
+ * {@link WaitlistEntry}.
+ *
+ * <p>
+ * When a booking of the flight releases its authorisation, by being
+ * cancelled or bumped, the releasing thread only schedules a promotion on the
+ * common {@link ForkJoinPool} and returns. Releases made before the promotion
+ * runs are promoted together: one run books as many entries of each class as
+ * the class has room for, see {@link Flight#getAvailable(ProductClassTypes)}.
+ *
+ * <p>
+ * The waitlist is not journaled, so a replica has the waitlist of its
+ * snapshot and never promotes.
+ *
+ * @author Graham Fairweather
+ */
+public final class Waitlist implements Serializable {
+
+    private static final LongAdder ADDED = Metrics.counter("waitlist.added");
+    private static final LongAdder PROMOTED = Metrics.counter("waitlist.promoted");
+    private static final LongAdder DROPPED = Metrics.counter("waitlist.dropped");
+    private static final LatencyHistogram PROMOTION_LATENCY = Metrics.histogram("waitlist.promotion");
+
+    private final Flight flight;
+    private final Map<ProductClassTypes, PriorityBlockingQueue<WaitlistEntry>> queues;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Allocates a <code>Waitlist</code> object for a flight.
+     *
+     * @param flight The {@link Flight}
+     */
+    Waitlist(Flight flight) {
+        this.flight = requireNonNull(flight);
+        this.queues = new EnumMap<>(ProductClassTypes.class);
+        for (ProductClassTypes type : ProductClassTypes.values()) {
+            queues.put(type, new PriorityBlockingQueue<>());
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // a promotion scheduled in another process does not come with it
+        scheduled.set(false);
+    }
+
+    /**
+     * Adds a passenger to the waitlist of a class.
+     *
+     * @param passenger The {@link Passenger}
+     * @param type The {@link ProductClassTypes}
+     * @param meal The {@link Meal} to book when promoted
+     * @param priority The priority, higher is promoted first, see
+     * {@link WaitlistEntry#NORMAL_PRIORITY}
+     * @return The {@link WaitlistEntry}
+     * @throws IllegalStateException if the flight is not open
+     */
+    public WaitlistEntry add(Passenger passenger, ProductClassTypes type, Meal meal, int priority) {
+        if (flight.getStatus() != FlightStatusTypes.OPEN) {
+            throw new IllegalStateException("flight is not open: " + flight.getFlightNumber());
+        }
+        WaitlistEntry entry = new WaitlistEntry(flight, passenger, type, meal, priority);
+        queues.get(type).add(entry);
+        ADDED.increment();
+        // room may have been released before the entry was added
+        released();
+        return entry;
+    }
+
+    /**
+     * Takes an entry off the waitlist, if it is still waiting.
+     *
+     * @param entry The {@link WaitlistEntry}
+     * @return {@code true} if the entry was waiting and is now removed,
+     * otherwise {@code false}
+     */
+    public boolean remove(WaitlistEntry entry) {
+        return queues.get(entry.getType()).remove(entry) && entry.finish(WaitlistStatusTypes.REMOVED, null);
+    }
+
+    /**
+     * Gets the number of passengers waiting for a class.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return The number of passengers
+     */
+    public int size(ProductClassTypes type) {
+        return queues.get(requireNonNull(type)).size();
+    }
+
+    /**
+     * Gets the entries waiting for a class, in the order they would be
+     * promoted.
+     *
+     * @param type The {@link ProductClassTypes}
+     * @return A list of the entries
+     */
+    public List<WaitlistEntry> getEntries(ProductClassTypes type) {
+        List<WaitlistEntry> entries = new ArrayList<>(queues.get(requireNonNull(type)));
+        Collections.sort(entries);
+        return entries;
+    }
+
+    /**
+     * Gets the position an entry would be promoted in, counting from 1.
+     *
+     * @param entry The {@link WaitlistEntry}
+     * @return The position, or 0 if the entry is not waiting
+     */
+    public int getPosition(WaitlistEntry entry) {
+        int ahead = 0;
+        boolean found = false;
+        for (WaitlistEntry other : queues.get(entry.getType())) {
+            if (other == entry) {
+                found = true;
+            } else if (other.compareTo(entry) < 0) {
+                ahead += 1;
+            }
+        }
+        return found ? ahead + 1 : 0;
+    }
+
+    /**
+     * Schedules a promotion, unless one is already scheduled or nobody is
+     * waiting. Called when a booking of the flight releases its authorisation.
+     */
+    void released() {
+        if (ReplicaFollower.isReplica() || isEmpty()) {
+            return;
+        }
+        if (scheduled.compareAndSet(false, true)) {
+            ForkJoinPool.commonPool().execute(this::promote);
+        }
+    }
+
+    private boolean isEmpty() {
+        for (PriorityBlockingQueue<WaitlistEntry> queue : queues.values()) {
+            if (!queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Promotes the entries of each class that there is room for into
+     * bookings.
+     */
+    private void promote() {
+        // releases from here on schedule another run
+        scheduled.set(false);
+        final long start = System.nanoTime();
+        for (Map.Entry<ProductClassTypes, PriorityBlockingQueue<WaitlistEntry>> queue : queues.entrySet()) {
+            promote(queue.getKey(), queue.getValue());
+        }
+        PROMOTION_LATENCY.recordSince(start);
+    }
+
+    private void promote(ProductClassTypes type, PriorityBlockingQueue<WaitlistEntry> queue) {
+        while (flight.getStatus() == FlightStatusTypes.OPEN && flight.getAvailable(type) > 0) {
+            WaitlistEntry entry = queue.poll();
+            if (entry == null) {
+                return;
+            }
+            Booking booking;
+            try {
+                booking = flight.book(entry.getPassenger(), type, entry.getMeal());
+            } catch (IllegalStateException ex) {
+                if (flight.getAvailable(type) <= 0) {
+                    // booked meanwhile by another desk, wait for the next release
+                    queue.add(entry);
+                    return;
+                }
+                // the meal sold out
+                entry.finish(WaitlistStatusTypes.DROPPED, null);
+                DROPPED.increment();
+                continue;
+            }
+            flight.getAirline().addBooking(booking);
+            entry.finish(WaitlistStatusTypes.PROMOTED, booking);
+            PROMOTED.increment();
+        }
+    }
+
+    /**
+     * Drops every waiting entry. Called when the flight departs.
+     *
+     * @return The number of entries dropped
+     */
+    int close() {
+        int count = 0;
+        for (PriorityBlockingQueue<WaitlistEntry> queue : queues.values()) {
+            WaitlistEntry entry;
+            while ((entry = queue.poll()) != null) {
+                if (entry.finish(WaitlistStatusTypes.DROPPED, null)) {
+                    count += 1;
+                }
+            }
+        }
+        DROPPED.add(count);
+        return count;
+    }
+
+    /**
+     * Prints the entries waiting for each class.
+     */
+    public void print() {
+        printlnLineSpaced("Waitlist of flight " + flight.getFlightNumber() + ":");
+        for (ProductClassTypes type : ProductClassTypes.values()) {
+            println(type + ": " + size(type) + " waiting");
+            getEntries(type).forEach(entry -> {
+                entry.print();
+                println();
+            });
+        }
+    }
+
+}
@@ -0,0 +1,198 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.GeneralUtils.println;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A passenger waiting for a seat of a class on a {@link Flight}, held in the
+ * flight's {@link Waitlist}. Entries are promoted by priority, highest first,
+ * and then in the order they were added.
+ *
+ * @author Graham Fairweather
+ */
+public final class WaitlistEntry extends AccountableObject implements Serializable, Comparable<WaitlistEntry> {
+
+    /**
+     * The priority of a passenger joining the waitlist.
+     */
+    public static final int NORMAL_PRIORITY = 0;
+
+    /**
+     * The priority of a passenger bumped from another flight.
+     */
+    public static final int BUMPED_PRIORITY = 10;
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final Flight flight;
+    private final Passenger passenger;
+    private final ProductClassTypes type;
+    private final Meal meal;
+    private final int priority;
+    private final long sequence;
+    private final LocalDateTime requestedAt;
+    private final AtomicReference<WaitlistStatusTypes> status;
+    private volatile Booking booking;
+
+    /**
+     * Allocates a <code>WaitlistEntry</code> object and initialises it.
+     *
+     * @param flight The {@link Flight}
+     * @param passenger The {@link Passenger}
+     * @param type The {@link ProductClassTypes}
+     * @param meal The {@link Meal}
+     * @param priority The priority, higher is promoted first
+     */
+    WaitlistEntry(Flight flight, Passenger passenger, ProductClassTypes type, Meal meal, int priority) {
+        this.flight = requireNonNull(flight);
+        this.passenger = requireNonNull(passenger);
+        this.type = requireNonNull(type);
+        this.meal = requireNonNull(meal);
+        this.priority = priority;
+        this.sequence = SEQUENCE.incrementAndGet();
+        this.requestedAt = ApplicationClock.now();
+        this.status = new AtomicReference<>(WaitlistStatusTypes.WAITING);
+    }
+
+    /**
+     * Gets the flight waited for.
+     *
+     * @return The flight
+     */
+    public Flight getFlight() {
+        return flight;
+    }
+
+    /**
+     * Gets the passenger.
+     *
+     * @return The passenger
+     */
+    public Passenger getPassenger() {
+        return passenger;
+    }
+
+    /**
+     * Gets the class waited for.
+     *
+     * @return The {@link ProductClassTypes}
+     */
+    public ProductClassTypes getType() {
+        return type;
+    }
+
+    /**
+     * Gets the meal chosen.
+     *
+     * @return The meal
+     */
+    public Meal getMeal() {
+        return meal;
+    }
+
+    /**
+     * Gets the priority.
+     *
+     * @return The priority, higher is promoted first
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets the date and time the passenger joined the waitlist.
+     *
+     * @return The date and time
+     */
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    /**
+     * Gets the status of the entry.
+     *
+     * @return The {@link WaitlistStatusTypes}
+     */
+    public WaitlistStatusTypes getStatus() {
+        return status.get();
+    }
+
+    /**
+     * Gets the booking the entry was promoted into.
+     *
+     * @return The booking, or {@code null} if it has not been promoted
+     */
+    public Booking getBooking() {
+        return booking;
+    }
+
+    /**
+     * Atomically moves the entry on from waiting. Called only by the thread
+     * that took the entry off its queue.
+     *
+     * @param status The new {@link WaitlistStatusTypes}
+     * @param booking The booking promoted into, or {@code null}
+     * @return {@code true} if the entry was waiting, otherwise {@code false}
+     */
+    boolean finish(WaitlistStatusTypes status, Booking booking) {
+        this.booking = booking;
+        if (!this.status.compareAndSet(WaitlistStatusTypes.WAITING, status)) {
+            return false;
+        }
+        setModified();
+        return true;
+    }
+
+    @Override
+    public int compareTo(WaitlistEntry other) {
+        int compare = Integer.compare(other.priority, priority);
+        return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+    }
+
+    /**
+     * Prints this object.
+     */
+    @Override
+    public void print() {
+        println("Waitlist flight: " + flight.getFlightNumber());
+        println("Waitlist passenger: " + passenger.getName());
+        println("Waitlist class: " + type);
+        println("Waitlist meal: " + meal.getDescription());
+        println("Waitlist priority: " + priority);
+        println("Waitlist requested: " + requestedAt);
+        println("Waitlist status: " + status);
+    }
+
+    @Override
+    public String toString() {
+        return "WaitlistEntry{" + "flight=" + flight.getFlightNumber() + ", passenger=" + passenger + ", type=" + type + ", priority=" + priority + ", sequence=" + sequence + ", status=" + status + "} " + super.toString();
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.ProductClassTypes.ECONOMY;
+import static assignment.ProductClassTypes.FIRST;
+import java.time.LocalDateTime;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests of {@link FareEngine}.
+ *
+ * @author Graham Fairweather
+ */
+public class FareEngineTest {
+
+    private LocalDateTime departure;
+    private FareEngine engine;
+
+    @BeforeMethod
+    public void setUp() {
+        TestData.start();
+        // a month out, before the first departure step
+        departure = TestData.NOW.plusDays(30);
+        engine = new FareEngine(departure, new Price("200"), 2, new Price("100"), 10);
+    }
+
+    @Test
+    public void testBaseFare() {
+        assertEquals(engine.quoteCents(ECONOMY), 10000);
+        assertEquals(engine.quoteCents(FIRST), 20000);
+        assertEquals(engine.quote(ECONOMY).getValue(), "100.00");
+        assertEquals(engine.getBaseFare(FIRST).getValue(), "200.00");
+    }
+
+    @Test
+    public void testFillAndVelocity() {
+        for (int seat = 0; seat < 5; seat++) {
+            engine.reserved(ECONOMY);
+        }
+        assertEquals(engine.getReserved(ECONOMY), 5);
+        // half full costs a quarter more, and 5 recent bookings of 10 seats
+        // are over the 30% velocity premium
+        assertEquals(engine.quoteCents(ECONOMY), 16250);
+        assertEquals(engine.quoteCents(FIRST), 20000);
+    }
+
+    @Test
+    public void testVelocityDecays() {
+        for (int seat = 0; seat < 5; seat++) {
+            engine.reserved(ECONOMY);
+        }
+        ApplicationClock.advance(FareEngine.VELOCITY_HALF_LIFE.multipliedBy(20));
+        assertEquals(engine.quoteCents(ECONOMY), 12500);
+        engine.released(ECONOMY);
+        assertEquals(engine.getReserved(ECONOMY), 4);
+        assertEquals(engine.quoteCents(ECONOMY), 11600);
+    }
+
+    @Test
+    public void testDepartureSteps() {
+        long previous = engine.quoteCents(ECONOMY);
+        for (LocalDateTime now = TestData.NOW; now.isBefore(departure); now = now.plusDays(1)) {
+            ApplicationClock.useFixed(now);
+            long quote = engine.quoteCents(ECONOMY);
+            assertTrue(quote >= previous);
+            previous = quote;
+        }
+        ApplicationClock.useFixed(departure.minusHours(1));
+        assertEquals(engine.quoteCents(ECONOMY), 16000);
+    }
+
+    @Test
+    public void testCombinedMultiplierIsCapped() {
+        for (int seat = 0; seat < 10; seat++) {
+            engine.reserved(ECONOMY);
+        }
+        ApplicationClock.useFixed(departure.minusHours(12));
+        long cap = Math.round(10000 * FareEngine.MAXIMUM_FACTOR);
+        assertEquals(engine.quoteCents(ECONOMY), cap);
+        assertEquals(engine.quote(ECONOMY).getValue(), "250.00");
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.ItineraryOptimiseTypes.CHEAPEST;
+import static assignment.ItineraryOptimiseTypes.FASTEST;
+import static assignment.ProductClassTypes.ECONOMY;
+import java.time.Duration;
+import java.util.Arrays;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests of {@link ItinerarySearch}.
+ *
+ * @author Graham Fairweather
+ */
+public class ItinerarySearchTest {
+
+    private Airline airline;
+    private Aircraft aircraft;
+    private Airport x;
+    private Airport y;
+    private Airport z;
+    private Airport w;
+
+    @BeforeMethod
+    public void setUp() {
+        TestData.start();
+        airline = TestData.airline("Test Airways");
+        aircraft = TestData.aircraft(airline, "T1", 2, 10);
+        x = TestData.airport("X");
+        y = TestData.airport("Y");
+        z = TestData.airport("Z");
+        w = TestData.airport("W");
+    }
+
+    private ItinerarySearch search(int maximumLegs) {
+        return new ItinerarySearch(airline.getFlights(), ItinerarySearch.DEFAULT_MINIMUM_CONNECTION, ItinerarySearch.DEFAULT_MAXIMUM_CONNECTION, maximumLegs);
+    }
+
+    @Test
+    public void testFastestAndCheapest() {
+        Flight xy = TestData.flight(airline, "XY", aircraft, TestData.MORNING, x, y, 60, "100");
+        Flight yz = TestData.flight(airline, "YZ", aircraft, TestData.MORNING.plusHours(2), y, z, 60, "100");
+        Flight xz = TestData.flight(airline, "XZ", aircraft, TestData.MORNING.plusHours(1), x, z, 180, "150");
+        ItinerarySearch search = new ItinerarySearch(airline.getFlights());
+        assertEquals(search.search(x, z, TestData.NOW, ECONOMY, FASTEST).getLegs(), Arrays.asList(xy, yz));
+        assertEquals(search.search(x, z, TestData.NOW, ECONOMY, CHEAPEST).getLegs(), Arrays.asList(xz));
+    }
+
+    @Test
+    public void testMinimumConnection() {
+        Flight xy = TestData.flight(airline, "XY", aircraft, TestData.MORNING, x, y, 60, "100");
+        TestData.flight(airline, "YZ1", aircraft, TestData.MORNING.plusMinutes(80), y, z, 60, "1");
+        Flight yz = TestData.flight(airline, "YZ2", aircraft, TestData.MORNING.plusMinutes(105), y, z, 60, "100");
+        ItinerarySearch search = new ItinerarySearch(airline.getFlights());
+        assertEquals(search.search(x, z, TestData.NOW, ECONOMY, CHEAPEST).getLegs(), Arrays.asList(xy, yz));
+    }
+
+    @Test
+    public void testMaximumLegsKeepsDearerPathWithFewerLegs() {
+        Airport v = TestData.airport("V");
+        Flight xw = TestData.flight(airline, "XW", aircraft, TestData.MORNING, x, w, 60, "1");
+        Flight wy = TestData.flight(airline, "WY", aircraft, TestData.MORNING.plusHours(2), w, y, 60, "1");
+        Flight xy = TestData.flight(airline, "XY", aircraft, TestData.MORNING.plusMinutes(30), x, y, 120, "100");
+        Flight yz = TestData.flight(airline, "YZ", aircraft, TestData.MORNING.plusHours(5), y, z, 60, "10");
+        Flight zv = TestData.flight(airline, "ZV", aircraft, TestData.MORNING.plusHours(8), z, v, 60, "10");
+        assertEquals(search(4).search(x, v, TestData.NOW, ECONOMY, CHEAPEST).getLegs(), Arrays.asList(xw, wy, yz, zv));
+        assertEquals(search(3).search(x, v, TestData.NOW, ECONOMY, CHEAPEST).getLegs(), Arrays.asList(xy, yz, zv));
+        assertEquals(search(3).search(x, v, TestData.NOW, ECONOMY, FASTEST).getLegs(), Arrays.asList(xy, yz, zv));
+        assertEquals(search(3).search(x, z, TestData.NOW, ECONOMY, CHEAPEST).getLegs(), Arrays.asList(xw, wy, yz));
+        assertNull(search(2).search(x, v, TestData.NOW, ECONOMY, CHEAPEST));
+    }
+
+    @Test
+    public void testFullFlightIsSkipped() {
+        Flight xy = TestData.flight(airline, "XY", aircraft, TestData.MORNING, x, y, 60, "100");
+        Flight yz = TestData.flight(airline, "YZ", aircraft, TestData.MORNING.plusHours(2), y, z, 60, "100");
+        Flight xz = TestData.flight(airline, "XZ", aircraft, TestData.MORNING.plusHours(1), x, z, 180, "150");
+        Passenger passenger = TestData.passenger(airline, "Anna", "Andersson");
+        Meal meal = airline.getMeals().getNoMeal(ECONOMY);
+        while (yz.getAvailable(ECONOMY) > 0) {
+            airline.addBooking(yz.book(passenger, ECONOMY, meal));
+        }
+        ItinerarySearch search = new ItinerarySearch(airline.getFlights());
+        assertEquals(search.search(x, z, TestData.NOW, ECONOMY, FASTEST).getLegs(), Arrays.asList(xz));
+        assertNull(search.search(x, y, TestData.MORNING.plusMinutes(1), ECONOMY, FASTEST));
+        assertEquals(search.search(x, y, TestData.NOW, ECONOMY, FASTEST).getLegs(), Arrays.asList(xy));
+    }
+
+    @Test
+    public void testMaximumConnection() {
+        TestData.flight(airline, "XY", aircraft, TestData.MORNING, x, y, 60, "100");
+        TestData.flight(airline, "YZ", aircraft, TestData.MORNING.plusDays(2), y, z, 60, "100");
+        ItinerarySearch search = new ItinerarySearch(airline.getFlights(), Duration.ofMinutes(45), Duration.ofHours(24), 4);
+        assertNull(search.search(x, z, TestData.NOW, ECONOMY, FASTEST));
+        assertNull(search.search(z, x, TestData.NOW, ECONOMY, FASTEST));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSameAirports() {
+        new ItinerarySearch(airline.getFlights()).search(x, x, TestData.NOW, ECONOMY, FASTEST);
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.ProductClassTypes.ECONOMY;
+import java.util.Arrays;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests of {@link Itinerary}.
+ *
+ * @author Graham Fairweather
+ */
+public class ItineraryTest {
+
+    private Airline airline;
+    private Passenger passenger;
+    private Flight first;
+    private Flight second;
+
+    @BeforeMethod
+    public void setUp() {
+        TestData.start();
+        airline = TestData.airline("Test Airways");
+        Aircraft aircraft = TestData.aircraft(airline, "T1", 1, 2);
+        Airport x = TestData.airport("X");
+        Airport y = TestData.airport("Y");
+        Airport z = TestData.airport("Z");
+        first = TestData.flight(airline, "XY", aircraft, TestData.MORNING, x, y, 60, "100");
+        second = TestData.flight(airline, "YZ", aircraft, TestData.MORNING.plusHours(2), y, z, 60, "100");
+        passenger = TestData.passenger(airline, "Anna", "Andersson");
+    }
+
+    @Test
+    public void testBookEveryLeg() {
+        Bookings bookings = new Itinerary(Arrays.asList(first, second), ECONOMY).book(airline, passenger);
+        assertEquals(bookings.size(), 2);
+        assertEquals(airline.getBookings().size(), 2);
+        assertEquals(first.getAvailable(ECONOMY), 1);
+        assertEquals(second.getAvailable(ECONOMY), 1);
+    }
+
+    @Test
+    public void testFullLegRollsBackEarlierLegs() {
+        Meal meal = airline.getMeals().getNoMeal(ECONOMY);
+        while (second.getAvailable(ECONOMY) > 0) {
+            airline.addBooking(second.book(passenger, ECONOMY, meal));
+        }
+        final int booked = airline.getBookings().size();
+        try {
+            new Itinerary(Arrays.asList(first, second), ECONOMY).book(airline, passenger);
+            fail("booked a full flight");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+        assertEquals(airline.getBookings().size(), booked);
+        assertEquals(first.getAvailable(ECONOMY), 2);
+        assertEquals(first.getSeats().getEconomyClassSeatsAvailable().size(), 2);
+    }
+
+    @Test
+    public void testRollback() {
+        Booking booking = first.book(passenger, ECONOMY, airline.getMeals().getNoMeal(ECONOMY));
+        assertEquals(first.getAvailable(ECONOMY), 1);
+        assertTrue(booking.rollback());
+        assertEquals(booking.getStatus(), BookingStatusTypes.CANCELLED);
+        assertEquals(first.getAvailable(ECONOMY), 2);
+        assertEquals(first.getSeats().getEconomyClassSeatsAvailable().size(), 2);
+        assertFalse(booking.rollback());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testLegsMustConnect() {
+        new Itinerary(Arrays.asList(second, first), ECONOMY);
+    }
+
+}
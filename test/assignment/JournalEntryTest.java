@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.ProductClassTypes.ECONOMY;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests of replaying {@link JournalEntry} objects onto a copy of the
+ * airlines, as a {@link ReplicaFollower} does.
+ *
+ * @author Graham Fairweather
+ */
+public class JournalEntryTest {
+
+    private Airlines airlines;
+    private Airports airports;
+    private Airline airline;
+    private Aircraft aircraft;
+    private Passenger passenger;
+    private Meal meal;
+    private Airlines replicaAirlines;
+    private Airports replicaAirports;
+    private Airline replica;
+    private long sequence;
+
+    @BeforeMethod
+    public void setUp() throws IOException, ClassNotFoundException {
+        TestData.start();
+        airlines = new Airlines();
+        airports = new Airports();
+        airline = TestData.airline("Test Airways");
+        airlines.add(airline);
+        airports.add(TestData.airport("X"));
+        airports.add(TestData.airport("Y"));
+        airports.add(TestData.airport("Z"));
+        aircraft = TestData.aircraft(airline, "T1", 2, 10);
+        passenger = TestData.passenger(airline, "Anna", "Andersson");
+        meal = airline.getMeals().getNoMeal(ECONOMY);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(airlines);
+            out.writeObject(airports);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            replicaAirlines = (Airlines) in.readObject();
+            replicaAirports = (Airports) in.readObject();
+        }
+        replica = replicaAirlines.getByName("Test Airways");
+        sequence = 0;
+    }
+
+    private Flight flight(String number, String from, String to) {
+        Flight flight = TestData.flight(airline, number, aircraft, TestData.MORNING, airports.getByName(from), airports.getByName(to), 60, "100");
+        apply(JournalEntry.flightAdded(++sequence, flight));
+        return flight;
+    }
+
+    private Booking book(Flight flight) {
+        Booking booking = flight.book(passenger, ECONOMY, meal);
+        airline.addBooking(booking);
+        apply(JournalEntry.bookingAdded(++sequence, booking, flight.getBookings().indexOf(booking), flight.getBookings().getChangeCount()));
+        return booking;
+    }
+
+    private void apply(JournalEntry entry) {
+        entry.apply(replicaAirlines, replicaAirports);
+    }
+
+    private Flight replicaOf(Flight flight) {
+        Flight copy = replica.getFlights().find(candidate -> candidate.getId().equals(flight.getId()));
+        assertNotNull(copy, flight.getFlightNumber());
+        return copy;
+    }
+
+    @Test
+    public void testFlightAdded() {
+        Flight flight = flight("T1", "X", "Y");
+        Flight copy = replicaOf(flight);
+        assertEquals(copy.getFlightNumber(), "T1");
+        assertEquals(copy.getDepartureDateTime(), flight.getDepartureDateTime());
+        assertEquals(copy.getFrom().getName(), "X");
+        assertEquals(copy.getTo().getName(), "Y");
+        assertEquals(copy.getAircraft().getId(), aircraft.getId());
+        // applying it again changes nothing
+        apply(JournalEntry.flightAdded(sequence, flight));
+        assertEquals(replica.getFlights().size(), 1);
+    }
+
+    @Test
+    public void testBookingAddedAndCancelled() {
+        Flight flight = flight("T1", "X", "Y");
+        Booking booking = book(flight);
+        book(flight);
+        Flight copy = replicaOf(flight);
+        assertEquals(copy.getBookings().size(), 2);
+        Booking replicated = copy.getBookings().get(0);
+        assertEquals(replicated.getPassenger().getId(), passenger.getId());
+        assertEquals(replicated.getSeat().getSeatNumber(), booking.getSeat().getSeatNumber());
+        assertEquals(replicated.getFare(), booking.getFare());
+        assertEquals(copy.getAvailable(ECONOMY), flight.getAvailable(ECONOMY));
+
+        int index = flight.getBookings().indexOf(booking);
+        assertTrue(booking.cancel());
+        JournalEntry cancelled = JournalEntry.bookingStatus(++sequence, booking, index, flight.getBookings().getChangeCount(), BookingStatusTypes.CANCELLED);
+        apply(cancelled);
+        assertEquals(replicated.getStatus(), BookingStatusTypes.CANCELLED);
+        assertEquals(copy.getAvailable(ECONOMY), flight.getAvailable(ECONOMY));
+        // replayed entries the copy already has change nothing
+        apply(cancelled);
+        apply(JournalEntry.bookingAdded(2, booking, index, 1));
+        assertEquals(copy.getBookings().size(), 2);
+        assertEquals(copy.getAvailable(ECONOMY), flight.getAvailable(ECONOMY));
+    }
+
+    @Test
+    public void testFlightsWithTheSameNumber() {
+        Flight first = flight("T1", "X", "Y");
+        Flight second = flight("T1", "X", "Z");
+        book(second);
+        assertEquals(replica.getFlights().size(), 2);
+        assertEquals(replicaOf(first).getBookings().size(), 0);
+        assertEquals(replicaOf(second).getBookings().size(), 1);
+        assertEquals(replicaOf(second).getTo().getName(), "Z");
+        apply(JournalEntry.flightStatus(++sequence, second, FlightStatusTypes.CLOSED));
+        assertEquals(replicaOf(first).getStatus(), FlightStatusTypes.OPEN);
+        assertEquals(replicaOf(second).getStatus(), FlightStatusTypes.CLOSED);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testMissingChanges() {
+        Flight flight = flight("T1", "X", "Y");
+        Booking booking = flight.book(passenger, ECONOMY, meal);
+        airline.addBooking(booking);
+        apply(JournalEntry.bookingAdded(++sequence, booking, 0, flight.getBookings().getChangeCount() + 1));
+    }
+
+    @Test
+    public void testUnknownAirlineIsRefused() {
+        Airline other = TestData.airline("Other Airways");
+        Flight flight = TestData.flight(other, "O1", TestData.aircraft(other, "O1", 2, 10), TestData.MORNING, airports.getByName("X"), airports.getByName("Y"), 60, "100");
+        try {
+            apply(JournalEntry.flightAdded(++sequence, flight));
+            fail("applied an entry of an unknown airline");
+        } catch (ElementNotFoundException ex) {
+            assertFalse(replica.getFlights().contains(flight));
+        }
+    }
+
+}
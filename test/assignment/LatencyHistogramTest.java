@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Tests of {@link LatencyHistogram}.
+ *
+ * @author Graham Fairweather
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        for (int bucket = 0; bucket < 200; bucket++) {
+            long upper = LatencyHistogram.bucketUpperBound(bucket);
+            assertEquals(LatencyHistogram.bucket(upper), bucket);
+            assertEquals(LatencyHistogram.bucket(upper + 1), bucket + 1);
+        }
+        assertEquals(LatencyHistogram.bucket(Long.MAX_VALUE), LatencyHistogram.bucket(LatencyHistogram.bucketUpperBound(LatencyHistogram.bucket(Long.MAX_VALUE))));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (long nanos = 1; nanos <= 1000; nanos++) {
+            histogram.record(nanos * 1000);
+        }
+        assertEquals(histogram.getCount(), 1000);
+        assertEquals(histogram.getMax(), 1000000);
+        assertEquals(histogram.getTotal(), 500500000);
+        assertEquals(histogram.getPercentile(1), 1000000);
+        for (double quantile : new double[]{0.5, 0.9, 0.99}) {
+            long exact = (long) (quantile * 1000) * 1000;
+            long percentile = histogram.getPercentile(quantile);
+            // rounded up to the end of a bucket a quarter of a power of two wide
+            assertTrue(percentile >= exact && percentile < exact * 5 / 4, quantile + ": " + percentile);
+        }
+    }
+
+    @Test
+    public void testNegativeAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        assertEquals(histogram.getPercentile(0.5), 0);
+        histogram.record(-5);
+        assertEquals(histogram.getCount(), 1);
+        assertEquals(histogram.getMax(), 0);
+        histogram.record(7);
+        histogram.reset();
+        assertEquals(histogram.getCount(), 0);
+        assertEquals(histogram.getPercentile(0.99), 0);
+    }
+
+}
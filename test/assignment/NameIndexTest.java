@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests of {@link NameIndex}.
+ *
+ * @author Graham Fairweather
+ */
+public class NameIndexTest {
+
+    private NameIndex<Passenger> index;
+    private Passenger anna;
+    private Passenger anders;
+    private Passenger annika;
+    private Passenger bo;
+
+    private static Passenger passenger(String foreName) {
+        return new Passenger(foreName, "Andersson", GenderTypes.FEMALE, LocalDate.of(1980, 1, 1), TestData.address(), TestData.phone());
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        index = new NameIndex<>(Passenger::getForeName);
+        anna = passenger("Anna");
+        anders = passenger("Anders");
+        annika = passenger("Annika");
+        bo = passenger("Bo");
+        index.add(anna);
+        index.add(anders);
+        index.add(annika);
+        index.add(bo);
+    }
+
+    @Test
+    public void testFirstIgnoresCase() {
+        assertSame(index.first("an"), anna);
+        assertSame(index.first("AND"), anders);
+        assertSame(index.first("b"), bo);
+        assertSame(index.first(""), anna);
+        assertNull(index.first("c"));
+        assertNull(index.first("annas"));
+    }
+
+    @Test
+    public void testCompleteIsAlphabetical() {
+        assertEquals(index.complete("an", 10), Arrays.asList("Anders", "Anna", "Annika"));
+        assertEquals(index.complete("ann", 1), Collections.singletonList("Anna"));
+        assertEquals(index.complete("x", 10), Collections.emptyList());
+        assertEquals(index.complete("an", 0), Collections.emptyList());
+    }
+
+    @Test
+    public void testCompleteIsDistinct() {
+        index.add(passenger("Anna"));
+        assertEquals(index.complete("anna", 10), Collections.singletonList("Anna"));
+    }
+
+    @Test
+    public void testRemove() {
+        assertTrue(index.remove(anna));
+        assertFalse(index.remove(anna));
+        assertSame(index.first("an"), anders);
+        assertSame(index.first("ann"), annika);
+        assertEquals(index.complete("an", 10), Arrays.asList("Anders", "Annika"));
+        assertTrue(index.remove(bo));
+        assertNull(index.first("b"));
+    }
+
+    @Test
+    public void testRemoveKeepsOtherElementsOfTheSameName() {
+        Passenger second = passenger("Anna");
+        index.add(second);
+        assertTrue(index.remove(anna));
+        assertSame(index.first("anna"), second);
+    }
+
+    @Test
+    public void testClear() {
+        index.clear();
+        assertNull(index.first(""));
+        index.add(bo);
+        assertSame(index.first(""), bo);
+    }
+
+}
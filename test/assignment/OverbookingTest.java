@@ -0,0 +1,123 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import static assignment.ProductClassTypes.ECONOMY;
+import static assignment.ProductClassTypes.FIRST;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests of {@link Overbooking} and the authorisation limits it sets.
+ *
+ * @author Graham Fairweather
+ */
+public class OverbookingTest {
+
+    private boolean enabled;
+    private double noShowRate;
+    private double risk;
+
+    @BeforeMethod
+    public void setUp() {
+        TestData.start();
+        enabled = Overbooking.isEnabled();
+        noShowRate = Overbooking.getNoShowRate();
+        risk = Overbooking.getRisk();
+        Overbooking.setModel(0.08, 0.05);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        Overbooking.setModel(noShowRate, risk);
+        Overbooking.setEnabled(enabled);
+    }
+
+    @Test
+    public void testDisabledLimitIsCapacity() {
+        Overbooking.setEnabled(false);
+        for (int capacity = 0; capacity < 300; capacity++) {
+            assertEquals(Overbooking.getLimit(capacity), capacity);
+        }
+    }
+
+    @Test
+    public void testLimits() {
+        Overbooking.setEnabled(true);
+        assertEquals(Overbooking.getLimit(0), 0);
+        int previous = 0;
+        for (int capacity = 1; capacity < 300; capacity++) {
+            int limit = Overbooking.getLimit(capacity);
+            assertTrue(limit >= capacity && limit < capacity * 2, capacity + ": " + limit);
+            assertTrue(limit >= previous, capacity + ": " + limit);
+            previous = limit;
+        }
+        assertEquals(Overbooking.getLimit(1), 1);
+        assertTrue(Overbooking.getLimit(150) > 150);
+        assertTrue(Overbooking.getLimit(150) <= 150 / (1 - Overbooking.getNoShowRate()));
+    }
+
+    @Test
+    public void testLimitsFollowTheModel() {
+        Overbooking.setEnabled(true);
+        int limit = Overbooking.getLimit(150);
+        Overbooking.setModel(0.08, 0.2);
+        assertTrue(Overbooking.getLimit(150) >= limit);
+        Overbooking.setModel(0, 0.05);
+        assertEquals(Overbooking.getLimit(150), 150);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testModelMustBeRates() {
+        Overbooking.setModel(1, 0.05);
+    }
+
+    @Test
+    public void testFlightAuthorisesToTheLimit() {
+        Overbooking.setEnabled(true);
+        Airline airline = TestData.airline("Test Airways");
+        Aircraft aircraft = TestData.aircraft(airline, "T1", 4, 150);
+        Flight flight = TestData.flight(airline, "T1", aircraft, TestData.MORNING, TestData.airport("X"), TestData.airport("Y"), 60, "100");
+        Passenger passenger = TestData.passenger(airline, "Anna", "Andersson");
+        Meal meal = airline.getMeals().getNoMeal(ECONOMY);
+        int limit = Overbooking.getLimit(150);
+        assertEquals(flight.getAuthorisationLimit(ECONOMY), limit);
+        assertEquals(flight.getAuthorisationLimit(FIRST), Overbooking.getLimit(4));
+        int booked = 0;
+        while (flight.getAvailable(ECONOMY) > 0) {
+            Booking booking = flight.book(passenger, ECONOMY, meal);
+            assertFalse(booking.isSeated());
+            airline.addBooking(booking);
+            booked += 1;
+        }
+        assertEquals(booked, limit);
+        assertEquals(flight.getAuthorised(ECONOMY), limit);
+        assertEquals(flight.getSeats().getEconomyClassSeatsAvailable().size(), 150);
+    }
+
+}
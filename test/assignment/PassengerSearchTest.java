@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests of {@link PassengerSearch}.
+ *
+ * @author Graham Fairweather
+ */
+public class PassengerSearchTest {
+
+    private PassengerSearch search;
+    private Passenger sten;
+    private Passenger anna;
+
+    private static Passenger passenger(String foreName, String surName, String subscriberNumber) {
+        return new Passenger(foreName, surName, GenderTypes.FEMALE, LocalDate.of(1980, 1, 1), TestData.address(), new Phone("0046", "070", subscriberNumber));
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        search = new PassengerSearch();
+        sten = passenger("Sten", "Sjökvist", "6541 852");
+        anna = passenger("Anna", "Lövbiff", "3541 349");
+        search.add(sten);
+        search.add(anna);
+    }
+
+    @Test
+    public void testFold() {
+        assertEquals(PassengerSearch.fold("Sjökvist"), "sjokvist");
+        assertEquals(PassengerSearch.fold("Noël-Núñez"), "noel nunez");
+    }
+
+    @Test
+    public void testSearchIgnoresAccentsAndTypos() {
+        assertEquals(search.search("Sjokvist", 3), Collections.singletonList(sten));
+        assertEquals(search.search("sjökvst", 3), Collections.singletonList(sten));
+        assertEquals(search.search("lovbiff anna", 3), Collections.singletonList(anna));
+        assertTrue(search.search("Smith", 3).isEmpty());
+    }
+
+    @Test
+    public void testSearchByPhone() {
+        assertEquals(search.search("6541852", 3), Collections.singletonList(sten));
+        assertEquals(search.search("070 3541 349", 3), Collections.singletonList(anna));
+    }
+
+    @Test
+    public void testBestMatchFirst() {
+        Passenger stina = passenger("Stina", "Sjökvist", "1234 567");
+        search.add(stina);
+        List<Passenger> found = search.search("sten sjokvist", 3);
+        assertEquals(found.get(0), sten);
+        assertTrue(found.contains(stina));
+        assertEquals(search.search("sjokvist", 1).size(), 1);
+    }
+
+    @Test
+    public void testAddTwiceIndexesOnce() {
+        search.add(sten);
+        assertEquals(search.size(), 2);
+        assertEquals(search.search("Sjokvist", 3), Collections.singletonList(sten));
+    }
+
+    @Test
+    public void testRemove() {
+        search.remove(sten);
+        assertEquals(search.size(), 1);
+        assertTrue(search.search("Sjokvist", 3).isEmpty());
+        assertEquals(search.search("Lovbiff", 3), Collections.singletonList(anna));
+    }
+
+    @Test
+    public void testRemoveManyCompacts() {
+        List<Passenger> added = new ArrayList<>();
+        for (int number = 0; number < 200; number++) {
+            Passenger passenger = passenger("Name" + number, "Surname", String.valueOf(1000000 + number));
+            added.add(passenger);
+            search.add(passenger);
+        }
+        for (int number = 0; number < 190; number++) {
+            search.remove(added.get(number));
+        }
+        assertEquals(search.size(), 12);
+        assertTrue(search.search("Name5", 200).stream().noneMatch(passenger -> added.indexOf(passenger) < 190));
+        assertEquals(search.search("Name195", 1), Collections.singletonList(added.get(195)));
+        assertEquals(search.search("Sjokvist", 3), Collections.singletonList(sten));
+        search.add(added.get(5));
+        assertEquals(search.search("Name5", 1), Collections.singletonList(added.get(5)));
+        assertFalse(search.search("Name6", 200).contains(added.get(6)));
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Graham Fairweather.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package assignment;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Builds the small worlds used by the tests. The application clock is fixed,
+ * so that flights created for a test never depart while it is running.
+ *
+ * @author Graham Fairweather
+ */
+final class TestData {
+
+    /**
+     * The date and time the application clock is fixed at.
+     */
+    static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    /**
+     * The departure date and time of the first flight, eight hours after
+     * {@link #NOW}.
+     */
+    static final LocalDateTime MORNING = NOW.plusHours(8);
+
+    private TestData() {
+    }
+
+    /**
+     * Fixes the application clock at {@link #NOW}.
+     */
+    static void start() {
+        ApplicationClock.useFixed(NOW);
+    }
+
+    static Address address() {
+        return new Address("1 High Street", "Stockholm", "10000", "Europe");
+    }
+
+    static Phone phone() {
+        return new Phone("0046", "08", "1234 567");
+    }
+
+    static Airport airport(String name) {
+        return new Airport(name, address(), phone());
+    }
+
+    static Airline airline(String name) {
+        return new Airline(name, address(), phone());
+    }
+
+    /**
+     * Creates an aircraft and adds it to the airline's fleet.
+     *
+     * @param airline The airline
+     * @param name The name of the aircraft
+     * @param firstClassSeatCount The number of first class seats
+     * @param economyClassSeatCount The number of economy class seats
+     * @return The aircraft
+     */
+    static Aircraft aircraft(Airline airline, String name, int firstClassSeatCount, int economyClassSeatCount) {
+        Aircraft aircraft = new AircraftOfPassengerType(name, "Airbus", "A320", firstClassSeatCount, economyClassSeatCount);
+        airline.getAircrafts().add(aircraft);
+        return aircraft;
+    }
+
+    /**
+     * Creates a flight and adds it to the airline. The first class base fare
+     * is twice the economy class base fare.
+     *
+     * @param airline The airline
+     * @param number The flight number
+     * @param aircraft The aircraft
+     * @param departure The departure date and time
+     * @param from The departure airport
+     * @param to The arrival airport
+     * @param minutes The flight time in minutes
+     * @param economyFare The economy class base fare
+     * @return The flight
+     */
+    static Flight flight(Airline airline, String number, Aircraft aircraft, LocalDateTime departure, Airport from, Airport to, long minutes, String economyFare) {
+        Price economy = new Price(economyFare);
+        Price first = new Price(economy.getBigDecimal().multiply(BigDecimal.valueOf(2)));
+        Flight flight = new Flight(number, airline, aircraft, departure, from, to, Duration.ofMinutes(minutes), first, economy);
+        airline.addFlight(flight);
+        return flight;
+    }
+
+    /**
+     * Creates a passenger and adds it to the airline.
+     *
+     * @param airline The airline
+     * @param foreName The forename
+     * @param surName The surname
+     * @return The passenger
+     */
+    static Passenger passenger(Airline airline, String foreName, String surName) {
+        Passenger passenger = new Passenger(foreName, surName, GenderTypes.FEMALE, LocalDate.of(1980, 1, 1), address(), phone());
+        airline.getPassengers().add(passenger);
+        return passenger;
+    }
+
+}